@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Selects the properties to render, compiled from a sparse fieldset expression such as
+ * <code>name,address.street,address.city</code>. Property names are separated by comma, nested properties are
+ * selected by dot-separated paths. A property which is selected without path selects all its nested properties.
+ * Applies to bean properties, public fields and map keys alike.
+ */
+public class PropertyProjection {
+
+    /**
+     * Selects all properties.
+     */
+    public static final PropertyProjection ALL = new PropertyProjection(null);
+
+    /**
+     * Nested projections by property name, null if all properties are selected.
+     */
+    private final Map<String, PropertyProjection> properties;
+
+    private PropertyProjection(Map<String, PropertyProjection> properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Compiles sparse fieldset expression.
+     *
+     * @param fields
+     *         comma-separated property names or paths, null or blank to select all properties
+     * @return projection
+     */
+    public static PropertyProjection parse(String fields) {
+        if (fields == null || fields.trim()
+                .isEmpty()) {
+            return ALL;
+        }
+        Map<String, Object> tree = new HashMap<String, Object>();
+        for (String field : fields.split(",")) {
+            String path = field.trim();
+            if (!path.isEmpty()) {
+                addPath(tree, path.split("\\."));
+            }
+        }
+        return tree.isEmpty() ? ALL : compile(tree);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addPath(Map<String, Object> tree, String[] path) {
+        Map<String, Object> node = tree;
+        for (int i = 0; i < path.length; i++) {
+            String name = path[i].trim();
+            boolean last = i == path.length - 1;
+            Object child = node.get(name);
+            if (last) {
+                // a property without path selects everything below
+                node.put(name, ALL);
+                return;
+            } else if (child == ALL) {
+                return;
+            } else if (child == null) {
+                child = new HashMap<String, Object>();
+                node.put(name, child);
+            }
+            node = (Map<String, Object>) child;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PropertyProjection compile(Map<String, Object> tree) {
+        Map<String, PropertyProjection> properties = new HashMap<String, PropertyProjection>(tree.size() * 2);
+        for (Map.Entry<String, Object> entry : tree.entrySet()) {
+            Object child = entry.getValue();
+            properties.put(entry.getKey(), child == ALL ? ALL : compile((Map<String, Object>) child));
+        }
+        return new PropertyProjection(Collections.unmodifiableMap(properties));
+    }
+
+    /**
+     * Tells if this projection selects all properties at all levels.
+     *
+     * @return true if nothing is left out
+     */
+    public boolean includesAll() {
+        return properties == null;
+    }
+
+    /**
+     * Tells if the given property is selected.
+     *
+     * @param name
+     *         of the property
+     * @return true if the property should be rendered
+     */
+    public boolean includes(String name) {
+        return properties == null || properties.containsKey(name);
+    }
+
+    /**
+     * Gets projection for the nested properties of the given property.
+     *
+     * @param name
+     *         of the property
+     * @return projection, {@link #ALL} if the property was selected without path
+     */
+    public PropertyProjection forProperty(String name) {
+        if (properties == null) {
+            return ALL;
+        }
+        PropertyProjection ret = properties.get(name);
+        return ret == null ? ALL : ret;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+package de.escalon.hypermedia.instrument;
+
+/**
+ * Service provider interface for metrics of hypermedia rendering, such as the time spent building links, computing
+ * json-ld contexts and converting messages, and the hits and misses of the introspection caches. Implementations
+ * typically delegate to a metrics library, they must be thread-safe and should not block. Install an implementation
+ * with {@link Instrumentations#set(Instrumentation)}, the default {@link #NO_OP} instrumentation records nothing.
+ * <p>Measurements are identified by name and an optional tag which distinguishes measurements of the same name, e.g.
+ * the media type of a message converter or the name of a cache.</p>
+ */
+public interface Instrumentation {
+
+    /**
+     * Time to build an affordance with {@code AffordanceBuilderFactory.linkTo}.
+     */
+    String LINK_BUILDING = "hypermedia.links.build";
+
+    /**
+     * Time to compute the json-ld terms of a bean.
+     */
+    String LD_CONTEXT_TERMS = "hypermedia.ldcontext.terms";
+
+    /**
+     * Time to serialize the links of a resource to json-ld.
+     */
+    String LINK_SERIALIZATION = "hypermedia.links.serialize";
+
+    /**
+     * Time to write a message, tagged with the media type of the converter.
+     */
+    String CONVERTER_WRITE = "hypermedia.converter.write";
+
+    /**
+     * Time to read a message, tagged with the media type of the converter.
+     */
+    String CONVERTER_READ = "hypermedia.converter.read";
+
+    /**
+     * Number of cache hits, tagged with the name of the cache.
+     */
+    String CACHE_HITS = "hypermedia.cache.hits";
+
+    /**
+     * Number of cache misses, tagged with the name of the cache.
+     */
+    String CACHE_MISSES = "hypermedia.cache.misses";
+
+    /**
+     * Instrumentation which records nothing.
+     */
+    Instrumentation NO_OP = new Instrumentation() {
+
+        @Override
+        public long startTimer() {
+            return 0L;
+        }
+
+        @Override
+        public void stopTimer(String name, String tag, long start) {
+
+        }
+
+        @Override
+        public void increment(String name, String tag) {
+
+        }
+    };
+
+    /**
+     * Starts timing an operation.
+     *
+     * @return start of the operation, to be passed to {@link #stopTimer(String, String, long)}
+     */
+    long startTimer();
+
+    /**
+     * Records the duration of an operation.
+     *
+     * @param name
+     *         of the timer
+     * @param tag
+     *         of the timer, may be null
+     * @param start
+     *         as returned by {@link #startTimer()}
+     */
+    void stopTimer(String name, String tag, long start);
+
+    /**
+     * Increments a counter.
+     *
+     * @param name
+     *         of the counter
+     * @param tag
+     *         of the counter, may be null
+     */
+    void increment(String name, String tag);
+}
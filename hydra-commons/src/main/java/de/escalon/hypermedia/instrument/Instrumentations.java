@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+package de.escalon.hypermedia.instrument;
+
+/**
+ * Holds the instrumentation used by all message converters, serializers and link builders. Defaults to {@link
+ * Instrumentation#NO_OP}.
+ */
+public class Instrumentations {
+
+    private static volatile Instrumentation instrumentation = Instrumentation.NO_OP;
+
+    private Instrumentations() {
+
+    }
+
+    /**
+     * Gets current instrumentation.
+     *
+     * @return instrumentation, never null
+     */
+    public static Instrumentation get() {
+        return instrumentation;
+    }
+
+    /**
+     * Installs instrumentation, usually once at application startup.
+     *
+     * @param instrumentation
+     *         to use, null to record nothing
+     */
+    public static void set(Instrumentation instrumentation) {
+        Instrumentations.instrumentation = instrumentation == null ? Instrumentation.NO_OP : instrumentation;
+    }
+
+    /**
+     * Counts a cache hit or miss.
+     *
+     * @param cache
+     *         name of the cache
+     * @param hit
+     *         true for a cache hit
+     */
+    public static void cacheAccess(String cache, boolean hit) {
+        instrumentation.increment(hit ? Instrumentation.CACHE_HITS : Instrumentation.CACHE_MISSES, cache);
+    }
+}
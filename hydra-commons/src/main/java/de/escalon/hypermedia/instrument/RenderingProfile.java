@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+package de.escalon.hypermedia.instrument;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Profile of a single rendered response. Records the time spent in the phases of hypermedia rendering, the number of
+ * rendered objects and the number of bytes written. A profile is started by the message converter on the thread
+ * which renders the response, the renderers record into the profile of the current thread. Time is charged to the
+ * innermost phase only, i.e. property reads during link classification do not count as link classification.
+ * <p>Profiling is opt-in, if no profile is active anywhere, recording costs a single volatile read.</p>
+ */
+public final class RenderingProfile {
+
+    /**
+     * Phases of hypermedia rendering.
+     */
+    public enum Phase {
+        /**
+         * Sorting links into the elements of the media type and rendering them.
+         */
+        LINKS("links"),
+        /**
+         * Computing and writing json-ld contexts.
+         */
+        CONTEXT("context"),
+        /**
+         * Reading bean properties.
+         */
+        PROPERTIES("properties"),
+        /**
+         * Rendering forms and actions.
+         */
+        FORMS("forms");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final AtomicInteger ACTIVE = new AtomicInteger();
+    private static final ThreadLocal<Clock> CLOCK = new ThreadLocal<Clock>();
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length);
+    private final AtomicLong objects = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private volatile long totalNanos = -1L;
+
+    private RenderingProfile() {
+
+    }
+
+    /**
+     * Starts profiling the response rendered by the current thread.
+     *
+     * @return started profile, must be finished by {@link #finish()} on the same thread
+     */
+    public static RenderingProfile start() {
+        RenderingProfile profile = new RenderingProfile();
+        ACTIVE.incrementAndGet();
+        CLOCK.set(new Clock(profile));
+        return profile;
+    }
+
+    /**
+     * Finishes profiling and detaches the profile from the current thread.
+     */
+    public void finish() {
+        if (totalNanos >= 0) {
+            return;
+        }
+        Clock clock = CLOCK.get();
+        if (clock != null && clock.profile == this) {
+            clock.stop();
+            CLOCK.remove();
+        }
+        totalNanos = System.nanoTime() - startNanos;
+        ACTIVE.decrementAndGet();
+    }
+
+    /**
+     * Gets profile of the current thread.
+     *
+     * @return profile or null if the current thread does not profile
+     */
+    public static RenderingProfile current() {
+        if (ACTIVE.get() == 0) {
+            return null;
+        }
+        Clock clock = CLOCK.get();
+        return clock == null ? null : clock.profile;
+    }
+
+    /**
+     * Attaches a profile to the current thread, so that a renderer can record into the profile of the response it
+     * renders a part of on behalf of another thread.
+     *
+     * @param profile
+     *         to record into, null to detach
+     * @return previously attached profile, to be restored after rendering
+     */
+    public static RenderingProfile attach(RenderingProfile profile) {
+        Clock previous = CLOCK.get();
+        if (previous != null) {
+            previous.stop();
+        }
+        if (profile == null) {
+            CLOCK.remove();
+        } else {
+            CLOCK.set(new Clock(profile));
+        }
+        return previous == null ? null : previous.profile;
+    }
+
+    /**
+     * Enters a phase on the current thread.
+     *
+     * @param phase
+     *         to enter
+     * @return phase to restore by {@link #endPhase(Phase)}, may be null
+     */
+    public static Phase startPhase(Phase phase) {
+        if (ACTIVE.get() == 0) {
+            return null;
+        }
+        Clock clock = CLOCK.get();
+        return clock == null ? null : clock.enter(phase);
+    }
+
+    /**
+     * Leaves the current phase on the current thread.
+     *
+     * @param previous
+     *         as returned by {@link #startPhase(Phase)}
+     */
+    public static void endPhase(Phase previous) {
+        if (ACTIVE.get() == 0) {
+            return;
+        }
+        Clock clock = CLOCK.get();
+        if (clock != null) {
+            clock.enter(previous);
+        }
+    }
+
+    /**
+     * Counts a rendered object on the current thread.
+     */
+    public static void countObject() {
+        RenderingProfile profile = current();
+        if (profile != null) {
+            profile.objects.incrementAndGet();
+        }
+    }
+
+    /**
+     * Adds to the number of bytes written.
+     *
+     * @param bytes
+     *         written
+     */
+    public void addBytesWritten(long bytes) {
+        bytesWritten.addAndGet(bytes);
+    }
+
+    /**
+     * Gets time spent in the given phase, summed over all threads which rendered the response.
+     *
+     * @param phase
+     *         of rendering
+     * @return nanoseconds
+     */
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos.get(phase.ordinal());
+    }
+
+    /**
+     * Gets time from start to finish of the profile.
+     *
+     * @return nanoseconds, or time elapsed so far if the profile has not been finished
+     */
+    public long getTotalNanos() {
+        long ret = totalNanos;
+        return ret >= 0 ? ret : System.nanoTime() - startNanos;
+    }
+
+    public long getObjects() {
+        return objects.get();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * Gets summary of the profile, e.g. <code>total=12.5ms links=3.1ms context=0.0ms properties=1.2ms forms=4.0ms
+     * objects=42 bytes=8100</code>.
+     *
+     * @return summary
+     */
+    public String getSummary() {
+        StringBuilder sb = new StringBuilder();
+        appendMillis(sb, "total", getTotalNanos());
+        for (Phase phase : Phase.values()) {
+            sb.append(' ');
+            appendMillis(sb, phase.label, getPhaseNanos(phase));
+        }
+        sb.append(" objects=")
+                .append(getObjects())
+                .append(" bytes=")
+                .append(getBytesWritten());
+        return sb.toString();
+    }
+
+    private static void appendMillis(StringBuilder sb, String label, long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        sb.append(label)
+                .append('=')
+                .append(micros / 1000)
+                .append('.')
+                .append(micros % 1000 / 100)
+                .append("ms");
+    }
+
+    @Override
+    public String toString() {
+        return getSummary();
+    }
+
+    /**
+     * Charges elapsed time to the phase a thread is currently in.
+     */
+    private static class Clock {
+
+        private final RenderingProfile profile;
+        private Phase phase;
+        private long phaseStart;
+
+        Clock(RenderingProfile profile) {
+            this.profile = profile;
+        }
+
+        Phase enter(Phase next) {
+            Phase ret = phase;
+            long now = System.nanoTime();
+            if (phase != null) {
+                profile.phaseNanos.addAndGet(phase.ordinal(), now - phaseStart);
+            }
+            phase = next;
+            phaseStart = now;
+            return ret;
+        }
+
+        void stop() {
+            enter(null);
+        }
+    }
+}
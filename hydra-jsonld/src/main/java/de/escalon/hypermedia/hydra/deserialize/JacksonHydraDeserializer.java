@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.hydra.deserialize;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import de.escalon.hypermedia.hydra.mapping.Expose;
+import de.escalon.hypermedia.hydra.mapping.Vocab;
+import de.escalon.hypermedia.hydra.serialize.LdContext;
+import de.escalon.hypermedia.hydra.serialize.LdContextFactory;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static de.escalon.hypermedia.AnnotationUtils.findAnnotation;
+
+/**
+ * Deserializer which binds json-ld objects to beans in a single pass. The keys of the object are expanded against the
+ * @context of the document while the object is being parsed and matched with the iris of the bean properties, which
+ * are derived from the vocab, terms and {@link Expose} annotations of the bean class once per class. Keys which do not
+ * expand to a bean property are passed to the wrapped deserializer unchanged, so plain json keeps working. The
+ * document is not expanded as a whole.
+ */
+public class JacksonHydraDeserializer extends StdDeserializer<Object> implements ResolvableDeserializer,
+        ContextualDeserializer {
+
+    private final JsonDeserializer<Object> delegate;
+    private final Map<String, String> propertyNamesByIri;
+
+    /**
+     * Creates deserializer for the bean described by the given bean description.
+     *
+     * @param delegate
+     *         bean deserializer which binds the properties
+     * @param beanDesc
+     *         of target bean
+     * @param mixInClass
+     *         of target bean, may be null
+     */
+    public JacksonHydraDeserializer(JsonDeserializer<?> delegate, BeanDescription beanDesc, Class<?> mixInClass) {
+        this(delegate, getPropertyNamesByIri(beanDesc, mixInClass));
+    }
+
+    @SuppressWarnings("unchecked")
+    private JacksonHydraDeserializer(JsonDeserializer<?> delegate, Map<String, String> propertyNamesByIri) {
+        super(delegate.handledType());
+        this.delegate = (JsonDeserializer<Object>) delegate;
+        this.propertyNamesByIri = propertyNamesByIri;
+    }
+
+    private static Map<String, String> getPropertyNamesByIri(BeanDescription beanDesc, Class<?> mixInClass) {
+        Class<?> beanClass = beanDesc.getBeanClass();
+        LdContextFactory ldContextFactory = new LdContextFactory();
+        final Vocab mixinVocab = findAnnotation(mixInClass, Vocab.class);
+        String vocab = mixinVocab != null ? mixinVocab.value() : ldContextFactory.vocabFromClassOrPackage(beanClass);
+        LdContext beanContext = new LdContext(null, vocab == null ? LdContextFactory.HTTP_SCHEMA_ORG : vocab,
+                ldContextFactory.termsFromClass(beanClass, mixInClass));
+
+        Map<String, String> ret = new HashMap<String, String>();
+        for (BeanPropertyDefinition property : beanDesc.findProperties()) {
+            Expose expose = findExpose(property.getSetter(), property.getField(),
+                    property.getConstructorParameter(), property.getGetter());
+            String iri = LdIris.expand(beanContext, expose == null ? property.getName() : expose.value());
+            if (!ret.containsKey(iri)) {
+                ret.put(iri, property.getName());
+            }
+        }
+        return Collections.unmodifiableMap(ret);
+    }
+
+    private static Expose findExpose(AnnotatedMember... members) {
+        for (AnnotatedMember member : members) {
+            Expose expose = member == null ? null : member.getAnnotation(Expose.class);
+            if (expose != null) {
+                return expose;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Object deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+        if (jp.getCurrentToken() != JsonToken.START_OBJECT) {
+            return delegate.deserialize(jp, ctxt);
+        }
+        return delegate.deserialize(wrap(jp), ctxt);
+    }
+
+    @Override
+    public Object deserialize(JsonParser jp, DeserializationContext ctxt, Object intoValue) throws IOException {
+        if (jp.getCurrentToken() != JsonToken.START_OBJECT) {
+            return delegate.deserialize(jp, ctxt, intoValue);
+        }
+        return delegate.deserialize(wrap(jp), ctxt, intoValue);
+    }
+
+    private LdContextParser wrap(JsonParser jp) {
+        LdContext parentContext = jp instanceof LdContextParser ? ((LdContextParser) jp).getContext() : null;
+        return new LdContextParser(jp, parentContext, propertyNamesByIri);
+    }
+
+    @Override
+    public Object deserializeWithType(JsonParser jp, DeserializationContext ctxt, TypeDeserializer typeDeserializer)
+            throws IOException {
+        return delegate.deserializeWithType(jp, ctxt, typeDeserializer);
+    }
+
+    @Override
+    public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+        if (delegate instanceof ResolvableDeserializer) {
+            ((ResolvableDeserializer) delegate).resolve(ctxt);
+        }
+    }
+
+    @Override
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) throws
+            JsonMappingException {
+        if (delegate instanceof ContextualDeserializer) {
+            JsonDeserializer<?> contextual = ((ContextualDeserializer) delegate).createContextual(ctxt, property);
+            if (contextual != delegate) {
+                return new JacksonHydraDeserializer(contextual, propertyNamesByIri);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public JsonDeserializer<Object> unwrappingDeserializer(NameTransformer unwrapper) {
+        return delegate.unwrappingDeserializer(unwrapper);
+    }
+
+    @Override
+    public boolean isCachable() {
+        return delegate.isCachable();
+    }
+
+    @Override
+    public Object getNullValue() {
+        return delegate.getNullValue();
+    }
+
+    @Override
+    public Object getEmptyValue() {
+        return delegate.getEmptyValue();
+    }
+
+    @Override
+    public Collection<Object> getKnownPropertyNames() {
+        return delegate.getKnownPropertyNames();
+    }
+}
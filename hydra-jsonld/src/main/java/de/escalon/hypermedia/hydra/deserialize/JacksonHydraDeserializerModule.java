@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.hydra.deserialize;
+
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBase;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Jackson Module which binds json-ld request bodies to beans, using the @context of the document to match keys with
+ * bean properties.
+ *
+ * @see JacksonHydraDeserializer
+ */
+public class JacksonHydraDeserializerModule extends SimpleModule {
+
+    public JacksonHydraDeserializerModule() {
+        super("json-hydra-deserializer-module", new Version(1, 0, 0, null, "de.escalon.hypermedia", "hydra-jsonld"));
+    }
+
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+
+        context.addBeanDeserializerModifier(new BeanDeserializerModifier() {
+
+            public JsonDeserializer<?> modifyDeserializer(
+                    DeserializationConfig config,
+                    BeanDescription beanDesc,
+                    JsonDeserializer<?> deserializer) {
+
+                if (deserializer instanceof BeanDeserializerBase) {
+                    return new JacksonHydraDeserializer(deserializer, beanDesc,
+                            config.findMixInClassFor(beanDesc.getBeanClass()));
+                } else {
+                    return deserializer;
+                }
+            }
+        });
+    }
+}
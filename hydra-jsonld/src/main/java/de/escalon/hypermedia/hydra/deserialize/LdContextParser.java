@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.hydra.deserialize;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+import com.fasterxml.jackson.databind.JsonNode;
+import de.escalon.hypermedia.hydra.serialize.JsonLdKeywords;
+import de.escalon.hypermedia.hydra.serialize.LdContext;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parser for the properties of a single json-ld object. Reads an @context of the object when it passes by and
+ * reports the keys of the object as the names of the bean properties they expand to. Other json-ld keywords such as
+ * &#64;type and &#64;id are skipped. Keys of nested objects are passed through, they are handled by the parser of the
+ * nested bean, which inherits the context of this parser. Keys which precede the @context are expanded with the
+ * inherited context only.
+ */
+class LdContextParser extends JsonParserDelegate {
+
+    static final String AT_CONTEXT = "@context";
+
+    private final Map<String, String> propertyNamesByIri;
+    private LdContext context;
+    private int depth;
+    private String propertyName;
+
+    /**
+     * Creates parser, positioned on the start of the object.
+     *
+     * @param parser
+     *         to read from
+     * @param parentContext
+     *         context of the enclosing object, may be null
+     * @param propertyNamesByIri
+     *         names of target bean properties per expanded iri
+     */
+    LdContextParser(JsonParser parser, LdContext parentContext, Map<String, String> propertyNamesByIri) {
+        super(parser);
+        this.context = parentContext;
+        this.propertyNamesByIri = propertyNamesByIri;
+    }
+
+    LdContext getContext() {
+        return context;
+    }
+
+    @Override
+    public JsonToken nextToken() throws IOException {
+        JsonToken token = delegate.nextToken();
+        while (depth == 0 && token == JsonToken.FIELD_NAME) {
+            String key = delegate.getCurrentName();
+            if (AT_CONTEXT.equals(key)) {
+                delegate.nextToken();
+                context = readContext((JsonNode) delegate.readValueAsTree(), context);
+            } else if (key.startsWith("@")) {
+                delegate.nextToken();
+                delegate.skipChildren();
+            } else {
+                propertyName = toPropertyName(key);
+                return token;
+            }
+            token = delegate.nextToken();
+        }
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            depth++;
+        } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+            depth--;
+        }
+        return token;
+    }
+
+    @Override
+    public JsonToken nextValue() throws IOException {
+        JsonToken token = nextToken();
+        if (token == JsonToken.FIELD_NAME) {
+            token = nextToken();
+        }
+        return token;
+    }
+
+    @Override
+    public JsonParser skipChildren() throws IOException {
+        JsonToken token = delegate.getCurrentToken();
+        delegate.skipChildren();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            depth--;
+        }
+        return this;
+    }
+
+    @Override
+    public String getCurrentName() throws IOException {
+        return isOwnKey() ? propertyName : delegate.getCurrentName();
+    }
+
+    @Override
+    public String getText() throws IOException {
+        return isOwnKey() ? propertyName : delegate.getText();
+    }
+
+    private boolean isOwnKey() {
+        return depth == 0 && delegate.getCurrentToken() == JsonToken.FIELD_NAME;
+    }
+
+    private String toPropertyName(String key) {
+        String name = propertyNamesByIri.get(LdIris.expand(context, key));
+        return name == null ? key : name;
+    }
+
+    /**
+     * Reads a json-ld context definition.
+     *
+     * @param contextNode
+     *         local context object, array of contexts, null or remote context url
+     * @param parentContext
+     *         to inherit from, may be null
+     * @return context in effect
+     */
+    static LdContext readContext(JsonNode contextNode, LdContext parentContext) {
+        final LdContext ret;
+        if (contextNode == null || contextNode.isNull()) {
+            // null context resets the active context
+            ret = new LdContext(null, null, Collections.<String, Object>emptyMap());
+        } else if (contextNode.isArray()) {
+            LdContext merged = parentContext;
+            for (JsonNode item : contextNode) {
+                merged = readContext(item, merged);
+            }
+            ret = merged;
+        } else if (contextNode.isObject()) {
+            JsonNode vocabNode = contextNode.get(JsonLdKeywords.AT_VOCAB);
+            String vocab = vocabNode == null || !vocabNode.isTextual() ? null : vocabNode.asText();
+            Map<String, Object> terms = new LinkedHashMap<String, Object>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = contextNode.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> entry = it.next();
+                String term = entry.getKey();
+                JsonNode definition = entry.getValue();
+                boolean keyword = term.startsWith("@");
+                if (!keyword && definition.isTextual()) {
+                    terms.put(term, definition.asText());
+                } else if (!keyword && definition.isObject() && definition.has(JsonLdKeywords.AT_ID)) {
+                    terms.put(term, Collections.singletonMap(JsonLdKeywords.AT_ID, definition.get(JsonLdKeywords
+                            .AT_ID)
+                            .asText()));
+                }
+            }
+            ret = new LdContext(parentContext, vocab, terms);
+        } else {
+            // remote contexts are not loaded
+            ret = parentContext;
+        }
+        return ret;
+    }
+}
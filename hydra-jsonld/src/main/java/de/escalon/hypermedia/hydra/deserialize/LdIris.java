@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.hydra.deserialize;
+
+import de.escalon.hypermedia.hydra.serialize.JsonLdKeywords;
+import de.escalon.hypermedia.hydra.serialize.LdContext;
+
+import java.util.Map;
+
+/**
+ * Expands terms and compact iris against a json-ld context, as far as needed to match json-ld keys to bean
+ * properties. Remote contexts, base iris and keyword aliases are not supported.
+ */
+class LdIris {
+
+    private LdIris() {
+    }
+
+    /**
+     * Expands a json-ld key to an absolute iri.
+     *
+     * @param context
+     *         in effect, may be null
+     * @param key
+     *         term, compact iri or absolute iri
+     * @return expanded iri, or the key itself if it cannot be expanded
+     */
+    static String expand(LdContext context, String key) {
+        if (context == null || key.startsWith("@")) {
+            return key;
+        }
+        String definition = getIri(context.getTermDefinition(key));
+        return expandIri(context, definition == null ? key : definition);
+    }
+
+    private static String expandIri(LdContext context, String value) {
+        final String ret;
+        int colon = value.indexOf(':');
+        if (colon > 0) {
+            String suffix = value.substring(colon + 1);
+            String prefixIri = suffix.startsWith("//") ? null :
+                    getIri(context.getTermDefinition(value.substring(0, colon)));
+            ret = prefixIri == null ? value : prefixIri + suffix;
+        } else {
+            String vocab = context.getEffectiveVocab();
+            ret = vocab == null ? value : vocab + value;
+        }
+        return ret;
+    }
+
+    private static String getIri(Object termDefinition) {
+        final String ret;
+        if (termDefinition instanceof String) {
+            ret = (String) termDefinition;
+        } else if (termDefinition instanceof Map) {
+            Object id = ((Map<?, ?>) termDefinition).get(JsonLdKeywords.AT_ID);
+            ret = id instanceof String ? (String) id : null;
+        } else {
+            ret = null;
+        }
+        return ret;
+    }
+}
@@ -17,17 +17,24 @@ import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
 import com.fasterxml.jackson.databind.ser.impl.BeanAsArraySerializer;
 import com.fasterxml.jackson.databind.ser.impl.ObjectIdWriter;
+import com.fasterxml.jackson.databind.ser.impl.UnwrappingBeanPropertyWriter;
 import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
 import com.fasterxml.jackson.databind.util.NameTransformer;
+import de.escalon.hypermedia.PropertyProjection;
+import de.escalon.hypermedia.hydra.mapping.ContextProvider;
 import de.escalon.hypermedia.hydra.mapping.Expose;
+import de.escalon.hypermedia.instrument.RenderingProfile;
 
 import java.io.IOException;
-import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.Deque;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import static de.escalon.hypermedia.AnnotationUtils.findAnnotation;
 
@@ -35,8 +42,20 @@ public class JacksonHydraSerializer extends BeanSerializerBase {
 
     public static final String KEY_LD_CONTEXT = "de.escalon.hypermedia.ld-context";
 
-    protected LdContextFactory ldContextFactory;
+    /**
+     * Attribute key of the {@link PropertyProjection} which selects the properties to write, e.g. set by
+     * <code>objectMapper.writer().withAttribute(KEY_PROPERTY_PROJECTION, projection)</code>. All properties are
+     * written if the attribute is not set.
+     */
+    public static final String KEY_PROPERTY_PROJECTION = "de.escalon.hypermedia.property-projection";
+
+    protected LdContextWriter ldContextWriter;
     private ProxyUnwrapper proxyUnwrapper;
+    private Set<String> exposedPropertyNames = Collections.emptySet();
+    /**
+     * Property names by exposed key, projections refer to property names.
+     */
+    private Map<String, String> propertyNamesByKey = Collections.emptyMap();
 
     public JacksonHydraSerializer(BeanSerializerBase source) {
         this(source, (ProxyUnwrapper) null);
@@ -51,21 +70,117 @@ public class JacksonHydraSerializer extends BeanSerializerBase {
      *         to unwrap proxified beans, may be null
      */
     public JacksonHydraSerializer(BeanSerializerBase source, ProxyUnwrapper proxyUnwrapper) {
+        this(source, proxyUnwrapper, new LdContextWriter(proxyUnwrapper));
+    }
+
+    /**
+     * Creates new serializer with optional proxy unwrapper and a context writer which may be shared with other
+     * serializers.
+     *
+     * @param source
+     *         wrapped serializer
+     * @param proxyUnwrapper
+     *         to unwrap proxified beans, may be null
+     * @param ldContextWriter
+     *         to write json-ld contexts
+     */
+    public JacksonHydraSerializer(BeanSerializerBase source, ProxyUnwrapper proxyUnwrapper,
+                                  LdContextWriter ldContextWriter) {
         super(source);
         this.proxyUnwrapper = proxyUnwrapper;
-        this.ldContextFactory = new LdContextFactory();
-        ldContextFactory.setProxyUnwrapper(proxyUnwrapper);
+        this.ldContextWriter = ldContextWriter;
+        if (source instanceof JacksonHydraSerializer) {
+            // source properties may already have exposed keys
+            this.exposedPropertyNames = ((JacksonHydraSerializer) source).exposedPropertyNames;
+            this.propertyNamesByKey = ((JacksonHydraSerializer) source).propertyNamesByKey;
+        }
+    }
+
+    /**
+     * Creates new serializer which optionally writes compact output. In compact mode the keys of properties having an
+     * {@link Expose} annotation are written as the exposed iri rather than as the property name, the keys are
+     * computed once when the serializer is created. The terms which would map these property names are not written to
+     * the @context, hence nested beans whose context consists of such terms only have no @context at all. Enum
+     * properties keep their names, since their terms also define how the enum values are expanded.
+     *
+     * @param source
+     *         wrapped serializer
+     * @param proxyUnwrapper
+     *         to unwrap proxified beans, may be null
+     * @param ldContextWriter
+     *         to write json-ld contexts
+     * @param compact
+     *         true to write exposed keys
+     */
+    public JacksonHydraSerializer(BeanSerializerBase source, ProxyUnwrapper proxyUnwrapper,
+                                  LdContextWriter ldContextWriter, boolean compact) {
+        this(new JacksonHydraSerializer(source, proxyUnwrapper, ldContextWriter), compact);
+    }
+
+    private JacksonHydraSerializer(JacksonHydraSerializer source, boolean compact) {
+        super(source, compact ? exposeKeys(source._props) : source._props,
+                compact ? exposeKeys(source._filteredProps) : source._filteredProps);
+        copyCollaborators(source);
+        if (compact) {
+            Set<String> exposedNames = new HashSet<String>();
+            Map<String, String> namesByKey = new HashMap<String, String>();
+            for (BeanPropertyWriter prop : source._props) {
+                String exposedKey = getExposedKey(prop);
+                if (exposedKey != null) {
+                    exposedNames.add(prop.getName());
+                    namesByKey.put(exposedKey, prop.getName());
+                }
+            }
+            this.exposedPropertyNames = Collections.unmodifiableSet(exposedNames);
+            this.propertyNamesByKey = Collections.unmodifiableMap(namesByKey);
+        }
+    }
+
+    private static BeanPropertyWriter[] exposeKeys(BeanPropertyWriter[] props) {
+        if (props == null) {
+            return null;
+        }
+        BeanPropertyWriter[] ret = new BeanPropertyWriter[props.length];
+        for (int i = 0; i < props.length; i++) {
+            BeanPropertyWriter prop = props[i];
+            // filtered props contain null for properties hidden from the active view
+            final String exposedKey = prop == null ? null : getExposedKey(prop);
+            ret[i] = exposedKey == null ? prop : prop.rename(new ExposedKeyTransformer(exposedKey));
+        }
+        return ret;
+    }
+
+    private static String getExposedKey(BeanPropertyWriter prop) {
+        final Expose expose = prop.getAnnotation(Expose.class);
+        if (expose == null || Enum.class.isAssignableFrom(prop.getPropertyType())) {
+            return null;
+        }
+        return expose.value();
     }
 
 
     public JacksonHydraSerializer(BeanSerializerBase source,
                                   ObjectIdWriter objectIdWriter) {
         super(source, objectIdWriter);
+        copyCollaborators(source);
     }
 
     public JacksonHydraSerializer(BeanSerializerBase source,
                                   String[] toIgnore) {
         super(source, toIgnore);
+        copyCollaborators(source);
+    }
+
+    private void copyCollaborators(BeanSerializerBase source) {
+        if (source instanceof JacksonHydraSerializer) {
+            JacksonHydraSerializer hydraSource = (JacksonHydraSerializer) source;
+            this.proxyUnwrapper = hydraSource.proxyUnwrapper;
+            this.ldContextWriter = hydraSource.ldContextWriter;
+            this.exposedPropertyNames = hydraSource.exposedPropertyNames;
+            this.propertyNamesByKey = hydraSource.propertyNamesByKey;
+        } else {
+            this.ldContextWriter = new LdContextWriter(null);
+        }
     }
 
     public BeanSerializerBase withObjectIdWriter(
@@ -97,7 +212,7 @@ public class JacksonHydraSerializer extends BeanSerializerBase {
 
     @Override
     protected BeanSerializerBase withFilterId(Object filterId) {
-        final JacksonHydraSerializer ret = new JacksonHydraSerializer(this);
+        final JacksonHydraSerializer ret = new JacksonHydraSerializer(this, proxyUnwrapper, ldContextWriter);
         ret.withFilterId(filterId);
         return ret;
     }
@@ -108,11 +223,8 @@ public class JacksonHydraSerializer extends BeanSerializerBase {
         if (!isUnwrappingSerializer()) {
             jgen.writeStartObject();
         }
-        Deque<LdContext> contextStack = (Deque<LdContext>) serializerProvider.getAttribute(KEY_LD_CONTEXT);
-        if (contextStack == null) {
-            contextStack = new ArrayDeque<LdContext>();
-            serializerProvider.setAttribute(KEY_LD_CONTEXT, contextStack);
-        }
+        RenderingProfile.countObject();
+        Deque<LdContext> contextStack = LdContextWriter.getContextStack(serializerProvider);
 
         serializeContext(bean, jgen, serializerProvider, contextStack);
         serializeType(bean, jgen, serializerProvider);
@@ -126,6 +238,72 @@ public class JacksonHydraSerializer extends BeanSerializerBase {
         }
     }
 
+    /**
+     * Writes the properties selected by the {@link #KEY_PROPERTY_PROJECTION} attribute. Unselected properties are
+     * not read at all. Unwrapped properties and {@link ContextProvider} properties such as the content of resource
+     * wrappers are written with the projection of the bean itself.
+     */
+    @Override
+    protected void serializeFields(Object bean, JsonGenerator jgen, SerializerProvider provider) throws
+            IOException {
+        RenderingProfile.Phase previousPhase = RenderingProfile.startPhase(RenderingProfile.Phase.PROPERTIES);
+        try {
+            serializeProjectedFields(bean, jgen, provider);
+        } finally {
+            RenderingProfile.endPhase(previousPhase);
+        }
+    }
+
+    private void serializeProjectedFields(Object bean, JsonGenerator jgen, SerializerProvider provider) throws
+            IOException {
+        final PropertyProjection projection = (PropertyProjection) provider.getAttribute(KEY_PROPERTY_PROJECTION);
+        if (projection == null || projection.includesAll()) {
+            super.serializeFields(bean, jgen, provider);
+            return;
+        }
+        final BeanPropertyWriter[] props;
+        if (_filteredProps != null && provider.getActiveView() != null) {
+            props = _filteredProps;
+        } else {
+            props = _props;
+        }
+        String name = null;
+        try {
+            for (BeanPropertyWriter prop : props) {
+                if (prop == null) {
+                    continue;
+                }
+                name = prop.getName();
+                final PropertyProjection propertyProjection;
+                if (prop instanceof UnwrappingBeanPropertyWriter || prop.getAnnotation(ContextProvider.class) !=
+                        null) {
+                    propertyProjection = projection;
+                } else {
+                    String propertyName = propertyNamesByKey.get(name);
+                    if (propertyName == null) {
+                        propertyName = name;
+                    }
+                    if (!projection.includes(propertyName)) {
+                        continue;
+                    }
+                    propertyProjection = projection.forProperty(propertyName);
+                }
+                provider.setAttribute(KEY_PROPERTY_PROJECTION, propertyProjection);
+                try {
+                    prop.serializeAsField(bean, jgen, provider);
+                } finally {
+                    provider.setAttribute(KEY_PROPERTY_PROJECTION, projection);
+                }
+            }
+            if (_anyGetterWriter != null) {
+                name = "[anySetter]";
+                _anyGetterWriter.getAndSerialize(bean, jgen, provider);
+            }
+        } catch (Exception e) {
+            wrapAndThrow(provider, e, bean, name);
+        }
+    }
+
     protected void serializeType(Object bean, JsonGenerator jgen, SerializerProvider provider) throws IOException {
         if (proxyUnwrapper != null) {
             bean = proxyUnwrapper.unwrapProxy(bean);
@@ -153,72 +331,18 @@ public class JacksonHydraSerializer extends BeanSerializerBase {
     protected void serializeContext(Object bean, JsonGenerator jgen,
                                     SerializerProvider serializerProvider, Deque<LdContext> contextStack)
             throws IOException {
-
-        // TODO: this code is duplicated in PagedResourcesSerializer!!!
-        // couldn't inherit from this because this is a serializer wrapper
-        // make it a static utility or a common collaborator dependency?
-
         if (proxyUnwrapper != null) {
             bean = proxyUnwrapper.unwrapProxy(bean);
         }
         MixinSource mixinSource = new JacksonMixinSource(serializerProvider.getConfig());
         final Class<?> mixInClass = mixinSource.findMixInClassFor(bean.getClass());
-
-        final LdContext parentContext = contextStack.peek();
-        Map<String, Object> termsOfBean = ldContextFactory.getTerms(mixinSource, bean, mixInClass);
-        Map<String, Object> newTermsOfBean;
-        if (parentContext != null) {
-            newTermsOfBean = new LinkedHashMap<String, Object>();
-            for (Map.Entry<String, Object> termEntry : termsOfBean.entrySet()) {
-                String term = termEntry.getKey();
-                Object value = termEntry.getValue();
-                if (!parentContext.hasEqualTerm(term, value)) {
-                    newTermsOfBean.put(term, value);
-                }
-            }
-        } else {
-            newTermsOfBean = termsOfBean;
-        }
-        LdContext currentContext = new LdContext(parentContext, ldContextFactory.getVocab(mixinSource, bean,
-                mixInClass), newTermsOfBean);
-        contextStack.push(currentContext);
-        // check if we need to write a context for the current bean at all
-        // If it is in the same vocab: no context
-        // If the terms are already defined in the context: no context
-        boolean mustWriteContext;
-        if (parentContext == null || !parentContext.contains(currentContext)) {
-            mustWriteContext = true;
-        } else {
-            mustWriteContext = false;
-        }
-
-        if (mustWriteContext) {
-            // begin context
-            // default context: schema.org vocab or vocab package annotation
-            jgen.writeObjectFieldStart("@context");
-            // do not repeat vocab if already defined in current context
-            if (parentContext == null || parentContext.vocab == null ||
-                    (currentContext.vocab != null && !currentContext.vocab.equals(parentContext.vocab))) {
-                jgen.writeStringField(JsonLdKeywords.AT_VOCAB, currentContext.vocab);
-            }
-
-            for (Map.Entry<String, Object> termEntry : currentContext.terms.entrySet()) {
-                if (termEntry.getValue() instanceof String) {
-                    jgen.writeStringField(termEntry.getKey(), termEntry.getValue()
-                            .toString());
-                } else {
-                    jgen.writeObjectField(termEntry.getKey(), termEntry.getValue());
-                }
-            }
-            jgen.writeEndObject();
-            // end context
-        }
+        ldContextWriter.writeContext(bean, mixInClass, mixinSource, jgen, contextStack, exposedPropertyNames);
     }
 
     @Override
     public JsonSerializer<Object> unwrappingSerializer(NameTransformer unwrapper) {
         UnwrappingJacksonHydraSerializer unwrappingJacksonHydraSerializer = new UnwrappingJacksonHydraSerializer
-                (this, proxyUnwrapper);
+                (this, proxyUnwrapper, ldContextWriter);
         return unwrappingJacksonHydraSerializer;
     }
 
@@ -232,4 +356,26 @@ public class JacksonHydraSerializer extends BeanSerializerBase {
                                               BeanProperty property) throws JsonMappingException {
         return super.createContextual(provider, property);
     }
+
+    /**
+     * Renames a property to its exposed iri.
+     */
+    private static class ExposedKeyTransformer extends NameTransformer {
+
+        private final String exposedKey;
+
+        ExposedKeyTransformer(String exposedKey) {
+            this.exposedKey = exposedKey;
+        }
+
+        @Override
+        public String transform(String name) {
+            return exposedKey;
+        }
+
+        @Override
+        public String reverse(String transformed) {
+            return null;
+        }
+    }
 }
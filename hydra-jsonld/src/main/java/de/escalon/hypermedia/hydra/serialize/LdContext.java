@@ -68,4 +68,40 @@ public class LdContext {
         return ret;
     }
 
-}
\ No newline at end of file
+    /**
+     * Gets the definition of a term from this context or the nearest parent context which defines it.
+     *
+     * @param term
+     *         to look up
+     * @return iri, map with keyword entries or null if undefined
+     */
+    public Object getTermDefinition(String term) {
+        final Object ret;
+        if (this.terms.containsKey(term)) {
+            ret = this.terms.get(term);
+        } else if (parentContext == null) {
+            ret = null;
+        } else {
+            ret = parentContext.getTermDefinition(term);
+        }
+        return ret;
+    }
+
+    /**
+     * Gets the vocab of this context or the nearest parent context which defines one.
+     *
+     * @return vocab or null
+     */
+    public String getEffectiveVocab() {
+        final String ret;
+        if (this.vocab != null) {
+            ret = this.vocab;
+        } else if (parentContext == null) {
+            ret = null;
+        } else {
+            ret = parentContext.getEffectiveVocab();
+        }
+        return ret;
+    }
+
+}
@@ -2,6 +2,8 @@ package de.escalon.hypermedia.hydra.serialize;
 
 import de.escalon.hypermedia.AnnotationUtils;
 import de.escalon.hypermedia.hydra.mapping.*;
+import de.escalon.hypermedia.instrument.Instrumentation;
+import de.escalon.hypermedia.instrument.Instrumentations;
 import org.apache.commons.lang3.text.WordUtils;
 
 import java.beans.BeanInfo;
@@ -12,9 +14,15 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static de.escalon.hypermedia.AnnotationUtils.findAnnotation;
 
@@ -25,6 +33,14 @@ public class LdContextFactory {
 
     public static final String HTTP_SCHEMA_ORG = "http://schema.org/";
     private ProxyUnwrapper proxyUnwrapper;
+    private final ConcurrentMap<Class<?>, PropertyTerm[]> propertyTerms =
+            new ConcurrentHashMap<Class<?>, PropertyTerm[]>();
+    private final ConcurrentMap<Class<?>, ContextProviderAccessor> contextProviders =
+            new ConcurrentHashMap<Class<?>, ContextProviderAccessor>();
+    private final ConcurrentMap<AccessorKey, ContextProviderAccessor> beanContextProviders =
+            new ConcurrentHashMap<AccessorKey, ContextProviderAccessor>();
+    private final ConcurrentMap<Class<?>, Map<Enum, String>> enumValueTerms =
+            new ConcurrentHashMap<Class<?>, Map<Enum, String>>();
 
     /**
      * Gets vocab for given bean.
@@ -39,13 +55,34 @@ public class LdContextFactory {
         if (proxyUnwrapper != null) {
             bean = proxyUnwrapper.unwrapProxy(bean);
         }
+        return getVocab(mixinSource, bean, mixInClass, getNestedContextProvider(mixinSource, bean, mixInClass));
+    }
+
+    /**
+     * Gets vocab for given bean whose nested context provider is already known, so that vocab and terms of a bean can
+     * be computed with a single context provider call.
+     *
+     * @param mixinSource
+     *         to look up mixins of nested context providers
+     * @param bean
+     *         to inspect for vocab
+     * @param mixInClass
+     *         for bean which might define a vocab or has a context provider
+     * @param nestedContextProviderFromMixin
+     *         as returned by {@link #getNestedContextProvider(MixinSource, Object, Class)}, may be null
+     * @return explicitly defined vocab or http://schema.org
+     */
+    public String getVocab(MixinSource mixinSource, Object bean, Class<?> mixInClass,
+                           Object nestedContextProviderFromMixin) {
+        if (proxyUnwrapper != null) {
+            bean = proxyUnwrapper.unwrapProxy(bean);
+        }
 
         // determine vocab in context
         String classVocab = bean == null ? null : vocabFromClassOrPackage(bean.getClass());
 
         final Vocab mixinVocab = findAnnotation(mixInClass, Vocab.class);
 
-        Object nestedContextProviderFromMixin = getNestedContextProviderFromMixin(mixinSource, bean, mixInClass);
         String contextProviderVocab = null;
         if (nestedContextProviderFromMixin != null) {
             contextProviderVocab = getVocab(mixinSource, nestedContextProviderFromMixin, null);
@@ -65,6 +102,38 @@ public class LdContextFactory {
     }
 
     public Map<String, Object> getTerms(MixinSource mixinSource, Object bean, Class<?> mixInClass) {
+        if (proxyUnwrapper != null) {
+            bean = proxyUnwrapper.unwrapProxy(bean);
+        }
+        return getTerms(mixinSource, bean, mixInClass, getNestedContextProvider(mixinSource, bean, mixInClass));
+    }
+
+    /**
+     * Gets terms for given bean whose nested context provider is already known.
+     *
+     * @param mixinSource
+     *         to look up mixins of nested context providers
+     * @param bean
+     *         to inspect for terms
+     * @param mixInClass
+     *         for bean which might define terms or has a context provider
+     * @param nestedContextProviderFromMixin
+     *         as returned by {@link #getNestedContextProvider(MixinSource, Object, Class)}, may be null
+     * @return terms
+     */
+    public Map<String, Object> getTerms(MixinSource mixinSource, Object bean, Class<?> mixInClass,
+                                        Object nestedContextProviderFromMixin) {
+        Instrumentation instrumentation = Instrumentations.get();
+        long start = instrumentation.startTimer();
+        try {
+            return createTerms(mixinSource, bean, mixInClass, nestedContextProviderFromMixin);
+        } finally {
+            instrumentation.stopTimer(Instrumentation.LD_CONTEXT_TERMS, null, start);
+        }
+    }
+
+    private Map<String, Object> createTerms(MixinSource mixinSource, Object bean, Class<?> mixInClass,
+                                            Object nestedContextProviderFromMixin) {
 
         try {
 
@@ -82,42 +151,14 @@ public class LdContextFactory {
                 // mixin terms override class terms
                 termsMap.putAll(mixinTermsMap);
 
-                Object nestedContextProviderFromMixin = getNestedContextProviderFromMixin(mixinSource, bean,
-                        mixInClass);
-
                 if (nestedContextProviderFromMixin != null) {
-                    termsMap.putAll(getTerms(mixinSource, nestedContextProviderFromMixin, null));
+                    // not timed separately, nested terms are part of the terms of the bean
+                    termsMap.putAll(createTerms(mixinSource, nestedContextProviderFromMixin, null,
+                            getNestedContextProvider(mixinSource, nestedContextProviderFromMixin, null)));
                 }
 
-                final Field[] fields = beanClass
-                        .getDeclaredFields();
-                for (Field field : fields) {
-                    if (Modifier.isPublic(field.getModifiers())) {
-                        final Expose expose = field.getAnnotation(Expose.class);
-                        if (Enum.class.isAssignableFrom(field.getType())) {
-                            addEnumTerms(termsMap, expose, field.getName(), (Enum) field.get(bean));
-                        } else {
-                            if (expose != null) {
-                                termsMap.put(field.getName(), expose.value());
-                            }
-                        }
-                    }
-                }
-
-                final BeanInfo beanInfo = Introspector.getBeanInfo(beanClass);
-                final PropertyDescriptor[] propertyDescriptors = beanInfo.getPropertyDescriptors();
-                for (PropertyDescriptor propertyDescriptor : propertyDescriptors) {
-                    final Method method = propertyDescriptor.getReadMethod();
-                    if (method != null) {
-                        final Expose expose = method.getAnnotation(Expose.class);
-                        if (Enum.class.isAssignableFrom(method.getReturnType())) {
-                            addEnumTerms(termsMap, expose, propertyDescriptor.getName(), (Enum) method.invoke(bean));
-                        } else {
-                            if (expose != null) {
-                                termsMap.put(propertyDescriptor.getName(), expose.value());
-                            }
-                        }
-                    }
+                for (PropertyTerm propertyTerm : getPropertyTerms(beanClass)) {
+                    propertyTerm.addTo(termsMap, bean);
                 }
             }
             return termsMap;
@@ -127,6 +168,53 @@ public class LdContextFactory {
     }
 
 
+    /**
+     * Gets the terms of exposed and enum properties of the given class, introspecting the class on first use. Exposed
+     * terms are fixed, enum terms are computed from the property value of each bean.
+     */
+    private PropertyTerm[] getPropertyTerms(Class<?> beanClass) throws Exception {
+        PropertyTerm[] ret = propertyTerms.get(beanClass);
+        Instrumentations.cacheAccess("ldcontext.propertyTerms", ret != null);
+        if (ret == null) {
+            List<PropertyTerm> terms = new ArrayList<PropertyTerm>();
+            for (Field field : beanClass.getDeclaredFields()) {
+                if (Modifier.isPublic(field.getModifiers())) {
+                    final Expose expose = field.getAnnotation(Expose.class);
+                    if (Enum.class.isAssignableFrom(field.getType()) || expose != null) {
+                        terms.add(new PropertyTerm(field.getName(), expose, field, null));
+                    }
+                }
+            }
+            final BeanInfo beanInfo = Introspector.getBeanInfo(beanClass);
+            for (PropertyDescriptor propertyDescriptor : beanInfo.getPropertyDescriptors()) {
+                final Method method = propertyDescriptor.getReadMethod();
+                if (method != null) {
+                    final Expose expose = method.getAnnotation(Expose.class);
+                    if (Enum.class.isAssignableFrom(method.getReturnType()) || expose != null) {
+                        terms.add(new PropertyTerm(propertyDescriptor.getName(), expose, null, method));
+                    }
+                }
+            }
+            ret = terms.toArray(new PropertyTerm[terms.size()]);
+            PropertyTerm[] existing = propertyTerms.putIfAbsent(beanClass, ret);
+            if (existing != null) {
+                ret = existing;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Determines if the given mixin has a context provider, whose value contributes vocab and terms.
+     *
+     * @param mixInClass
+     *         to inspect, may be null
+     * @return true if there is a context provider
+     */
+    public boolean hasContextProvider(Class<?> mixInClass) {
+        return mixInClass != null && getContextProvider(mixInClass) != null;
+    }
+
     /**
      * Gets explicitly defined terms, e.g. on package, class or mixin.
      *
@@ -171,6 +259,28 @@ public class LdContextFactory {
         }
     }
 
+    /**
+     * Gets the object which provides vocab and terms for the given bean, as declared by a {@link ContextProvider} in
+     * the mixin of the bean.
+     *
+     * @param mixinSource
+     *         to look up mixins of provided beans
+     * @param bean
+     *         having a mixin, may be null
+     * @param mixinClass
+     *         of bean, may be null
+     * @return context provider or null
+     */
+    public Object getNestedContextProvider(MixinSource mixinSource, Object bean, Class<?> mixinClass) {
+        if (bean == null) {
+            return null;
+        }
+        if (proxyUnwrapper != null) {
+            bean = proxyUnwrapper.unwrapProxy(bean);
+        }
+        return getNestedContextProviderFromMixin(mixinSource, bean, mixinClass);
+    }
+
     private Object getNestedContextProviderFromMixin(MixinSource mixinSource, Object bean, Class<?> mixinClass) {
         // TODO does not consider Collection<Resource> or Collection<PersistentEntityResource> to find mixin of
         // object wrapped in resource
@@ -180,13 +290,11 @@ public class LdContextFactory {
             return null;
         }
         try {
-            Method mixinContextProvider = getContextProvider(mixinClass);
-            if (mixinContextProvider == null) {
+            Method contextProvider = getContextProvider(bean.getClass(), mixinClass);
+            if (contextProvider == null) {
                 return null;
             }
-            Class<?> beanClass = bean.getClass();
-            Object contextual = beanClass.getMethod(mixinContextProvider.getName())
-                    .invoke(bean);
+            Object contextual = contextProvider.invoke(bean);
             Object ret = null;
             if (contextual instanceof Collection) {
                 Collection collection = (Collection) contextual;
@@ -223,39 +331,105 @@ public class LdContextFactory {
     }
 
     private Method getContextProvider(Class<?> beanClass) {
-        Class<? extends Annotation> annotation = ContextProvider.class;
-        Method contextProvider = AnnotationUtils.getAnnotatedMethod(beanClass, annotation);
-        if (contextProvider != null && contextProvider.getParameterTypes().length > 0) {
-            throw new IllegalStateException("the context provider method " + contextProvider.getName() + " must not " +
-                    "have arguments");
+        ContextProviderAccessor accessor = contextProviders.get(beanClass);
+        if (accessor == null) {
+            Class<? extends Annotation> annotation = ContextProvider.class;
+            Method contextProvider = AnnotationUtils.getAnnotatedMethod(beanClass, annotation);
+            if (contextProvider != null && contextProvider.getParameterTypes().length > 0) {
+                throw new IllegalStateException("the context provider method " + contextProvider.getName() + " must" +
+                        " not have arguments");
+            }
+            accessor = new ContextProviderAccessor(contextProvider);
+            contextProviders.putIfAbsent(beanClass, accessor);
+        }
+        return accessor.method;
+    }
+
+    /**
+     * Gets the bean method which corresponds to the context provider declared by the mixin.
+     */
+    private Method getContextProvider(Class<?> beanClass, Class<?> mixinClass) throws NoSuchMethodException {
+        AccessorKey key = new AccessorKey(beanClass, mixinClass);
+        ContextProviderAccessor accessor = beanContextProviders.get(key);
+        if (accessor == null) {
+            Method mixinContextProvider = getContextProvider(mixinClass);
+            accessor = new ContextProviderAccessor(mixinContextProvider == null ? null :
+                    beanClass.getMethod(mixinContextProvider.getName()));
+            beanContextProviders.putIfAbsent(key, accessor);
         }
-        return contextProvider;
+        return accessor.method;
     }
 
-    private void addEnumTerms(Map<String, Object> termsMap, Expose expose, String name,
+    private void addEnumTerms(Map<String, Object> termsMap, Map<String, String> enumTermDefinition, String name,
                               Enum value) throws NoSuchFieldException {
         if (value != null) {
-            Map<String, String> map = new LinkedHashMap<String, String>();
-            if (expose != null) {
-                map.put(JsonLdKeywords.AT_ID, expose.value());
-            }
-            map.put(JsonLdKeywords.AT_TYPE, JsonLdKeywords.AT_VOCAB);
-            termsMap.put(name, map);
-            final Expose enumValueExpose = findAnnotation(value.getClass()
-                    .getField(value.name()), Expose.class);
+            termsMap.put(name, enumTermDefinition);
+            termsMap.put(value.toString(), getEnumValueTerms(value.getDeclaringClass()).get(value));
+        }
+    }
 
-            if (enumValueExpose != null) {
-                termsMap.put(value.toString(), enumValueExpose.value());
-            } else {
-                // might use upperToCamelCase if nothing is exposed
-                final String camelCaseEnumValue = WordUtils.capitalizeFully(value.toString(), new char[]{'_'})
-                        .replaceAll("_", "");
-                termsMap.put(value.toString(), camelCaseEnumValue);
+    /**
+     * Gets the terms of the constants of the given enum, computed on first use. A term is the exposed name of the
+     * constant or its camel-cased name.
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Enum, String> getEnumValueTerms(Class<? extends Enum> enumClass) throws NoSuchFieldException {
+        Map<Enum, String> ret = enumValueTerms.get(enumClass);
+        if (ret == null) {
+            ret = new EnumMap(enumClass);
+            for (Enum constant : enumClass.getEnumConstants()) {
+                final Expose enumValueExpose = findAnnotation(enumClass.getField(constant.name()), Expose.class);
+                if (enumValueExpose != null) {
+                    ret.put(constant, enumValueExpose.value());
+                } else {
+                    // might use upperToCamelCase if nothing is exposed
+                    final String camelCaseEnumValue = WordUtils.capitalizeFully(constant.toString(), new char[]{'_'})
+                            .replaceAll("_", "");
+                    ret.put(constant, camelCaseEnumValue);
+                }
+            }
+            Map<Enum, String> existing = enumValueTerms.putIfAbsent(enumClass, ret);
+            if (existing != null) {
+                ret = existing;
             }
         }
+        return ret;
     }
 
 
+    /**
+     * Determines if vocab and terms of beans of the given class depend on property values of the bean. That is the case
+     * for enum properties, whose current value is defined as a term, and for beans whose mixin has a context provider.
+     *
+     * @param beanClass
+     *         to inspect
+     * @param mixInClass
+     *         for bean class, may be null
+     * @return true if vocab and terms must be computed for every bean
+     */
+    public boolean hasValueDependentContext(Class<?> beanClass, Class<?> mixInClass) {
+        try {
+            if (hasContextProvider(mixInClass)) {
+                return true;
+            }
+            for (Field field : beanClass.getDeclaredFields()) {
+                if (Modifier.isPublic(field.getModifiers()) && Enum.class.isAssignableFrom(field.getType())) {
+                    return true;
+                }
+            }
+            for (PropertyDescriptor propertyDescriptor : Introspector.getBeanInfo(beanClass)
+                    .getPropertyDescriptors()) {
+                Method method = propertyDescriptor.getReadMethod();
+                if (method != null && Enum.class.isAssignableFrom(method.getReturnType())) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public String vocabFromClassOrPackage(Class<?> clazz) {
         // vocab and terms of defining class: class and package
         final Vocab packageVocab = findAnnotation(clazz
@@ -283,7 +457,103 @@ public class LdContextFactory {
         return termsMap;
     }
 
+    /**
+     * Gets terms defined by annotations of the given class, its package and its mixin, without terms which depend on
+     * bean values.
+     *
+     * @param clazz
+     *         to inspect
+     * @param mixInClass
+     *         for class, may be null
+     * @return terms, mixin terms override class terms
+     */
+    public Map<String, Object> termsFromClass(Class<?> clazz, Class<?> mixInClass) {
+        Map<String, Object> termsMap = termsFromClass(clazz);
+        termsMap.putAll(getAnnotatedTerms(mixInClass, clazz.getName()));
+        return termsMap;
+    }
+
     public void setProxyUnwrapper(ProxyUnwrapper proxyUnwrapper) {
         this.proxyUnwrapper = proxyUnwrapper;
     }
+
+    public ProxyUnwrapper getProxyUnwrapper() {
+        return proxyUnwrapper;
+    }
+
+    /**
+     * Term of an exposed or enum property of a bean class.
+     */
+    private class PropertyTerm {
+        private final String name;
+        private final Expose expose;
+        private final Field field;
+        private final Method readMethod;
+        private final Map<String, String> enumTermDefinition;
+
+        PropertyTerm(String name, Expose expose, Field field, Method readMethod) {
+            this.name = name;
+            this.expose = expose;
+            this.field = field;
+            this.readMethod = readMethod;
+            if (Enum.class.isAssignableFrom(field != null ? field.getType() : readMethod.getReturnType())) {
+                // enum values are terms of the vocab
+                Map<String, String> map = new LinkedHashMap<String, String>();
+                if (expose != null) {
+                    map.put(JsonLdKeywords.AT_ID, expose.value());
+                }
+                map.put(JsonLdKeywords.AT_TYPE, JsonLdKeywords.AT_VOCAB);
+                this.enumTermDefinition = Collections.unmodifiableMap(map);
+            } else {
+                this.enumTermDefinition = null;
+            }
+        }
+
+        void addTo(Map<String, Object> termsMap, Object bean) throws Exception {
+            if (enumTermDefinition != null) {
+                Object value = field != null ? field.get(bean) : readMethod.invoke(bean);
+                addEnumTerms(termsMap, enumTermDefinition, name, (Enum) value);
+            } else {
+                termsMap.put(name, expose.value());
+            }
+        }
+    }
+
+    /**
+     * Resolved context provider method, null if there is none.
+     */
+    private static class ContextProviderAccessor {
+        final Method method;
+
+        ContextProviderAccessor(Method method) {
+            this.method = method;
+        }
+    }
+
+    private static class AccessorKey {
+        private final Class<?> beanClass;
+        private final Class<?> mixinClass;
+
+        AccessorKey(Class<?> beanClass, Class<?> mixinClass) {
+            this.beanClass = beanClass;
+            this.mixinClass = mixinClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AccessorKey)) {
+                return false;
+            }
+            AccessorKey other = (AccessorKey) o;
+            return beanClass == other.beanClass && mixinClass == other.mixinClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * beanClass.hashCode() + mixinClass.hashCode();
+        }
+    }
 }
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+package de.escalon.hypermedia.hydra.serialize;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import de.escalon.hypermedia.instrument.Instrumentations;
+import de.escalon.hypermedia.instrument.RenderingProfile;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static de.escalon.hypermedia.hydra.serialize.JacksonHydraSerializer.KEY_LD_CONTEXT;
+
+/**
+ * Writes the json-ld @context of a bean, omitting vocab and terms which are already defined by the enclosing
+ * contexts. Vocab and terms which only depend on the bean class and its mixin are computed once per class and mixin.
+ * Used by all hydra serializers, so that nested beans and collections share a single context stack during
+ * serialization. Beans whose terms depend on enum property values have their vocab computed once, only their property
+ * terms are computed per bean. Consecutive beans with equal vocab and terms below the same parent context, such as the
+ * members of a homogeneous collection, reuse the context computed for the first of them. Thread-safe.
+ */
+public class LdContextWriter {
+
+    private static final BeanContext VALUE_DEPENDENT = new BeanContext(null, null);
+
+    private final LdContextFactory ldContextFactory;
+
+    private final ConcurrentMap<ContextKey, BeanContext> beanContexts =
+            new ConcurrentHashMap<ContextKey, BeanContext>();
+
+    /**
+     * Creates context writer.
+     *
+     * @param proxyUnwrapper
+     *         to unwrap proxified beans, may be null
+     */
+    public LdContextWriter(ProxyUnwrapper proxyUnwrapper) {
+        this.ldContextFactory = new LdContextFactory();
+        ldContextFactory.setProxyUnwrapper(proxyUnwrapper);
+    }
+
+    /**
+     * Gets the context stack of the current serialization, creating it if necessary.
+     *
+     * @param serializerProvider
+     *         of current serialization
+     * @return context stack, never null
+     */
+    @SuppressWarnings("unchecked")
+    public static Deque<LdContext> getContextStack(SerializerProvider serializerProvider) {
+        Deque<LdContext> contextStack = (Deque<LdContext>) serializerProvider.getAttribute(KEY_LD_CONTEXT);
+        if (contextStack == null) {
+            contextStack = new ContextStack();
+            serializerProvider.setAttribute(KEY_LD_CONTEXT, contextStack);
+        }
+        return contextStack;
+    }
+
+    /**
+     * Pushes the context of the given bean to the context stack and writes an @context attribute if the bean defines
+     * a vocab or terms which are not yet defined by the enclosing contexts. The caller must pop the context after
+     * writing the bean.
+     *
+     * @param bean
+     *         to write context for
+     * @param mixInClass
+     *         of bean, may be null
+     * @param mixinSource
+     *         to look up mixins of nested context providers
+     * @param jgen
+     *         to write to, positioned inside the json object of the bean
+     * @param contextStack
+     *         of current serialization
+     * @throws IOException
+     *         if writing fails
+     */
+    public void writeContext(Object bean, Class<?> mixInClass, MixinSource mixinSource, JsonGenerator jgen,
+                             Deque<LdContext> contextStack) throws IOException {
+        writeContext(bean, mixInClass, mixinSource, jgen, contextStack, Collections.<String>emptySet());
+    }
+
+    /**
+     * Pushes the context of the given bean to the context stack and writes an @context attribute like {@link
+     * #writeContext(Object, Class, MixinSource, JsonGenerator, Deque)}, leaving out the terms of properties whose keys
+     * are written as exposed iris.
+     *
+     * @param bean
+     *         to write context for
+     * @param mixInClass
+     *         of bean, may be null
+     * @param mixinSource
+     *         to look up mixins of nested context providers
+     * @param jgen
+     *         to write to, positioned inside the json object of the bean
+     * @param contextStack
+     *         of current serialization
+     * @param exposedPropertyNames
+     *         names of properties which are written with their exposed iri as key
+     * @throws IOException
+     *         if writing fails
+     */
+    public void writeContext(Object bean, Class<?> mixInClass, MixinSource mixinSource, JsonGenerator jgen,
+                             Deque<LdContext> contextStack, Set<String> exposedPropertyNames) throws IOException {
+        RenderingProfile.Phase previousPhase = RenderingProfile.startPhase(RenderingProfile.Phase.CONTEXT);
+        try {
+            pushAndWriteContext(bean, mixInClass, mixinSource, jgen, contextStack, exposedPropertyNames);
+        } finally {
+            RenderingProfile.endPhase(previousPhase);
+        }
+    }
+
+    private void pushAndWriteContext(Object bean, Class<?> mixInClass, MixinSource mixinSource, JsonGenerator jgen,
+                                     Deque<LdContext> contextStack, Set<String> exposedPropertyNames) throws
+            IOException {
+        ProxyUnwrapper proxyUnwrapper = ldContextFactory.getProxyUnwrapper();
+        if (proxyUnwrapper != null) {
+            bean = proxyUnwrapper.unwrapProxy(bean);
+        }
+        BeanContext beanContext = getBeanContext(bean, mixInClass, mixinSource);
+
+        final LdContext parentContext = contextStack.peek();
+        ContextStack memo = contextStack instanceof ContextStack ? (ContextStack) contextStack : null;
+        if (memo != null && memo.isPreviousChild(parentContext, beanContext, exposedPropertyNames)) {
+            contextStack.push(memo.previousContext);
+            if (memo.previousMustWriteContext) {
+                writeContextObject(jgen, parentContext, memo.previousContext);
+            }
+            return;
+        }
+
+        Map<String, Object> newTermsOfBean;
+        if (parentContext != null || !exposedPropertyNames.isEmpty()) {
+            newTermsOfBean = new LinkedHashMap<String, Object>();
+            for (Map.Entry<String, Object> termEntry : beanContext.terms.entrySet()) {
+                String term = termEntry.getKey();
+                Object value = termEntry.getValue();
+                // exposed keys need no term
+                boolean exposedKey = exposedPropertyNames.contains(term) && value instanceof String;
+                if (!exposedKey && (parentContext == null || !parentContext.hasEqualTerm(term, value))) {
+                    newTermsOfBean.put(term, value);
+                }
+            }
+        } else {
+            newTermsOfBean = beanContext.terms;
+        }
+        LdContext currentContext = new LdContext(parentContext, beanContext.vocab, newTermsOfBean);
+        contextStack.push(currentContext);
+        // check if we need to write a context for the current bean at all
+        // If it is in the same vocab: no context
+        // If the terms are already defined in the context: no context
+        boolean mustWriteContext;
+        if (parentContext == null || !parentContext.contains(currentContext)) {
+            mustWriteContext = true;
+        } else {
+            mustWriteContext = false;
+        }
+        if (memo != null) {
+            memo.setPreviousChild(parentContext, beanContext, exposedPropertyNames, currentContext, mustWriteContext);
+        }
+
+        if (mustWriteContext) {
+            writeContextObject(jgen, parentContext, currentContext);
+        }
+    }
+
+    private void writeContextObject(JsonGenerator jgen, LdContext parentContext, LdContext currentContext)
+            throws IOException {
+        // begin context
+        // default context: schema.org vocab or vocab package annotation
+        jgen.writeObjectFieldStart("@context");
+        // do not repeat vocab if already defined in current context
+        if (parentContext == null || parentContext.vocab == null ||
+                (currentContext.vocab != null && !currentContext.vocab.equals(parentContext.vocab))) {
+            jgen.writeStringField(JsonLdKeywords.AT_VOCAB, currentContext.vocab);
+        }
+
+        for (Map.Entry<String, Object> termEntry : currentContext.terms.entrySet()) {
+            if (termEntry.getValue() instanceof String) {
+                jgen.writeStringField(termEntry.getKey(), termEntry.getValue()
+                        .toString());
+            } else {
+                jgen.writeObjectField(termEntry.getKey(), termEntry.getValue());
+            }
+        }
+        jgen.writeEndObject();
+        // end context
+    }
+
+    private BeanContext getBeanContext(Object bean, Class<?> mixInClass, MixinSource mixinSource) {
+        ContextKey key = new ContextKey(bean.getClass(), mixInClass);
+        BeanContext beanContext = beanContexts.get(key);
+        Instrumentations.cacheAccess("ldcontext.beanContexts", beanContext != null);
+        if (beanContext == null) {
+            if (ldContextFactory.hasContextProvider(mixInClass)) {
+                beanContext = VALUE_DEPENDENT;
+            } else if (ldContextFactory.hasValueDependentContext(bean.getClass(), mixInClass)) {
+                // only enum terms depend on the bean
+                beanContext = new BeanContext(ldContextFactory.getVocab(mixinSource, bean, mixInClass), null);
+            } else {
+                beanContext = createBeanContext(bean, mixInClass, mixinSource);
+            }
+            beanContexts.putIfAbsent(key, beanContext);
+        }
+        if (beanContext == VALUE_DEPENDENT) {
+            beanContext = createBeanContext(bean, mixInClass, mixinSource);
+        } else if (beanContext.terms == null) {
+            beanContext = new BeanContext(beanContext.vocab,
+                    Collections.unmodifiableMap(ldContextFactory.getTerms(mixinSource, bean, mixInClass)));
+        }
+        return beanContext;
+    }
+
+    private BeanContext createBeanContext(Object bean, Class<?> mixInClass, MixinSource mixinSource) {
+        Object nestedContextProvider = ldContextFactory.getNestedContextProvider(mixinSource, bean, mixInClass);
+        return new BeanContext(ldContextFactory.getVocab(mixinSource, bean, mixInClass, nestedContextProvider),
+                Collections.unmodifiableMap(ldContextFactory.getTerms(mixinSource, bean, mixInClass,
+                        nestedContextProvider)));
+    }
+
+    /**
+     * Vocab and terms of a bean, before they are reduced to the terms not defined by enclosing contexts.
+     */
+    private static class BeanContext {
+        final String vocab;
+        final Map<String, Object> terms;
+
+        BeanContext(String vocab, Map<String, Object> terms) {
+            this.vocab = vocab;
+            this.terms = terms;
+        }
+
+        boolean isEqualTo(BeanContext other) {
+            return this == other || (other != null && (vocab == null ? other.vocab == null : vocab.equals(other
+                    .vocab)) && terms.equals(other.terms));
+        }
+    }
+
+    /**
+     * Context stack of one serialization which remembers the context computed for the previous child of the current
+     * parent context.
+     */
+    private static class ContextStack extends ArrayDeque<LdContext> {
+        private LdContext previousParent;
+        private BeanContext previousBeanContext;
+        private Set<String> previousExposedPropertyNames;
+        private LdContext previousContext;
+        private boolean previousMustWriteContext;
+
+        boolean isPreviousChild(LdContext parentContext, BeanContext beanContext, Set<String>
+                exposedPropertyNames) {
+            return previousContext != null && parentContext == previousParent && exposedPropertyNames ==
+                    previousExposedPropertyNames && beanContext.isEqualTo(previousBeanContext);
+        }
+
+        void setPreviousChild(LdContext parentContext, BeanContext beanContext, Set<String> exposedPropertyNames,
+                              LdContext currentContext, boolean mustWriteContext) {
+            this.previousParent = parentContext;
+            this.previousBeanContext = beanContext;
+            this.previousExposedPropertyNames = exposedPropertyNames;
+            this.previousContext = currentContext;
+            this.previousMustWriteContext = mustWriteContext;
+        }
+    }
+
+    private static class ContextKey {
+        private final Class<?> beanClass;
+        private final Class<?> mixInClass;
+
+        ContextKey(Class<?> beanClass, Class<?> mixInClass) {
+            this.beanClass = beanClass;
+            this.mixInClass = mixInClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ContextKey)) {
+                return false;
+            }
+            ContextKey other = (ContextKey) o;
+            return beanClass == other.beanClass && mixInClass == other.mixInClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * beanClass.hashCode() + (mixInClass == null ? 0 : mixInClass.hashCode());
+        }
+    }
+}
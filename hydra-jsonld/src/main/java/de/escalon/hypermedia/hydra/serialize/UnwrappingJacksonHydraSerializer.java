@@ -26,9 +26,14 @@ public class UnwrappingJacksonHydraSerializer extends JacksonHydraSerializer {
      *
      * @param source
      *         to decorate.
+     * @param proxyUnwrapper
+     *         to unwrap proxified beans, may be null
+     * @param ldContextWriter
+     *         to write json-ld contexts
      */
-    UnwrappingJacksonHydraSerializer(BeanSerializerBase source, ProxyUnwrapper proxyUnwrapper) {
-        super(source, proxyUnwrapper);
+    UnwrappingJacksonHydraSerializer(BeanSerializerBase source, ProxyUnwrapper proxyUnwrapper,
+                                     LdContextWriter ldContextWriter) {
+        super(source, proxyUnwrapper, ldContextWriter);
     }
 
     @Override
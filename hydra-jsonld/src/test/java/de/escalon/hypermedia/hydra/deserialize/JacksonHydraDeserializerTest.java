@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.hydra.deserialize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.escalon.hypermedia.hydra.mapping.Expose;
+import de.escalon.hypermedia.hydra.mapping.Term;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class JacksonHydraDeserializerTest {
+
+    private ObjectMapper mapper;
+
+    @Term(define = "foaf", as = "http://xmlns.com/foaf/0.1/")
+    public static class Person {
+        public String name;
+
+        @Expose("foaf:surname")
+        public String lastName;
+
+        public Address address;
+
+        public List<Person> knows;
+    }
+
+    public static class Address {
+        public String streetAddress;
+    }
+
+    @Before
+    public void setUp() {
+        mapper = new ObjectMapper();
+        mapper.registerModule(new JacksonHydraDeserializerModule());
+    }
+
+    @Test
+    public void bindsKeysExpandedByDocumentContext() throws Exception {
+        Person person = mapper.readValue("{\"@context\":{\"@vocab\":\"http://schema.org/\"," +
+                "\"f\":\"http://xmlns.com/foaf/0.1/\",\"nachname\":\"f:surname\"}," +
+                "\"@type\":\"Person\",\"@id\":\"http://example.com/people/1\"," +
+                "\"name\":\"Jane\",\"nachname\":\"Doe\"}", Person.class);
+
+        assertEquals("Jane", person.name);
+        assertEquals("Doe", person.lastName);
+    }
+
+    @Test
+    public void nestedObjectsInheritDocumentContext() throws Exception {
+        Person person = mapper.readValue("{\"@context\":{\"s\":\"http://schema.org/\"}," +
+                "\"s:name\":\"Jane\",\"s:address\":{\"@type\":\"s:PostalAddress\",\"s:streetAddress\":\"Main St\"}," +
+                "\"s:knows\":[{\"@context\":{\"@vocab\":\"http://xmlns.com/foaf/0.1/\"},\"surname\":\"Roe\"}]}",
+                Person.class);
+
+        assertEquals("Jane", person.name);
+        assertEquals("Main St", person.address.streetAddress);
+        assertEquals("Roe", person.knows.get(0).lastName);
+    }
+
+    @Test
+    public void bindsPlainJsonAndAbsoluteIris() throws Exception {
+        Person person = mapper.readValue("{\"name\":\"Jane\",\"http://xmlns.com/foaf/0.1/surname\":\"Doe\"}",
+                Person.class);
+
+        assertEquals("Jane", person.name);
+        assertEquals("Doe", person.lastName);
+    }
+}
@@ -15,6 +15,7 @@ package de.escalon.hypermedia.hydra.serialize;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationConfig;
@@ -23,6 +24,7 @@ import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
 import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
 import com.github.jsonldjava.core.JsonLdError;
 import com.jayway.jsonassert.JsonAssert;
+import de.escalon.hypermedia.PropertyProjection;
 import de.escalon.hypermedia.hydra.JsonLdTestUtils;
 import de.escalon.hypermedia.hydra.mapping.Expose;
 import de.escalon.hypermedia.hydra.mapping.Term;
@@ -39,6 +41,7 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 
 public class JacksonHydraSerializerTest {
@@ -140,6 +143,20 @@ public class JacksonHydraSerializerTest {
         }
     }
 
+    @Test
+    public void testWritesProjectedPropertiesOnly() throws IOException {
+        mapper.writer()
+                .withAttribute(JacksonHydraSerializer.KEY_PROPERTY_PROJECTION, PropertyProjection.parse("baz"))
+                .writeValue(w, new Parent());
+        JsonNode parent = mapper.readTree(w.toString());
+        assertEquals("Parent", parent.get("@type")
+                .asText());
+        assertFalse(parent.has("foo"));
+        assertEquals("bar", parent.get("baz")
+                .get("bar")
+                .asText());
+    }
+
     @Test
     public void testDoesNotRepeatTerms() throws IOException {
         mapper.writeValue(w, new Parent());
@@ -150,6 +167,39 @@ public class JacksonHydraSerializerTest {
                 w.toString());
     }
 
+    @Test
+    public void testCompactModeWritesExposedKeys() throws IOException {
+        ObjectMapper compactMapper = new ObjectMapper();
+        compactMapper.registerModule(new SimpleModule() {
+
+            public void setupModule(SetupContext context) {
+                super.setupModule(context);
+
+                context.addBeanSerializerModifier(new BeanSerializerModifier() {
+
+                    public JsonSerializer<?> modifySerializer(
+                            SerializationConfig config,
+                            BeanDescription beanDesc,
+                            JsonSerializer<?> serializer) {
+
+                        if (serializer instanceof BeanSerializerBase) {
+                            return new JacksonHydraSerializer((BeanSerializerBase) serializer, null,
+                                    new LdContextWriter(null), true);
+                        } else {
+                            return serializer;
+                        }
+                    }
+                });
+            }
+        });
+        compactMapper.writeValue(w, new Parent());
+        assertEquals("{\"@context\":{\"@vocab\":\"http://schema.org/\",\"common\":\"http://example.com/common#\"}," +
+                "\"@type\":\"Parent\",\"common:foo\":\"foo\"," +
+                "\"common:baz\":{\"@context\":{\"child\":\"http://example.com/child#\"}," +
+                "\"@type\":\"Child\",\"child:bar\":\"bar\"}}",
+                w.toString());
+    }
+
     @Test
     public void testFoafVocabIsRendered() throws Exception {
 
@@ -0,0 +1,179 @@
+package de.escalon.hypermedia.hydra.serialize;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import de.escalon.hypermedia.hydra.mapping.ContextProvider;
+import de.escalon.hypermedia.hydra.mapping.Expose;
+import de.escalon.hypermedia.hydra.mapping.Term;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class LdContextWriterTest {
+
+    private ObjectMapper mapper = new ObjectMapper();
+    private LdContextWriter ldContextWriter;
+    private Deque<LdContext> contextStack;
+
+    @Term(define = "gr", as = "http://purl.org/goodrelations/v1#")
+    public static class Offer {
+        public String getName() {
+            return "offer";
+        }
+    }
+
+    public enum BusinessFunction {
+        RENT, SELL
+    }
+
+    public static class Rental {
+        private final BusinessFunction businessFunction;
+
+        public Rental(BusinessFunction businessFunction) {
+            this.businessFunction = businessFunction;
+        }
+
+        public BusinessFunction getBusinessFunction() {
+            return businessFunction;
+        }
+    }
+
+    public enum EventStatus {
+        EVENT_SCHEDULED {
+            @Override
+            public String toString() {
+                return "EVENT_SCHEDULED";
+            }
+        },
+        @Expose("EventCancelled")
+        CANCELLED
+    }
+
+    public static class Event {
+        public EventStatus eventStatus;
+
+        public Event(EventStatus eventStatus) {
+            this.eventStatus = eventStatus;
+        }
+    }
+
+    public static class Wrapper {
+        int contentCalls;
+
+        public Object getContent() {
+            contentCalls++;
+            return new Offer();
+        }
+    }
+
+    public static abstract class WrapperMixin {
+        @ContextProvider
+        public abstract Object getContent();
+    }
+
+    @Before
+    public void setUp() {
+        ldContextWriter = new LdContextWriter(null);
+        contextStack = new ArrayDeque<LdContext>();
+    }
+
+    private String writeContext(Object bean) throws Exception {
+        return writeContext(bean, null);
+    }
+
+    private String writeContext(Object bean, Class<?> mixInClass) throws Exception {
+        StringWriter writer = new StringWriter();
+        JsonGenerator jgen = mapper.getFactory()
+                .createGenerator(writer);
+        jgen.writeStartObject();
+        ldContextWriter.writeContext(bean, mixInClass, new JacksonMixinSource(mapper.getSerializationConfig()), jgen,
+                contextStack);
+        jgen.writeEndObject();
+        jgen.close();
+        return writer.toString();
+    }
+
+    @Test
+    public void writesVocabAndTerms() throws Exception {
+        assertEquals("{\"@context\":{\"@vocab\":\"http://schema.org/\",\"gr\":\"http://purl.org/goodrelations/v1#\"}}",
+                writeContext(new Offer()));
+        assertEquals(1, contextStack.size());
+    }
+
+    @Test
+    public void omitsContextDefinedByParent() throws Exception {
+        Map<String, Object> parentTerms = new LinkedHashMap<String, Object>();
+        parentTerms.put("gr", "http://purl.org/goodrelations/v1#");
+        contextStack.push(new LdContext(null, "http://schema.org/", parentTerms));
+
+        assertEquals("{}", writeContext(new Offer()));
+    }
+
+    @Test
+    public void writesOnlyTermsMissingInParent() throws Exception {
+        Map<String, Object> parentTerms = new LinkedHashMap<String, Object>();
+        parentTerms.put("hydra", "http://www.w3.org/ns/hydra/core#");
+        contextStack.push(new LdContext(null, "http://schema.org/", parentTerms));
+
+        assertEquals("{\"@context\":{\"gr\":\"http://purl.org/goodrelations/v1#\"}}", writeContext(new Offer()));
+    }
+
+    @Test
+    public void computesValueDependentTermsPerBean() throws Exception {
+        assertEquals("{\"@context\":{\"@vocab\":\"http://schema.org/\"," +
+                "\"businessFunction\":{\"@type\":\"@vocab\"},\"RENT\":\"Rent\"}}",
+                writeContext(new Rental(BusinessFunction.RENT)));
+        contextStack.clear();
+        assertEquals("{\"@context\":{\"@vocab\":\"http://schema.org/\"," +
+                "\"businessFunction\":{\"@type\":\"@vocab\"},\"SELL\":\"Sell\"}}",
+                writeContext(new Rental(BusinessFunction.SELL)));
+    }
+
+    @Test
+    public void reusesContextOfPreviousMemberWithEqualTerms() throws Exception {
+        contextStack = LdContextWriter.getContextStack(((DefaultSerializerProvider) mapper.getSerializerProvider())
+                .createInstance(mapper.getSerializationConfig(), mapper.getSerializerFactory()));
+        contextStack.push(new LdContext(null, "http://schema.org/", new LinkedHashMap<String, Object>()));
+
+        String first = writeContext(new Rental(BusinessFunction.RENT));
+        LdContext firstContext = contextStack.pop();
+        String second = writeContext(new Rental(BusinessFunction.RENT));
+        assertSame(firstContext, contextStack.pop());
+        assertEquals("{\"@context\":{\"businessFunction\":{\"@type\":\"@vocab\"},\"RENT\":\"Rent\"}}", first);
+        assertEquals(first, second);
+
+        assertEquals("{\"@context\":{\"businessFunction\":{\"@type\":\"@vocab\"},\"SELL\":\"Sell\"}}",
+                writeContext(new Rental(BusinessFunction.SELL)));
+        assertNotSame(firstContext, contextStack.pop());
+    }
+
+    @Test
+    public void callsContextProviderOncePerBean() throws Exception {
+        Wrapper wrapper = new Wrapper();
+
+        assertEquals("{\"@context\":{\"@vocab\":\"http://schema.org/\",\"gr\":\"http://purl.org/goodrelations/v1#\"}}",
+                writeContext(wrapper, WrapperMixin.class));
+        assertEquals(1, wrapper.contentCalls);
+    }
+
+    @Test
+    public void writesTermsOfEnumConstants() throws Exception {
+        assertEquals("{\"@context\":{\"@vocab\":\"http://schema.org/\"," +
+                "\"eventStatus\":{\"@type\":\"@vocab\"},\"EVENT_SCHEDULED\":\"EventScheduled\"}}",
+                writeContext(new Event(EventStatus.EVENT_SCHEDULED)));
+        contextStack.clear();
+        assertEquals("{\"@context\":{\"@vocab\":\"http://schema.org/\"," +
+                "\"eventStatus\":{\"@type\":\"@vocab\"},\"CANCELLED\":\"EventCancelled\"}}",
+                writeContext(new Event(EventStatus.CANCELLED)));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.spring.hydra;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanSerializerFactory;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import de.escalon.hypermedia.instrument.Instrumentations;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds plain bean serializers and their unwrapping variants per runtime class, so that serializers which delegate to
+ * a bean serializer do not build bean property writers for every value they serialize. A cache belongs to one
+ * contextual serializer instance, hence to the configuration of one ObjectMapper.
+ */
+class BeanSerializerCache {
+
+    private final ConcurrentMap<Class<?>, JsonSerializer<Object>> serializers =
+            new ConcurrentHashMap<Class<?>, JsonSerializer<Object>>();
+
+    private final ConcurrentMap<Class<?>, JsonSerializer<Object>> unwrappingSerializers =
+            new ConcurrentHashMap<Class<?>, JsonSerializer<Object>>();
+
+    /**
+     * Gets bean serializer for the given class, creating and resolving it on first use.
+     *
+     * @param provider
+     *         of current serialization
+     * @param beanClass
+     *         runtime class of the bean
+     * @return bean serializer
+     * @throws JsonMappingException
+     *         if the serializer cannot be created
+     */
+    JsonSerializer<Object> getSerializer(SerializerProvider provider, Class<?> beanClass) throws
+            JsonMappingException {
+        JsonSerializer<Object> serializer = serializers.get(beanClass);
+        Instrumentations.cacheAccess("hydra.serializers", serializer != null);
+        if (serializer == null) {
+            serializer = BeanSerializerFactory.instance.createSerializer(provider,
+                    provider.getConfig()
+                            .constructType(beanClass));
+            if (serializer instanceof ResolvableSerializer) {
+                ((ResolvableSerializer) serializer).resolve(provider);
+            }
+            JsonSerializer<Object> existing = serializers.putIfAbsent(beanClass, serializer);
+            if (existing != null) {
+                serializer = existing;
+            }
+        }
+        return serializer;
+    }
+
+    /**
+     * Gets unwrapping bean serializer for the given class, which writes the bean properties without start and end
+     * object.
+     *
+     * @param provider
+     *         of current serialization
+     * @param beanClass
+     *         runtime class of the bean
+     * @return unwrapping bean serializer
+     * @throws JsonMappingException
+     *         if the serializer cannot be created
+     */
+    JsonSerializer<Object> getUnwrappingSerializer(SerializerProvider provider, Class<?> beanClass) throws
+            JsonMappingException {
+        JsonSerializer<Object> serializer = unwrappingSerializers.get(beanClass);
+        Instrumentations.cacheAccess("hydra.unwrappingSerializers", serializer != null);
+        if (serializer == null) {
+            serializer = getSerializer(provider, beanClass).unwrappingSerializer(NameTransformer.NOP);
+            JsonSerializer<Object> existing = unwrappingSerializers.putIfAbsent(beanClass, serializer);
+            if (existing != null) {
+                serializer = existing;
+            }
+        }
+        return serializer;
+    }
+}
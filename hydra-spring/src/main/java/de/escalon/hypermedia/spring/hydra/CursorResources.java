@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.spring.hydra;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Resources;
+import org.springframework.util.Assert;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+
+/**
+ * Resources representing one page of a collection which is paginated by opaque cursors, e.g. for keyset pagination.
+ * Unlike PagedResources, a cursor page does not require the total number of items. If no next or prev link is given,
+ * it is derived from the self link by setting the cursor request parameter. Rendered by {@link
+ * CursorResourcesSerializer} as hydra:Collection with a hydra:PartialCollectionView.
+ *
+ * @param <T>
+ *         content type
+ */
+public class CursorResources<T> extends Resources<T> {
+
+    private final CursorMetadata metadata;
+
+    /**
+     * Creates cursor page.
+     *
+     * @param content
+     *         of the page
+     * @param metadata
+     *         cursors of adjacent pages, must not be null
+     * @param links
+     *         of the page, must contain a self link if next or previous links are to be derived from cursors
+     */
+    public CursorResources(Iterable<T> content, CursorMetadata metadata, Link... links) {
+        super(content, links);
+        Assert.notNull(metadata, "metadata must not be null");
+        this.metadata = metadata;
+        addCursorLink(Link.REL_NEXT, metadata.getNextCursor());
+        addCursorLink(Link.REL_PREVIOUS, metadata.getPreviousCursor());
+    }
+
+    private void addCursorLink(String rel, String cursor) {
+        if (cursor == null || hasLink(rel)) {
+            return;
+        }
+        Link self = getId();
+        Assert.notNull(self, "a self link is required to derive " + rel + " link from cursor");
+        add(new Link(withCursor(self.getHref(), metadata.getCursorParam(), cursor), rel));
+    }
+
+    /**
+     * Sets the cursor request parameter of the given uri, replacing an existing cursor.
+     *
+     * @param href
+     *         uri to modify
+     * @param cursorParam
+     *         name of the cursor request parameter
+     * @param cursor
+     *         opaque cursor, will be url-encoded
+     * @return uri with cursor
+     */
+    static String withCursor(String href, String cursorParam, String cursor) {
+        try {
+            return UriComponentsBuilder.fromUriString(href)
+                    .replaceQueryParam(cursorParam, URLEncoder.encode(cursor, "UTF-8"))
+                    .build()
+                    .toUriString();
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("failed to urlEncode " + cursor, e);
+        }
+    }
+
+    public CursorMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Cursors of the pages adjacent to a cursor page.
+     */
+    public static class CursorMetadata {
+
+        private final String cursorParam;
+        private final String nextCursor;
+        private final String previousCursor;
+        private final Long totalItems;
+
+        /**
+         * Creates cursor metadata without total number of items.
+         *
+         * @param cursorParam
+         *         name of the request parameter which takes the cursor
+         * @param nextCursor
+         *         of next page, null on last page
+         * @param previousCursor
+         *         of previous page, null on first page
+         */
+        public CursorMetadata(String cursorParam, String nextCursor, String previousCursor) {
+            this(cursorParam, nextCursor, previousCursor, null);
+        }
+
+        /**
+         * Creates cursor metadata.
+         *
+         * @param cursorParam
+         *         name of the request parameter which takes the cursor
+         * @param nextCursor
+         *         of next page, null on last page
+         * @param previousCursor
+         *         of previous page, null on first page
+         * @param totalItems
+         *         total number of items in the collection, may be an estimate, null if unknown
+         */
+        public CursorMetadata(String cursorParam, String nextCursor, String previousCursor, Long totalItems) {
+            Assert.hasText(cursorParam, "cursorParam must not be empty");
+            this.cursorParam = cursorParam;
+            this.nextCursor = nextCursor;
+            this.previousCursor = previousCursor;
+            this.totalItems = totalItems;
+        }
+
+        public String getCursorParam() {
+            return cursorParam;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public String getPreviousCursor() {
+            return previousCursor;
+        }
+
+        public Long getTotalItems() {
+            return totalItems;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.spring.hydra;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import de.escalon.hypermedia.hydra.serialize.LdContextWriter;
+import de.escalon.hypermedia.hydra.serialize.ProxyUnwrapper;
+import org.springframework.hateoas.Resources;
+
+import java.io.IOException;
+
+/**
+ * Serializer for CursorResources. Writes hydra:totalItems only if the total is known.
+ */
+public class CursorResourcesSerializer extends HydraCollectionSerializer<CursorResources> {
+
+    public CursorResourcesSerializer(ProxyUnwrapper proxyUnwrapper) {
+        this(proxyUnwrapper, new LdContextWriter(proxyUnwrapper));
+    }
+
+    /**
+     * Creates serializer with a context writer which may be shared with other hydra serializers.
+     *
+     * @param proxyUnwrapper
+     *         to unwrap proxified beans, may be null
+     * @param ldContextWriter
+     *         to write json-ld contexts
+     */
+    public CursorResourcesSerializer(ProxyUnwrapper proxyUnwrapper, LdContextWriter ldContextWriter) {
+        super(CursorResources.class, Resources.class, proxyUnwrapper, ldContextWriter);
+    }
+
+    @Override
+    protected void writeTotalItems(CursorResources cursorResources, JsonGenerator jgen) throws IOException {
+        Long totalItems = cursorResources.getMetadata()
+                .getTotalItems();
+        if (totalItems != null) {
+            jgen.writeNumberField("hydra:totalItems", totalItems);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.spring.hydra;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import de.escalon.hypermedia.hydra.serialize.*;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Resources;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Writes Resources as hydra:Collection with a hydra:PartialCollectionView. Links are classified in a single pass,
+ * hydra:member items are written while iterating over the resources. Subclasses contribute hydra:totalItems.
+ *
+ * @param <T>
+ *         handled type
+ */
+abstract class HydraCollectionSerializer<T extends Resources> extends StdSerializer<T> {
+
+    /**
+     * Number of hydra:member items after which written output is flushed, so that large collections reach the client
+     * while they are being written.
+     */
+    static final int FLUSH_INTERVAL = 256;
+
+    private final LdContextWriter ldContextWriter;
+    private final ProxyUnwrapper proxyUnwrapper;
+    private final Class<?> mixinFallbackClass;
+    private final LinkListSerializer linkListSerializer = new LinkListSerializer();
+
+    /**
+     * Creates collection serializer.
+     *
+     * @param handledType
+     *         of serializer
+     * @param mixinFallbackClass
+     *         whose mixin is used for subclasses of the handled type which have no mixin of their own
+     * @param proxyUnwrapper
+     *         to unwrap proxified beans, may be null
+     * @param ldContextWriter
+     *         to write json-ld contexts
+     */
+    HydraCollectionSerializer(Class<T> handledType, Class<?> mixinFallbackClass, ProxyUnwrapper proxyUnwrapper,
+                              LdContextWriter ldContextWriter) {
+        super(handledType);
+        this.mixinFallbackClass = mixinFallbackClass;
+        this.proxyUnwrapper = proxyUnwrapper;
+        this.ldContextWriter = ldContextWriter;
+    }
+
+    @Override
+    public void serialize(T resources, JsonGenerator jgen, SerializerProvider serializerProvider)
+            throws
+            IOException {
+
+        // replicate pretty much everything from JacksonHydraSerializer
+        // since we must reorganize the internals of the resources to get a hydra collection
+        // with partial page view, we write the collection ourselves rather than through a bean serializer
+        Deque<LdContext> contextStack = LdContextWriter.getContextStack(serializerProvider);
+
+        PageLinks pageLinks = new PageLinks(resources.getLinks());
+
+        jgen.writeStartObject();
+
+        serializeContext(resources, jgen, serializerProvider, contextStack);
+
+        jgen.writeStringField(JsonLdKeywords.AT_TYPE, "hydra:Collection");
+
+        if (!pageLinks.collectionLinks.isEmpty()) {
+            linkListSerializer.serialize(pageLinks.collectionLinks, jgen, serializerProvider);
+        }
+
+        writeMembers(resources, jgen, serializerProvider);
+
+        writeTotalItems(resources, jgen);
+
+        if (alwaysWritesView() || pageLinks.hasViewLinks()) {
+            // begin hydra:view
+            jgen.writeObjectFieldStart("hydra:view");
+            jgen.writeStringField(JsonLdKeywords.AT_TYPE, "hydra:PartialCollectionView");
+            writeRelLink(jgen, "next", pageLinks.next);
+            writeRelLink(jgen, "previous", pageLinks.previous);
+            writeRelLink(jgen, "first", pageLinks.first);
+            writeRelLink(jgen, "last", pageLinks.last);
+            jgen.writeEndObject();
+            // end hydra:view
+        }
+
+
+        jgen.writeEndObject();
+
+        contextStack = LdContextWriter.getContextStack(serializerProvider);
+        if (!contextStack.isEmpty()) {
+            contextStack.pop();
+        }
+
+    }
+
+    /**
+     * Writes hydra:totalItems of the collection, if known.
+     *
+     * @param resources
+     *         collection
+     * @param jgen
+     *         to write to
+     * @throws IOException
+     *         if writing fails
+     */
+    protected abstract void writeTotalItems(T resources, JsonGenerator jgen) throws IOException;
+
+    /**
+     * Determines if a hydra:view is written even if there are no navigation links.
+     *
+     * @return true by default
+     */
+    protected boolean alwaysWritesView() {
+        return true;
+    }
+
+    /**
+     * Writes hydra:member items one by one while iterating over the collection, so that an {@link
+     * IterablePagedResources} or {@link IterableResources} is never materialized. Output is flushed periodically,
+     * the blocking response stream throttles iteration to the pace of the client. Empty collections have no
+     * hydra:member.
+     */
+    private void writeMembers(Iterable<?> members, JsonGenerator jgen, SerializerProvider serializerProvider) throws
+            IOException {
+        Iterator<?> iterator = members.iterator();
+        if (!iterator.hasNext()) {
+            return;
+        }
+        jgen.writeArrayFieldStart("hydra:member");
+        Class<?> previousClass = null;
+        JsonSerializer<Object> previousSerializer = null;
+        int count = 0;
+        while (iterator.hasNext()) {
+            Object member = iterator.next();
+            if (member == null) {
+                serializerProvider.defaultSerializeNull(jgen);
+            } else {
+                Class<?> memberClass = member.getClass();
+                if (memberClass != previousClass) {
+                    previousSerializer = serializerProvider.findTypedValueSerializer(memberClass, true, null);
+                    previousClass = memberClass;
+                }
+                previousSerializer.serialize(member, jgen, serializerProvider);
+            }
+            if (++count % FLUSH_INTERVAL == 0) {
+                jgen.flush();
+            }
+        }
+        jgen.writeEndArray();
+    }
+
+    protected void serializeContext(Object bean, JsonGenerator jgen,
+                                    SerializerProvider serializerProvider, Deque<LdContext> contextStack) throws
+            IOException {
+        if (proxyUnwrapper != null) {
+            bean = proxyUnwrapper.unwrapProxy(bean);
+        }
+        MixinSource mixinSource = new JacksonMixinSource(serializerProvider.getConfig());
+        Class<?> mixInClass = mixinSource.findMixInClassFor(bean.getClass());
+        if (mixInClass == null) {
+            // subclasses such as IterablePagedResources have no mixin of their own
+            mixInClass = mixinSource.findMixInClassFor(mixinFallbackClass);
+        }
+        ldContextWriter.writeContext(bean, mixInClass, mixinSource, jgen, contextStack);
+    }
+
+    private void writeRelLink(JsonGenerator jgen, String hydraPredicate, Link link) throws IOException {
+        if (link != null) {
+            jgen.writeStringField("hydra:" + hydraPredicate, link.getHref());
+        }
+    }
+
+    /**
+     * Links of a collection, classified in a single pass. Navigation links become part of the hydra:view, all other
+     * links belong to the collection.
+     */
+    private static class PageLinks {
+        Link next;
+        Link previous;
+        Link first;
+        Link last;
+        List<Link> collectionLinks = Collections.emptyList();
+
+        PageLinks(List<Link> links) {
+            Link previousSynonym = null;
+            for (Link link : links) {
+                String rel = link.getRel();
+                if (Link.REL_NEXT.equals(rel)) {
+                    next = next == null ? link : next;
+                } else if (Link.REL_PREVIOUS.equals(rel)) {
+                    // must also translate prev to its synonym previous
+                    previousSynonym = previousSynonym == null ? link : previousSynonym;
+                } else if (Link.REL_FIRST.equals(rel)) {
+                    first = first == null ? link : first;
+                } else if (Link.REL_LAST.equals(rel)) {
+                    last = last == null ? link : last;
+                } else {
+                    if ("previous".equals(rel) && previous == null) {
+                        previous = link;
+                    }
+                    if (collectionLinks.isEmpty()) {
+                        collectionLinks = new ArrayList<Link>();
+                    }
+                    collectionLinks.add(link);
+                }
+            }
+            if (previous == null) {
+                previous = previousSynonym;
+            }
+        }
+
+        boolean hasViewLinks() {
+            return next != null || previous != null || first != null || last != null;
+        }
+    }
+
+}
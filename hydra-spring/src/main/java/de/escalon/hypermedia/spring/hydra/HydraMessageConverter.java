@@ -16,10 +16,22 @@ package de.escalon.hypermedia.spring.hydra;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.escalon.hypermedia.PropertyProjection;
+import de.escalon.hypermedia.hydra.deserialize.JacksonHydraDeserializerModule;
+import de.escalon.hypermedia.hydra.serialize.JacksonHydraSerializer;
 import de.escalon.hypermedia.hydra.serialize.ProxyUnwrapper;
+import de.escalon.hypermedia.instrument.Instrumentation;
+import de.escalon.hypermedia.instrument.Instrumentations;
 import de.escalon.hypermedia.spring.HypermediaTypes;
+import de.escalon.hypermedia.spring.RenderingProfiler;
+import de.escalon.hypermedia.spring.RequestProjections;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 
+import java.io.IOException;
 import java.util.Arrays;
 
 /**
@@ -27,6 +39,8 @@ import java.util.Arrays;
  */
 public class HydraMessageConverter extends MappingJackson2HttpMessageConverter {
 
+    private String fieldsParam;
+    private String profileHeader;
 
     public HydraMessageConverter() {
         this(null);
@@ -44,8 +58,82 @@ public class HydraMessageConverter extends MappingJackson2HttpMessageConverter {
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         objectMapper.registerModules(additionalModules);
         objectMapper.registerModule(new JacksonHydraModule(proxyUnwrapper));
+        objectMapper.registerModule(new JacksonHydraDeserializerModule());
+        objectMapper.setConfig(objectMapper.getSerializationConfig()
+                .with(new ProjectionContextAttributes()));
         this.setObjectMapper(objectMapper);
         this.setSupportedMediaTypes(
                 Arrays.asList(HypermediaTypes.APPLICATION_JSONLD));
     }
+
+    /**
+     * Sets name of the request parameter which selects the properties to render, e.g.
+     * <code>fields=name,address.street</code>. Not set by default, so all properties are rendered.
+     *
+     * @param fieldsParam
+     *         parameter name, e.g. {@link RequestProjections#DEFAULT_FIELDS_PARAM}, null to always render all
+     *         properties
+     * @see RequestProjections
+     * @see JacksonHydraSerializer#KEY_PROPERTY_PROJECTION
+     */
+    public void setFieldsParam(String fieldsParam) {
+        this.fieldsParam = fieldsParam;
+    }
+
+    /**
+     * Enables profiling of every response written by this converter. The time spent per rendering phase, the number
+     * of rendered objects and the number of bytes written are sent in a response header and logged at debug level.
+     * Profiled responses are buffered before they are sent.
+     *
+     * @param profileHeader
+     *         name of the response header, e.g. {@link RenderingProfiler#DEFAULT_PROFILE_HEADER}, null to disable
+     *         profiling
+     */
+    public void setProfileHeader(String profileHeader) {
+        this.profileHeader = profileHeader;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException,
+            HttpMessageNotReadableException {
+        Instrumentation instrumentation = Instrumentations.get();
+        long start = instrumentation.startTimer();
+        try {
+            return super.readInternal(clazz, inputMessage);
+        } finally {
+            instrumentation.stopTimer(Instrumentation.CONVERTER_READ, HypermediaTypes.APPLICATION_JSONLD_STR, start);
+        }
+    }
+
+    @Override
+    protected void writeInternal(final Object object, HttpOutputMessage outputMessage) throws IOException,
+            HttpMessageNotWritableException {
+        Instrumentation instrumentation = Instrumentations.get();
+        long start = instrumentation.startTimer();
+        try {
+            RenderingProfiler.render(outputMessage, profileHeader, new RenderingProfiler.Rendering() {
+                @Override
+                public void render(HttpOutputMessage profiledMessage) throws IOException {
+                    writeMessage(object, profiledMessage);
+                }
+            });
+        } finally {
+            instrumentation.stopTimer(Instrumentation.CONVERTER_WRITE, HypermediaTypes.APPLICATION_JSONLD_STR, start);
+        }
+    }
+
+    private void writeMessage(Object object, HttpOutputMessage outputMessage) throws IOException,
+            HttpMessageNotWritableException {
+        PropertyProjection projection = RequestProjections.fromCurrentRequest(fieldsParam);
+        if (projection.includesAll()) {
+            super.writeInternal(object, outputMessage);
+            return;
+        }
+        ProjectionContextAttributes.setCurrentProjection(projection);
+        try {
+            super.writeInternal(object, outputMessage);
+        } finally {
+            ProjectionContextAttributes.setCurrentProjection(null);
+        }
+    }
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.spring.hydra;
+
+import org.springframework.util.Assert;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Read-only collection view of iterable content. Its size is determined by iterating over the content. The size of
+ * content backed by an iterator can only be determined by reading it, hence such content is buffered in memory on the
+ * first call to {@link #size()} or {@link #toArray()}, e.g. by converters which do not stream the items. Only the
+ * hydra serializers traverse it without buffering.
+ *
+ * @param <T>
+ *         content type
+ */
+class IterableContent<T> extends AbstractCollection<T> {
+
+    private final Iterable<T> content;
+
+    IterableContent(Iterable<T> content) {
+        this.content = content;
+    }
+
+    /**
+     * Adapts an iterator which can only be traversed once, e.g. a database cursor. The first item is buffered, so that
+     * the json-ld context can be derived from it before the items are written. The content can be traversed
+     * completely only once.
+     *
+     * @param iterator
+     *         to adapt
+     * @param <T>
+     *         content type
+     * @return iterable
+     */
+    static <T> Iterable<T> once(Iterator<T> iterator) {
+        Assert.notNull(iterator, "content must not be null");
+        return new OneShotIterable<T>(iterator);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return content.iterator();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !content.iterator()
+                .hasNext();
+    }
+
+    @Override
+    public int size() {
+        if (content instanceof OneShotIterable) {
+            return ((OneShotIterable<T>) content).buffer()
+                    .size();
+        }
+        int size = 0;
+        for (Iterator<T> it = content.iterator(); it.hasNext(); it.next()) {
+            size++;
+        }
+        return size;
+    }
+
+    private static class OneShotIterable<T> implements Iterable<T> {
+
+        private final Iterator<T> source;
+        private boolean headFetched;
+        private T head;
+        private boolean hasHead;
+        private boolean consumed;
+        private List<T> buffered;
+
+        OneShotIterable(Iterator<T> source) {
+            this.source = source;
+        }
+
+        /**
+         * Reads the remaining content into memory, so that it can be traversed again.
+         *
+         * @return buffered items
+         */
+        List<T> buffer() {
+            if (buffered == null) {
+                List<T> items = new ArrayList<T>();
+                for (Iterator<T> it = iterator(); it.hasNext(); ) {
+                    items.add(it.next());
+                }
+                buffered = Collections.unmodifiableList(items);
+            }
+            return buffered;
+        }
+
+        private void fetchHead() {
+            if (!headFetched) {
+                hasHead = source.hasNext();
+                head = hasHead ? source.next() : null;
+                headFetched = true;
+            }
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            if (buffered != null) {
+                return buffered.iterator();
+            }
+            if (consumed) {
+                throw new IllegalStateException("content backed by an iterator can only be traversed once");
+            }
+            return new Iterator<T>() {
+                private boolean headReturned;
+
+                @Override
+                public boolean hasNext() {
+                    fetchHead();
+                    if (!headReturned) {
+                        return hasHead;
+                    }
+                    return source.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    fetchHead();
+                    if (!headReturned) {
+                        if (!hasHead) {
+                            throw new NoSuchElementException();
+                        }
+                        headReturned = true;
+                        return head;
+                    }
+                    consumed = true;
+                    // the head is no longer needed once the source is traversed beyond it
+                    head = null;
+                    return source.next();
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.spring.hydra;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.Resources;
+import org.springframework.util.Assert;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * Resources whose content is backed by an Iterable or Iterator rather than a collection copy, e.g. for exports of
+ * large result sets. {@link IterableResourcesSerializer} writes the hydra:member items while iterating, so the
+ * collection is never held in memory as a whole. The json-ld context may be derived from the first item before the
+ * items are written, hence iterable content must allow more than one iteration. Iterator content is traversed only
+ * once.
+ *
+ * @param <T>
+ *         content type
+ */
+public class IterableResources<T> extends Resources<T> {
+
+    private final Iterable<T> content;
+
+    /**
+     * Creates resources with iterable content.
+     *
+     * @param content
+     *         must not be null
+     * @param links
+     *         of the collection
+     */
+    public IterableResources(Iterable<T> content, Link... links) {
+        super(Collections.<T>emptyList(), links);
+        Assert.notNull(content, "content must not be null");
+        this.content = content;
+    }
+
+    /**
+     * Creates resources with content which can only be traversed once, e.g. a database cursor.
+     *
+     * @param content
+     *         must not be null
+     * @param links
+     *         of the collection
+     */
+    public IterableResources(Iterator<T> content, Link... links) {
+        this(IterableContent.once(content), links);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return content.iterator();
+    }
+
+    /**
+     * Gets a read-only view of the content. Its size is determined by iterating over the content, iterator content is
+     * buffered in memory when its size is requested.
+     *
+     * @return content view
+     */
+    @Override
+    public Collection<T> getContent() {
+        return new IterableContent<T>(content);
+    }
+}
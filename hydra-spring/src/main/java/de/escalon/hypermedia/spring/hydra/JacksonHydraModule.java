@@ -22,6 +22,7 @@ import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
 import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
 import de.escalon.hypermedia.affordance.TypedResource;
 import de.escalon.hypermedia.hydra.serialize.JacksonHydraSerializer;
+import de.escalon.hypermedia.hydra.serialize.LdContextWriter;
 import de.escalon.hypermedia.hydra.serialize.ProxyUnwrapper;
 import org.springframework.hateoas.PagedResources;
 import org.springframework.hateoas.Resource;
@@ -35,21 +36,41 @@ import org.springframework.hateoas.Resources;
 public class JacksonHydraModule extends SimpleModule {
 
     private ProxyUnwrapper proxyUnwrapper;
+    private LdContextWriter ldContextWriter;
+    private boolean compact;
 
     public JacksonHydraModule() {
         this(null);
     }
 
     public JacksonHydraModule(ProxyUnwrapper proxyUnwrapper) {
+        this(proxyUnwrapper, false);
+    }
+
+    /**
+     * Creates module which optionally writes compact json-ld for machine clients.
+     *
+     * @param proxyUnwrapper
+     *         to unwrap proxified beans, may be null
+     * @param compact
+     *         true to write the exposed iris of bean properties as keys, without the terms which would map the
+     *         property names
+     * @see JacksonHydraSerializer#JacksonHydraSerializer(BeanSerializerBase, ProxyUnwrapper, LdContextWriter, boolean)
+     */
+    public JacksonHydraModule(ProxyUnwrapper proxyUnwrapper, boolean compact) {
         super("json-hydra-module", new Version(1, 0, 0, null, "de.escalon.hypermedia", "hydra-spring"));
         this.proxyUnwrapper = proxyUnwrapper;
+        this.compact = compact;
+        this.ldContextWriter = new LdContextWriter(proxyUnwrapper);
         setMixInAnnotation(ResourceSupport.class, ResourceSupportMixin.class);
         setMixInAnnotation(Resources.class, ResourcesMixin.class);
         setMixInAnnotation(PagedResources.class, PagedResourcesMixin.class);
         setMixInAnnotation(Resource.class, ResourceMixin.class);
         setMixInAnnotation(TypedResource.class, TypedResourceMixin.class);
         addSerializer(Resource.class, new ResourceSerializer());
-        addSerializer(PagedResources.class, new PagedResourcesSerializer(proxyUnwrapper));
+        addSerializer(PagedResources.class, new PagedResourcesSerializer(proxyUnwrapper, ldContextWriter));
+        addSerializer(CursorResources.class, new CursorResourcesSerializer(proxyUnwrapper, ldContextWriter));
+        addSerializer(IterableResources.class, new IterableResourcesSerializer(proxyUnwrapper, ldContextWriter));
 
     }
 
@@ -65,7 +86,7 @@ public class JacksonHydraModule extends SimpleModule {
 
                 if (serializer instanceof BeanSerializerBase) {
                     JacksonHydraSerializer jacksonHydraSerializer = new JacksonHydraSerializer(
-                            (BeanSerializerBase) serializer, proxyUnwrapper);
+                            (BeanSerializerBase) serializer, proxyUnwrapper, ldContextWriter, compact);
                     return jacksonHydraSerializer;
                 } else {
                     return serializer;
@@ -5,19 +5,22 @@ import de.escalon.hypermedia.affordance.ActionInputParameter;
 import de.escalon.hypermedia.hydra.mapping.Expose;
 import de.escalon.hypermedia.hydra.serialize.LdContextFactory;
 import de.escalon.hypermedia.hydra.serialize.MixinSource;
-import de.escalon.hypermedia.spring.DocumentationProvider;
 import de.escalon.hypermedia.spring.SpringActionInputParameter;
+import de.escalon.hypermedia.spring.StaticDocumentationProvider;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * Created by Dietrich on 05.04.2015.
  */
-public class JsonLdDocumentationProvider implements DocumentationProvider {
+public class JsonLdDocumentationProvider implements StaticDocumentationProvider {
+
+    private static final Pattern ABSOLUTE_URL = Pattern.compile("http(s)?://.+");
 
     private LdContextFactory ldContextFactory = new LdContextFactory();
 
@@ -35,12 +38,12 @@ public class JsonLdDocumentationProvider implements DocumentationProvider {
         if (content == null) {
             if (parameter instanceof SpringActionInputParameter) {
                 Class<?> clazz = ((SpringActionInputParameter) parameter).getDeclaringClass();
-                ret = getExposedUrl(parameter.getParameterName(), vocabFromClass(clazz), termsFromClazz(clazz), expose);
+                ret = getExposedUrl(parameter.getParameterName(), expose, null, clazz);
             } else {
                 ret = null;
             }
         } else {
-            ret = getExposedUrl(parameter.getParameterName(), vocabFromBean(content), termsFromBean(content), expose);
+            ret = getExposedUrl(parameter.getParameterName(), expose, content, null);
         }
         return ret;
     }
@@ -52,12 +55,28 @@ public class JsonLdDocumentationProvider implements DocumentationProvider {
 //        final Class<?> mixin = provider.getConfig()
 //                .findMixInClassFor(bean.getClass());
 //        final Expose mixinExpose = findAnnotation(mixin, Expose.class);
-        return getExposedUrl(field.getName(), vocabFromBean(content), termsFromBean(content), expose);
+        return getExposedUrl(field.getName(), expose, content, null);
+    }
+
+    @Override
+    public String getDocumentationUrlForType(Field field, Class<?> contentType) {
+        final Expose expose = AnnotationUtils.findAnnotation(field, Expose.class);
+        return getExposedUrl(field.getName(), expose, null, contentType);
     }
 
     @Override
     public String getDocumentationUrl(Method method, Object content) {
-        final Expose expose = AnnotationUtils.findAnnotation(method, Expose.class);
+        return getExposedUrl(getPropertyName(method), AnnotationUtils.findAnnotation(method, Expose.class), content,
+                null);
+    }
+
+    @Override
+    public String getDocumentationUrlForType(Method method, Class<?> contentType) {
+        return getExposedUrl(getPropertyName(method), AnnotationUtils.findAnnotation(method, Expose.class), null,
+                contentType);
+    }
+
+    private String getPropertyName(Method method) {
         // TODO can we support Mixins from here?
 //        final Class<?> mixin = provider.getConfig()
 //                .findMixInClassFor(bean.getClass());
@@ -69,7 +88,7 @@ public class JsonLdDocumentationProvider implements DocumentationProvider {
         } else {
             propertyName = StringUtils.uncapitalize(StringUtils.removeStart(methodName, "is"));
         }
-        return getExposedUrl(propertyName, vocabFromBean(content), termsFromBean(content), expose);
+        return propertyName;
     }
 
     @Override
@@ -79,11 +98,21 @@ public class JsonLdDocumentationProvider implements DocumentationProvider {
 //        final Class<?> mixin = provider.getConfig()
 //                .findMixInClassFor(bean.getClass());
 //        final Expose mixinExpose = findAnnotation(mixin, Expose.class);
-        return getExposedUrl(clazz.getSimpleName(), vocabFromBean(content), termsFromBean(content), expose);
+        return getExposedUrl(clazz.getSimpleName(), expose, content, null);
+    }
+
+    @Override
+    public String getDocumentationUrlForType(Class<?> clazz, Class<?> contentType) {
+        final Expose expose = AnnotationUtils.findAnnotation(clazz, Expose.class);
+        return getExposedUrl(clazz.getSimpleName(), expose, null, contentType);
     }
 
+    /**
+     * Resolves the exposed or plain name against the vocab and terms of the given class or, if there is no class, of
+     * the content. Vocab and terms are only computed if the name requires them.
+     */
     @Nullable
-    private String getExposedUrl(String plainName, String vocab, Map<String, Object> terms, Expose expose) {
+    private String getExposedUrl(String plainName, Expose expose, Object content, Class<?> clazz) {
         final String name;
         if (expose != null) {
             name = expose.value(); // expose is better than Java name
@@ -92,12 +121,13 @@ public class JsonLdDocumentationProvider implements DocumentationProvider {
         }
 
         String url;
-        if (name.matches("http(s)?://.+")) {
+        if (ABSOLUTE_URL.matcher(name)
+                .matches()) {
             url = name;
         } else if (name.contains(":")) {
-            url = resolveCurie(terms, name);
+            url = resolveCurie(clazz != null ? termsFromClazz(clazz) : termsFromBean(content), name);
         } else {
-            url = makeVocabUrl(vocab, name);
+            url = makeVocabUrl(clazz != null ? vocabFromClass(clazz) : vocabFromBean(content), name);
         }
         return url;
     }
@@ -126,7 +156,7 @@ public class JsonLdDocumentationProvider implements DocumentationProvider {
         if (content == null) {
             ret = null;
         } else {
-            ret = getExposedUrl(name, vocabFromBean(content), termsFromBean(content), null);
+            ret = getExposedUrl(name, null, content, null);
         }
         return ret;
     }
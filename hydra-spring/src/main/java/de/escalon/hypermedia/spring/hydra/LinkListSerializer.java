@@ -27,6 +27,9 @@ import de.escalon.hypermedia.hydra.serialize.JacksonHydraSerializer;
 import de.escalon.hypermedia.hydra.serialize.JsonLdKeywords;
 import de.escalon.hypermedia.hydra.serialize.LdContext;
 import de.escalon.hypermedia.hydra.serialize.LdContextFactory;
+import de.escalon.hypermedia.instrument.Instrumentation;
+import de.escalon.hypermedia.instrument.Instrumentations;
+import de.escalon.hypermedia.instrument.RenderingProfile;
 import de.escalon.hypermedia.spring.SpringActionInputParameter;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.Nullable;
@@ -68,6 +71,9 @@ public class LinkListSerializer extends StdSerializer<List<Link>> {
     public void serialize(List<Link> links, JsonGenerator jgen,
                           SerializerProvider serializerProvider) throws IOException {
 
+        Instrumentation instrumentation = Instrumentations.get();
+        long start = instrumentation.startTimer();
+        RenderingProfile.Phase previousPhase = RenderingProfile.startPhase(RenderingProfile.Phase.LINKS);
         try {
             Collection<Link> simpleLinks = new ArrayList<Link>();
             Collection<Affordance> affordances = new ArrayList<Affordance>();
@@ -229,6 +235,9 @@ public class LinkListSerializer extends StdSerializer<List<Link>> {
             }
         } catch (IntrospectionException e) {
             throw new RuntimeException(e);
+        } finally {
+            RenderingProfile.endPhase(previousPhase);
+            instrumentation.stopTimer(Instrumentation.LINK_SERIALIZATION, null, start);
         }
     }
 
@@ -664,11 +673,13 @@ public class LinkListSerializer extends StdSerializer<List<Link>> {
 
     private void writeScalarValue(JsonGenerator jgen, Object possibleValue,
                                   Class<?> valueType) throws IOException {
-        if (Number.class.isAssignableFrom(valueType)) {
-            jgen.writeNumber(possibleValue.toString());
-        } else if (Boolean.class.isAssignableFrom(valueType)) {
-            jgen.writeBoolean((Boolean) possibleValue);
-        } else if (Enum.class.isAssignableFrom(valueType)) {
+        ScalarWriter scalarWriter = ScalarWriter.forType(valueType);
+        if (scalarWriter == null) {
+            scalarWriter = ScalarWriter.forType(possibleValue.getClass());
+        }
+        if (scalarWriter != null) {
+            scalarWriter.write(jgen, possibleValue);
+        } else if (possibleValue instanceof Enum) {
             jgen.writeString(((Enum) possibleValue).name());
         } else {
             jgen.writeString(possibleValue.toString());
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+package de.escalon.hypermedia.spring.hydra;
+
+import com.fasterxml.jackson.databind.cfg.ContextAttributes;
+import de.escalon.hypermedia.PropertyProjection;
+import de.escalon.hypermedia.hydra.serialize.JacksonHydraSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared serialization attributes which supply the {@link PropertyProjection} of the response currently written on
+ * this thread as {@link JacksonHydraSerializer#KEY_PROPERTY_PROJECTION}, so that the projection reaches the
+ * serializers through the regular write path of {@link HydraMessageConverter}. Per-call attributes take precedence.
+ */
+class ProjectionContextAttributes extends ContextAttributes.Impl {
+
+    private static final ThreadLocal<PropertyProjection> CURRENT_PROJECTION = new ThreadLocal<PropertyProjection>();
+
+    ProjectionContextAttributes() {
+        super(new HashMap<Object, Object>());
+    }
+
+    private ProjectionContextAttributes(Map<Object, Object> shared, Map<Object, Object> nonShared) {
+        super(shared, nonShared);
+    }
+
+    /**
+     * Sets projection of the response written on the current thread.
+     *
+     * @param projection
+     *         to apply, null to remove
+     */
+    static void setCurrentProjection(PropertyProjection projection) {
+        if (projection == null) {
+            CURRENT_PROJECTION.remove();
+        } else {
+            CURRENT_PROJECTION.set(projection);
+        }
+    }
+
+    @Override
+    public Object getAttribute(Object key) {
+        Object ret = super.getAttribute(key);
+        if (ret == null && JacksonHydraSerializer.KEY_PROPERTY_PROJECTION.equals(key)) {
+            ret = CURRENT_PROJECTION.get();
+        }
+        return ret;
+    }
+
+    @Override
+    public ContextAttributes withSharedAttribute(Object key, Object value) {
+        Map<Object, Object> shared = new HashMap<Object, Object>(_shared);
+        shared.put(key, value);
+        return new ProjectionContextAttributes(shared, null);
+    }
+
+    @Override
+    public ContextAttributes withSharedAttributes(Map<Object, Object> shared) {
+        return new ProjectionContextAttributes(shared == null ? new HashMap<Object, Object>() : shared, null);
+    }
+
+    @Override
+    public ContextAttributes withoutSharedAttribute(Object key) {
+        Map<Object, Object> shared = new HashMap<Object, Object>(_shared);
+        shared.remove(key);
+        return new ProjectionContextAttributes(shared, null);
+    }
+
+    @Override
+    protected ContextAttributes nonSharedInstance(Object key, Object value) {
+        Map<Object, Object> nonShared = new HashMap<Object, Object>();
+        nonShared.put(key, value == null ? NULL_SURROGATE : value);
+        return new ProjectionContextAttributes(_shared, nonShared);
+    }
+}
@@ -14,13 +14,12 @@
 package de.escalon.hypermedia.spring.hydra;
 
 import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonSerializer;
-import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.SerializerProvider;
-import com.fasterxml.jackson.databind.ser.BeanSerializerFactory;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
-import com.fasterxml.jackson.databind.util.NameTransformer;
 import org.springframework.hateoas.Resource;
 
 import java.io.IOException;
@@ -28,23 +27,34 @@ import java.io.IOException;
 /**
  * Serializer for json-ld representation of Resource. Created by dschulten on 15.09.2014.
  */
-public class ResourceSerializer extends StdSerializer<Resource> {
+public class ResourceSerializer extends StdSerializer<Resource> implements ContextualSerializer {
+
+    private final BeanSerializerCache beanSerializers;
 
     public ResourceSerializer() {
+        this(null);
+    }
+
+    private ResourceSerializer(BeanSerializerCache beanSerializers) {
         super(Resource.class);
+        this.beanSerializers = beanSerializers;
     }
 
     @Override
-    public void serialize(Resource value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+    public JsonSerializer<?> createContextual(SerializerProvider prov, BeanProperty property) throws
+            JsonMappingException {
+        // the registered instance may be shared by several mappers, delegates are cached per contextual instance
+        return beanSerializers == null ? new ResourceSerializer(new BeanSerializerCache()) : this;
+    }
 
-        final SerializationConfig config = provider.getConfig();
-        JavaType javaType = config.constructType(value.getClass());
+    @Override
+    public void serialize(Resource value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
 
-        JsonSerializer<Object> serializer = BeanSerializerFactory.instance.createSerializer(provider, javaType);
+        BeanSerializerCache cache = beanSerializers == null ? new BeanSerializerCache() : beanSerializers;
+        JsonSerializer<Object> serializer = cache.getUnwrappingSerializer(provider, value.getClass());
 
         jgen.writeStartObject();
-        serializer.unwrappingSerializer(NameTransformer.NOP)
-                .serialize(value, jgen, provider);
+        serializer.serialize(value, jgen, provider);
 
         jgen.writeEndObject();
 
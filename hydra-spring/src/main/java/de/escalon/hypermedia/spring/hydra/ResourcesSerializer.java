@@ -14,11 +14,11 @@
 package de.escalon.hypermedia.spring.hydra;
 
 import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonSerializer;
-import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.SerializerProvider;
-import com.fasterxml.jackson.databind.ser.BeanSerializerFactory;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 import org.springframework.hateoas.Resources;
 
@@ -28,20 +28,31 @@ import java.io.IOException;
  * Serializer for Resources. Created by dschulten on 15.09.2014.
  */
 @SuppressWarnings("unused")
-public class ResourcesSerializer extends StdSerializer<Resources> {
+public class ResourcesSerializer extends StdSerializer<Resources> implements ContextualSerializer {
+
+    private final BeanSerializerCache beanSerializers;
 
     @SuppressWarnings("unused")
     public ResourcesSerializer() {
+        this(null);
+    }
+
+    private ResourcesSerializer(BeanSerializerCache beanSerializers) {
         super(Resources.class);
+        this.beanSerializers = beanSerializers;
     }
 
     @Override
-    public void serialize(Resources value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+    public JsonSerializer<?> createContextual(SerializerProvider prov, BeanProperty property) throws
+            JsonMappingException {
+        return beanSerializers == null ? new ResourcesSerializer(new BeanSerializerCache()) : this;
+    }
 
-        final SerializationConfig config = provider.getConfig();
-        JavaType javaType = config.constructType(value.getClass());
+    @Override
+    public void serialize(Resources value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
 
-        JsonSerializer<Object> serializer = BeanSerializerFactory.instance.createSerializer(provider, javaType);
+        BeanSerializerCache cache = beanSerializers == null ? new BeanSerializerCache() : beanSerializers;
+        JsonSerializer<Object> serializer = cache.getSerializer(provider, value.getClass());
 
         jgen.writeStartObject();
         serializer.serialize(value, jgen, provider);
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+package de.escalon.hypermedia.spring.hydra;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.hateoas.Link;
+
+import java.util.Arrays;
+
+import static com.jayway.jsonassert.JsonAssert.with;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertFalse;
+
+public class CursorResourcesSerializerTest {
+
+    private ObjectMapper mapper;
+
+    public static class Person {
+        public String name;
+
+        public Person(String name) {
+            this.name = name;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        mapper = new ObjectMapper();
+        mapper.registerModule(new JacksonHydraModule());
+    }
+
+    @Test
+    public void derivesViewLinksFromCursors() throws Exception {
+        CursorResources<Person> page = new CursorResources<Person>(Arrays.asList(new Person("a"),
+                new Person("b")), new CursorResources.CursorMetadata("after", "b+1", "a"),
+                new Link("http://example.com/people?size=2&after=a0"));
+
+        String json = mapper.writeValueAsString(page);
+
+        with(json).assertThat("$.@type", equalTo("hydra:Collection"));
+        with(json).assertThat("$.@id", equalTo("http://example.com/people?size=2&after=a0"));
+        with(json).assertThat("$.['hydra:member']", hasSize(2));
+        with(json).assertThat("$.['hydra:view']['hydra:next']",
+                equalTo("http://example.com/people?size=2&after=b%2B1"));
+        with(json).assertThat("$.['hydra:view']['hydra:previous']",
+                equalTo("http://example.com/people?size=2&after=a"));
+        assertFalse(mapper.readTree(json)
+                .has("hydra:totalItems"));
+    }
+
+    @Test
+    public void prefersExplicitLinksAndWritesTotalIfKnown() throws Exception {
+        CursorResources<Person> page = new CursorResources<Person>(Arrays.asList(new Person("a")),
+                new CursorResources.CursorMetadata("after", "x", null, 1000L),
+                new Link("http://example.com/people"), new Link("http://example.com/people/next", Link.REL_NEXT));
+
+        String json = mapper.writeValueAsString(page);
+
+        with(json).assertThat("$.['hydra:view']['hydra:next']", equalTo("http://example.com/people/next"));
+        assertFalse(mapper.readTree(json)
+                .get("hydra:view")
+                .has("hydra:previous"));
+        with(json).assertThat("$.['hydra:totalItems']", equalTo(1000));
+    }
+}
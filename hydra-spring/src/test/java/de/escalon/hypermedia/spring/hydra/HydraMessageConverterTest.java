@@ -14,6 +14,7 @@
 package de.escalon.hypermedia.spring.hydra;
 
 import de.escalon.hypermedia.spring.HypermediaTypes;
+import de.escalon.hypermedia.spring.RequestProjections;
 import de.escalon.hypermedia.spring.sample.test.DummyEventControllerExposed;
 import de.escalon.hypermedia.spring.sample.test.ReviewController;
 import org.junit.Before;
@@ -25,6 +26,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.AnnotationConfigWebContextLoader;
@@ -34,6 +37,8 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
@@ -41,6 +46,8 @@ import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExc
 
 import java.util.List;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
@@ -73,7 +80,9 @@ public class HydraMessageConverterTest {
         @Override
         public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
             super.configureMessageConverters(converters);
-            converters.add(new HydraMessageConverter());
+            HydraMessageConverter hydraMessageConverter = new HydraMessageConverter();
+            hydraMessageConverter.setFieldsParam(RequestProjections.DEFAULT_FIELDS_PARAM);
+            converters.add(hydraMessageConverter);
         }
 
         @Override
@@ -184,6 +193,22 @@ public class HydraMessageConverterTest {
                 .getContentAsString());
     }
 
+    @Test
+    public void convertsResourcesWithProjectedProperties() throws Exception {
+        MvcResult result = this.mockMvc.perform(MockMvcRequestBuilders.get("/events?fields=performer")
+                .accept(HypermediaTypes.APPLICATION_JSONLD))
+                .andExpect(MockMvcResultMatchers.status()
+                        .isOk())
+                .andExpect(jsonPath("$.@type").value("hydra:Collection"))
+                .andExpect(jsonPath("$.['hydra:member'][0].@type").value("Event"))
+                .andExpect(jsonPath("$.['hydra:member'][0].@id").value("http://localhost/events/1"))
+                .andExpect(jsonPath("$.['hydra:member'][0].performer").value("Walk off the Earth"))
+                .andExpect(jsonPath("$.['hydra:member'][0].workPerformed").doesNotExist())
+                .andReturn();
+        LOG.debug(result.getResponse()
+                .getContentAsString());
+    }
+
     @Test
     public void convertsLinkToPost() throws Exception {
         MvcResult result = this.mockMvc.perform(MockMvcRequestBuilders.get("/events")
@@ -348,5 +373,51 @@ public class HydraMessageConverterTest {
                 .getContentAsString());
     }
 
+    public static class Person {
 
+        public String getName() {
+            return "Dietrich";
+        }
+
+        public int getAge() {
+            return 42;
+        }
+    }
+
+    @Test
+    public void writesJsonPrefixWithProjectedProperties() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameter("fields", "name");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            HydraMessageConverter converter = new HydraMessageConverter();
+            converter.setFieldsParam(RequestProjections.DEFAULT_FIELDS_PARAM);
+            converter.setJsonPrefix(")]}', ");
+            MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+            converter.write(new Person(), HypermediaTypes.APPLICATION_JSONLD, outputMessage);
+
+            String body = outputMessage.getBodyAsString();
+            assertTrue(body, body.startsWith(")]}', {"));
+            assertTrue(body, body.contains("\"name\":\"Dietrich\""));
+            assertFalse(body, body.contains("age"));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    public void ignoresFieldsParameterByDefault() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameter("fields", "name");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+            new HydraMessageConverter().write(new Person(), HypermediaTypes.APPLICATION_JSONLD, outputMessage);
+
+            String body = outputMessage.getBodyAsString();
+            assertTrue(body, body.contains("\"age\":42"));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
 }
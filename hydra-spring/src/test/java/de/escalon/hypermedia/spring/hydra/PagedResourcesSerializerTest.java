@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+package de.escalon.hypermedia.spring.hydra;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.escalon.hypermedia.spring.HypermediaTypes;
+import de.escalon.hypermedia.spring.siren.SirenMessageConverter;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedResources;
+import org.springframework.hateoas.Resource;
+import org.springframework.hateoas.Resources;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PagedResourcesSerializerTest {
+
+    private ObjectMapper mapper;
+
+    public static class Person {
+        public String name;
+
+        public Person(String name) {
+            this.name = name;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        mapper = new ObjectMapper();
+        mapper.registerModule(new JacksonHydraModule());
+    }
+
+    private static Link[] pageLinks() {
+        return new Link[]{new Link("http://example.com/people?page=1"),
+                new Link("http://example.com/people?page=2", Link.REL_NEXT),
+                new Link("http://example.com/people?page=0", Link.REL_PREVIOUS),
+                new Link("http://example.com/people?page=0", Link.REL_FIRST),
+                new Link("http://example.com/people?page=4", Link.REL_LAST),
+                new Link("http://example.com/search", "search")};
+    }
+
+    private static List<Resource<Person>> people() {
+        return Arrays.asList(new Resource<Person>(new Person("a"), new Link("http://example.com/people/1")),
+                new Resource<Person>(new Person("b"), new Link("http://example.com/people/2")));
+    }
+
+    @Test
+    public void writesHydraCollectionWithPartialView() throws Exception {
+        PagedResources<Resource<Person>> page = new PagedResources<Resource<Person>>(people(),
+                new PagedResources.PageMetadata(2, 1, 10), pageLinks());
+
+        assertEquals("{\"@context\":{\"@vocab\":\"http://schema.org/\",\"hydra\":\"http://www.w3" +
+                ".org/ns/hydra/core#\"},\"@type\":\"hydra:Collection\",\"@id\":\"http://example.com/people?page=1\"," +
+                "\"urn:iana:link-relations:search\":{\"@id\":\"http://example.com/search\"}," +
+                "\"hydra:member\":[{\"@type\":\"Person\",\"name\":\"a\",\"@id\":\"http://example.com/people/1\"}," +
+                "{\"@type\":\"Person\",\"name\":\"b\",\"@id\":\"http://example.com/people/2\"}]," +
+                "\"hydra:totalItems\":10,\"hydra:view\":{\"@type\":\"hydra:PartialCollectionView\"," +
+                "\"hydra:next\":\"http://example.com/people?page=2\"," +
+                "\"hydra:previous\":\"http://example.com/people?page=0\"," +
+                "\"hydra:first\":\"http://example.com/people?page=0\"," +
+                "\"hydra:last\":\"http://example.com/people?page=4\"}}", mapper.writeValueAsString(page));
+    }
+
+    @Test
+    public void omitsMembersOfEmptyPage() throws Exception {
+        PagedResources<Person> page = new PagedResources<Person>(Collections.<Person>emptyList(),
+                new PagedResources.PageMetadata(2, 1, 0));
+
+        assertEquals("{\"@context\":{\"@vocab\":\"http://schema.org/\",\"hydra\":\"http://www.w3" +
+                ".org/ns/hydra/core#\"},\"@type\":\"hydra:Collection\",\"hydra:totalItems\":0," +
+                "\"hydra:view\":{\"@type\":\"hydra:PartialCollectionView\"}}", mapper.writeValueAsString(page));
+    }
+
+    @Test
+    public void writesIterableContentLikeCollectionContent() throws Exception {
+        final List<Resource<Person>> people = people();
+        Iterable<Resource<Person>> content = new Iterable<Resource<Person>>() {
+            @Override
+            public Iterator<Resource<Person>> iterator() {
+                return people.iterator();
+            }
+        };
+        PagedResources<Resource<Person>> iterablePage = new IterablePagedResources<Resource<Person>>(content,
+                new PagedResources.PageMetadata(2, 1, 10), pageLinks());
+        PagedResources<Resource<Person>> page = new PagedResources<Resource<Person>>(people,
+                new PagedResources.PageMetadata(2, 1, 10), pageLinks());
+
+        assertEquals(mapper.writeValueAsString(page), mapper.writeValueAsString(iterablePage));
+        assertEquals(2, iterablePage.getContent()
+                .size());
+    }
+
+    @Test
+    public void writesIteratorContentOnce() throws Exception {
+        PagedResources<Resource<Person>> iteratorPage = new IterablePagedResources<Resource<Person>>(people()
+                .iterator(), new PagedResources.PageMetadata(2, 1, 10), pageLinks());
+        PagedResources<Resource<Person>> page = new PagedResources<Resource<Person>>(people(),
+                new PagedResources.PageMetadata(2, 1, 10), pageLinks());
+
+        assertEquals(mapper.writeValueAsString(page), mapper.writeValueAsString(iteratorPage));
+        try {
+            mapper.writeValueAsString(iteratorPage);
+            fail("iterator content must not be traversed twice");
+        } catch (JsonMappingException e) {
+            assertTrue(e.getMessage(), e.getMessage()
+                    .contains("can only be traversed once"));
+        }
+    }
+
+    @Test
+    public void writesIterableResourcesWithoutView() throws Exception {
+        Resources<Resource<Person>> resources = new IterableResources<Resource<Person>>(people().iterator(),
+                new Link("http://example.com/people"));
+
+        assertEquals("{\"@context\":{\"@vocab\":\"http://schema.org/\",\"hydra\":\"http://www.w3" +
+                ".org/ns/hydra/core#\"},\"@type\":\"hydra:Collection\",\"@id\":\"http://example.com/people\"," +
+                "\"hydra:member\":[{\"@type\":\"Person\",\"name\":\"a\",\"@id\":\"http://example.com/people/1\"}," +
+                "{\"@type\":\"Person\",\"name\":\"b\",\"@id\":\"http://example.com/people/2\"}]}",
+                mapper.writeValueAsString(resources));
+    }
+
+    @Test
+    public void convertsIteratorContentToSiren() throws Exception {
+        Resources<Resource<Person>> resources = new IterableResources<Resource<Person>>(people().iterator(),
+                new Link("http://example.com/people"));
+
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        new SirenMessageConverter().write(resources, HypermediaTypes.SIREN_JSON, outputMessage);
+
+        assertEquals(2, resources.getContent()
+                .size());
+        JsonNode json = new ObjectMapper().readTree(outputMessage.getBodyAsString());
+        assertEquals(2, json.get("entities")
+                .size());
+        assertEquals("b", json.get("entities")
+                .get(1)
+                .get("properties")
+                .get("name")
+                .asText());
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia;
+
+import de.escalon.hypermedia.instrument.Instrumentations;
+import de.escalon.hypermedia.instrument.RenderingProfile;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Readable properties and public fields of a bean class, introspected once per class and shared by all converters
+ * which traverse beans. Getters for <code>class</code>, <code>links</code> and <code>id</code> are not rendered; public
+ * fields are only rendered if there is no bean property of the same name.
+ */
+public class BeanPlan {
+
+    static final Set<String> FILTER_RESOURCE_SUPPORT = new HashSet<String>(Arrays.asList("class", "links", "id"));
+
+    private static final ConcurrentMap<Class<?>, BeanPlan> PLANS = new ConcurrentHashMap<Class<?>, BeanPlan>();
+
+    private final List<BeanProperty> properties;
+    private final List<BeanProperty> fields;
+
+    /**
+     * Gets plan for the given bean class, introspecting the class on first use.
+     *
+     * @param beanType
+     *         to traverse
+     * @return plan, never null
+     */
+    public static BeanPlan forClass(Class<?> beanType) {
+        BeanPlan plan = PLANS.get(beanType);
+        Instrumentations.cacheAccess("beanPlans", plan != null);
+        if (plan == null) {
+            plan = new BeanPlan(beanType);
+            BeanPlan existing = PLANS.putIfAbsent(beanType, plan);
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+        return plan;
+    }
+
+    private BeanPlan(Class<?> beanType) {
+        Map<String, PropertyDescriptor> propertyDescriptors = PropertyUtils.getPropertyDescriptors(beanType);
+        List<BeanProperty> readableProperties = new ArrayList<BeanProperty>(propertyDescriptors.size());
+        for (PropertyDescriptor propertyDescriptor : propertyDescriptors.values()) {
+            String name = propertyDescriptor.getName();
+            Method readMethod = propertyDescriptor.getReadMethod();
+            if (readMethod != null && !FILTER_RESOURCE_SUPPORT.contains(name)) {
+                readableProperties.add(new BeanProperty(name, propertyDescriptor.getPropertyType(), readMethod,
+                        null));
+            }
+        }
+        List<BeanProperty> publicFields = new ArrayList<BeanProperty>();
+        for (Field field : beanType.getFields()) {
+            String name = field.getName();
+            if (!propertyDescriptors.containsKey(name)) {
+                publicFields.add(new BeanProperty(name, field.getType(), null, field));
+            }
+        }
+        this.properties = Collections.unmodifiableList(readableProperties);
+        this.fields = Collections.unmodifiableList(publicFields);
+    }
+
+    /**
+     * Readable bean properties in introspection order.
+     *
+     * @return properties
+     */
+    public List<BeanProperty> getProperties() {
+        return properties;
+    }
+
+    /**
+     * Public fields which are not shadowed by a bean property.
+     *
+     * @return fields
+     */
+    public List<BeanProperty> getFields() {
+        return fields;
+    }
+
+    /**
+     * Reads a bean property by its getter or a public field.
+     */
+    public static class BeanProperty {
+        private final String name;
+        private final Class<?> type;
+        private final Method readMethod;
+        private final Field field;
+
+        BeanProperty(String name, Class<?> type, Method readMethod, Field field) {
+            // public members of non-public classes are read from other packages, too
+            if (readMethod != null) {
+                ReflectionUtils.makeAccessible(readMethod);
+            } else {
+                ReflectionUtils.makeAccessible(field);
+            }
+            this.name = name;
+            this.type = type;
+            this.readMethod = readMethod;
+            this.field = field;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Declared type of the property.
+         *
+         * @return type
+         */
+        public Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * Getter or field, e.g. to look up documentation urls.
+         *
+         * @return member
+         */
+        public Member getMember() {
+            return readMethod != null ? readMethod : field;
+        }
+
+        public Method getReadMethod() {
+            return readMethod;
+        }
+
+        public Field getField() {
+            return field;
+        }
+
+        /**
+         * Reads property value.
+         *
+         * @param bean
+         *         to read from
+         * @return value
+         * @throws IllegalAccessException
+         *         if the getter or field is not accessible
+         * @throws InvocationTargetException
+         *         if the getter fails
+         */
+        public Object getValue(Object bean) throws IllegalAccessException, InvocationTargetException {
+            RenderingProfile.Phase previousPhase = RenderingProfile.startPhase(RenderingProfile.Phase.PROPERTIES);
+            try {
+                return readMethod != null ? readMethod.invoke(bean) : field.get(bean);
+            } finally {
+                RenderingProfile.endPhase(previousPhase);
+            }
+        }
+    }
+}
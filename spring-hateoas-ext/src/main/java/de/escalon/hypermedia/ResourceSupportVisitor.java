@@ -6,18 +6,72 @@ import java.util.Collection;
 import java.util.List;
 
 /**
- * Created by Dietrich on 07.05.2016.
+ * Receives the links, collections and properties of a resource from {@link ResourceTraversal}. Created by Dietrich on
+ * 07.05.2016.
  */
 public interface ResourceSupportVisitor {
+
+    /**
+     * Visits links of a resource, before its content.
+     *
+     * @param links
+     *         of the resource
+     * @return false to stop traversal of the resource
+     */
     boolean visitLinks(List<Link> links);
 
     boolean visitEnterCollection(Collection<?> collection);
 
+    /**
+     * Visits an item of a collection, before the item is traversed.
+     *
+     * @param item
+     *         of the collection, may be null
+     * @return false to skip the item
+     */
+    boolean visitEnterItem(Object item);
+
+    boolean visitLeaveItem(Object item);
+
     boolean visitLeaveCollection(Collection<?> collection);
 
-    boolean visitEnterProperty(String name, Class<?> propertyType, Object value);
+    /**
+     * Visits a bean property, public field or map entry before its content.
+     *
+     * @param name
+     *         of the property
+     * @param propertyType
+     *         declared type of the property, null for map entries
+     * @param content
+     *         property value, may be null
+     * @return false to skip the property
+     */
+    boolean visitEnterProperty(String name, Class<?> propertyType, Object content);
+
+    /**
+     * Visits scalar property value.
+     *
+     * @param name
+     *         of the property
+     * @param propertyType
+     *         declared type of the property, null for map entries
+     * @param value
+     *         scalar value as string or {@link ResourceTraversal#NULL_VALUE}
+     * @return false to stop traversal of the owning object
+     */
+    boolean visitProperty(String name, Class<?> propertyType, Object value);
 
-    boolean visitProperty(String name, Object value, Object o);
+    boolean visitLeaveProperty(String name, Class<?> propertyType, Object content);
 
-    boolean visitLeaveProperty(String name, Class<?> propertyType, Object value);
+    /**
+     * Visits a bean which is not traversed, because it is already being traversed on the current path or because
+     * the traversal budget is exhausted.
+     *
+     * @param bean
+     *         not traversed
+     * @param id
+     *         href of the self link of the bean, may be null
+     * @see TraversalGuard
+     */
+    void visitReference(Object bean, String id);
 }
@@ -1,180 +1,187 @@
 package de.escalon.hypermedia;
 
+import de.escalon.hypermedia.BeanPlan.BeanProperty;
 import de.escalon.hypermedia.affordance.DataType;
 import org.springframework.hateoas.Resource;
 import org.springframework.hateoas.ResourceSupport;
 import org.springframework.hateoas.Resources;
+import org.springframework.util.Assert;
 
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.Field;
-import java.util.*;
+import java.util.Collection;
+import java.util.Map;
 
 /**
- * Created by Dietrich on 07.05.2016.
+ * Traverses resources, collections, maps and beans and reports their links and properties to a {@link
+ * ResourceSupportVisitor}. Bean properties are read according to the {@link BeanPlan} of the bean class. Every
+ * traversal is bounded by a {@link TraversalGuard}, beans which are already on the traversal path or exceed the
+ * budget are reported as references. Created by Dietrich on 07.05.2016.
  */
 public class ResourceTraversal {
 
-    static final Set<String> FILTER_RESOURCE_SUPPORT = new HashSet<String>(Arrays.asList("class", "links", "id"));
+    private int maxDepth = TraversalGuard.DEFAULT_MAX_DEPTH;
+    private int maxNodes = TraversalGuard.DEFAULT_MAX_NODES;
 
     static class NullValue {
 
     }
+
     public static final NullValue NULL_VALUE = new NullValue();
 
 
     public void traverseResource(ResourceSupportVisitor visitor, Object object) {
-        Set<String> filtered = FILTER_RESOURCE_SUPPORT;
+        traverseResource(visitor, object, PropertyProjection.ALL);
+    }
+
+    /**
+     * Traverses the properties of the given object which are selected by the projection. Properties which are not
+     * selected are neither read nor reported to the visitor.
+     *
+     * @param visitor
+     *         to report to
+     * @param object
+     *         to traverse
+     * @param projection
+     *         selected properties
+     */
+    public void traverseResource(ResourceSupportVisitor visitor, Object object, PropertyProjection projection) {
+        traverseResource(visitor, object, projection, new TraversalGuard(maxDepth, maxNodes));
+    }
+
+    private void traverseResource(ResourceSupportVisitor visitor, Object object, PropertyProjection projection,
+                                  TraversalGuard guard) {
         if (object == null) {
             return;
         }
 
         try {
-            // TODO: move all returns to else branch of property descriptor handling
             if (object instanceof Resource) {
                 Resource<?> resource = (Resource<?>) object;
-
-                if(!visitor.visitLinks(resource.getLinks())) {
-                    return;
+                if (visitor.visitLinks(resource.getLinks())) {
+                    traverseResource(visitor, resource.getContent(), projection, guard);
                 }
-                traverseResource(visitor, resource.getContent());
-                return;
             } else if (object instanceof Resources) {
                 Resources<?> resources = (Resources<?>) object;
-                if(!visitor.visitLinks(resources.getLinks())) {
-                    return;
-                }
-                traverseResource(visitor, resources.getContent());
-                return;
-            } else if (object instanceof ResourceSupport) {
-                ResourceSupport resource = (ResourceSupport) object;
-                if(!visitor.visitLinks(resource.getLinks())) {
-                    return;
+                if (visitor.visitLinks(resources.getLinks())) {
+                    traverseResource(visitor, resources.getContent(), projection, guard);
                 }
-                // wrap object attributes below to avoid endless loop
             } else if (object instanceof Collection) {
-                Collection<?> collection = (Collection<?>) object;
-                if(!visitor.visitEnterCollection(collection)) {
-                    return;
-                }
-                for (Object item : collection) {
-                    traverseResource(visitor, item);
+                traverseCollection(visitor, (Collection<?>) object, projection, guard);
+            } else if (!guard.enter(object)) {
+                visitor.visitReference(object, TraversalGuard.getId(object));
+            } else {
+                try {
+                    // wrap object attributes to avoid endless loop
+                    if (!(object instanceof ResourceSupport) || visitor.visitLinks(((ResourceSupport) object)
+                            .getLinks())) {
+                        traverseObject(visitor, object, projection, guard);
+                    }
+                } finally {
+                    guard.leave(object);
                 }
-                if(!visitor.visitLeaveCollection(collection)) {
+            }
+        } catch (Exception ex) {
+            throw new RuntimeException("failed to transform object " + object, ex);
+        }
+    }
+
+    private void traverseCollection(ResourceSupportVisitor visitor, Collection<?> collection,
+                                    PropertyProjection projection, TraversalGuard guard) {
+        if (!visitor.visitEnterCollection(collection)) {
+            return;
+        }
+        for (Object item : collection) {
+            if (visitor.visitEnterItem(item)) {
+                traverseResource(visitor, item, projection, guard);
+                if (!visitor.visitLeaveItem(item)) {
                     return;
                 }
+            }
+        }
+        visitor.visitLeaveCollection(collection);
+    }
+
+    private void traverseObject(ResourceSupportVisitor visitor, Object object, PropertyProjection projection,
+                                TraversalGuard guard) throws Exception {
+        if (object instanceof Map) {
+            traverseMap(visitor, (Map<?, ?>) object, projection, guard);
+        } else {
+            traverseBean(visitor, object, projection, guard);
+        }
+    }
+
+    private void traverseMap(ResourceSupportVisitor visitor, Map<?, ?> map, PropertyProjection projection,
+                             TraversalGuard guard) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            String key = entry.getKey()
+                    .toString();
+            if (projection.includes(key) && !traverseProperty(visitor, key, null, entry.getValue(),
+                    projection.forProperty(key), guard)) {
                 return;
             }
-            if (object instanceof Map) {
-                Map<?, ?> map = (Map<?, ?>) object;
-                for (Map.Entry<?, ?> entry : map.entrySet()) {
-                    String key = entry.getKey()
-                            .toString();
-                    Object content = entry.getValue();
-                    Object value = getContentAsScalarValue(content);
-//                    UberNode entryNode = new UberNode();
-//                    objectNode.addData(entryNode);
-//                    entryNode.setName(key);
-//                    if (value != null) {
-//                        entryNode.setValue(value);
-//                    } else {
-//                        traverseResource(visitor, content);
-//                    }
-
-                    Class<?> type = content != null ? content.getClass() : null;
-                    if(!visitor.visitEnterProperty(key, type, value)) {
-                        return;
-                    }
-                    if (value != null) {
-                        // for each scalar property of a simple bean, add valuepair nodes to data
-                        if(!visitor.visitProperty(key, type, value)) {
-                            return;
-                        }
-                    } else {
-                        traverseResource(visitor, content);
-                    }
-                    if(!visitor.visitLeaveProperty(key, type, value)) {
-                        return;
-                    }
-                }
-            } else {
-                Map<String, PropertyDescriptor> propertyDescriptors = PropertyUtils.getPropertyDescriptors(object);
-                for (PropertyDescriptor propertyDescriptor : propertyDescriptors.values()) {
-                    String name = propertyDescriptor.getName();
-                    if (filtered.contains(name)) {
-                        continue;
-                    }
+        }
+    }
 
-//                    UberNode propertyNode = new UberNode();
-                    Object content = propertyDescriptor.getReadMethod()
-                            .invoke(object);
-//
-//                    if (isEmptyCollectionOrMap(content, propertyDescriptor.getPropertyType())) {
-//                        continue;
-//                    }
-//
-                    Object value = getContentAsScalarValue(content);
-//                    propertyNode.setName(name);
-//                    objectNode.addData(propertyNode);
-                    Class<?> propertyType = propertyDescriptor.getPropertyType();
-                    if(!visitor.visitEnterProperty(name, propertyType, value)) {
-                        return;
-                    }
-                    if (value != null) {
-                        // for each scalar property of a simple bean, add valuepair nodes to data
-                        if(!visitor.visitProperty(name, propertyType, value)) {
-                            return;
-                        }
-                    } else {
-                        traverseResource(visitor, content);
-                    }
-                    if(!visitor.visitLeaveProperty(name, propertyType, value)) {
-                        return;
-                    }
-                }
+    private void traverseBean(ResourceSupportVisitor visitor, Object bean, PropertyProjection projection,
+                              TraversalGuard guard) throws Exception {
+        BeanPlan plan = BeanPlan.forClass(bean.getClass());
+        for (BeanProperty property : plan.getProperties()) {
+            if (!traverseBeanProperty(visitor, bean, property, projection, guard)) {
+                return;
+            }
+        }
+        for (BeanProperty field : plan.getFields()) {
+            if (!traverseBeanProperty(visitor, bean, field, projection, guard)) {
+                return;
+            }
+        }
+    }
 
-                Field[] fields = object.getClass()
-                        .getFields();
-                for (Field field : fields) {
-                    String name = field.getName();
-                    if (!propertyDescriptors.containsKey(name)) {
-                        Object content = field.get(object);
-                        Class<?> type = field.getType();
-//                        if (isEmptyCollectionOrMap(content, type)) {
-//                            continue;
-//                        }
-//                        UberNode propertyNode = new UberNode();
-//
-                        Object value = getContentAsScalarValue(content);
-//                        propertyNode.setName(name);
-//                        objectNode.addData(propertyNode);
-//                        if (value != null) {
-//                            // for each scalar property of a simple bean, add valuepair nodes to data
-//                            propertyNode.setValue(value);
-//                        } else {
-//                            toUberData(propertyNode, content);
-//                        }
-
-                        if(!visitor.visitEnterProperty(name, type, value)) {
-                            return;
-                        }
-                        if (value != null) {
-                            // for each scalar property of a simple bean, add valuepair nodes to data
-                            if(!visitor.visitProperty(name, type, value)) {
-                                return;
-                            }
-                        } else {
-                            traverseResource(visitor, content);
-                        }
-                        if(!visitor.visitLeaveProperty(name, type, value)) {
-                            return;
-                        }
+    private boolean traverseBeanProperty(ResourceSupportVisitor visitor, Object bean, BeanProperty property,
+                                         PropertyProjection projection, TraversalGuard guard) throws Exception {
+        String name = property.getName();
+        // unselected properties are not even read
+        return !projection.includes(name) || traverseProperty(visitor, name, property.getType(),
+                property.getValue(bean), projection.forProperty(name), guard);
+    }
 
-                    }
-                }
+    private boolean traverseProperty(ResourceSupportVisitor visitor, String name, Class<?> propertyType,
+                                     Object content, PropertyProjection projection, TraversalGuard guard) {
+        if (!visitor.visitEnterProperty(name, propertyType, content)) {
+            return true;
+        }
+        Object value = getContentAsScalarValue(content);
+        if (value != null) {
+            // for each scalar property of a simple bean, report the value
+            if (!visitor.visitProperty(name, propertyType, value)) {
+                return false;
             }
-        } catch (Exception ex) {
-            throw new RuntimeException("failed to transform object " + object, ex);
+        } else {
+            traverseResource(visitor, content, projection, guard);
         }
+        return visitor.visitLeaveProperty(name, propertyType, content);
+    }
+
+    /**
+     * Sets maximum number of nested beans on a traversal path, deeper beans are reported as references.
+     *
+     * @param maxDepth
+     *         maximum depth, default is {@link TraversalGuard#DEFAULT_MAX_DEPTH}
+     */
+    public void setMaxDepth(int maxDepth) {
+        Assert.isTrue(maxDepth > 0, "maxDepth must be positive");
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Sets maximum number of beans traversed per call of {@link #traverseResource(ResourceSupportVisitor, Object)},
+     * further beans are reported as references.
+     *
+     * @param maxNodes
+     *         maximum number of beans, default is {@link TraversalGuard#DEFAULT_MAX_NODES}
+     */
+    public void setMaxNodes(int maxNodes) {
+        Assert.isTrue(maxNodes > 0, "maxNodes must be positive");
+        this.maxNodes = maxNodes;
     }
 
     private static Object getContentAsScalarValue(Object content) {
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia;
+
+import de.escalon.hypermedia.instrument.RenderingProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.ResourceSupport;
+import org.springframework.util.Assert;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the traversal of a single response. Keeps track of the beans on the current traversal path by identity, so
+ * that back-references in bidirectional models are rendered as references instead of being traversed again, and
+ * optionally limits the nesting depth and the total number of traversed beans. Limits are unlimited by default, a
+ * warning is logged whenever a limit cuts the output. Not thread-safe, use {@link #fork()} to traverse parts of the
+ * response on other threads.
+ */
+public class TraversalGuard {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TraversalGuard.class);
+
+    /**
+     * Default maximum number of nested beans on a traversal path, unlimited.
+     */
+    public static final int DEFAULT_MAX_DEPTH = Integer.MAX_VALUE;
+
+    /**
+     * Default maximum number of beans traversed per response, unlimited.
+     */
+    public static final int DEFAULT_MAX_NODES = Integer.MAX_VALUE;
+
+    private final int maxDepth;
+    private final int maxNodes;
+    private final AtomicInteger nodes;
+    private final Set<Object> path;
+
+    /**
+     * Creates guard for a new traversal.
+     *
+     * @param maxDepth
+     *         maximum number of nested beans on a traversal path
+     * @param maxNodes
+     *         maximum number of beans traversed in total
+     */
+    public TraversalGuard(int maxDepth, int maxNodes) {
+        Assert.isTrue(maxDepth > 0, "maxDepth must be positive");
+        Assert.isTrue(maxNodes > 0, "maxNodes must be positive");
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.nodes = new AtomicInteger();
+        this.path = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+    }
+
+    private TraversalGuard(TraversalGuard parent) {
+        this.maxDepth = parent.maxDepth;
+        this.maxNodes = parent.maxNodes;
+        this.nodes = parent.nodes;
+        this.path = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        this.path.addAll(parent.path);
+    }
+
+    /**
+     * Enters a bean, unless it is already on the current path or the depth or node budget is exhausted. A bean which
+     * has been entered must be left by {@link #leave(Object)} after its properties have been traversed.
+     *
+     * @param bean
+     *         to traverse
+     * @return true if the bean may be traversed, false if it should be rendered as reference
+     * @see #getId(Object)
+     */
+    public boolean enter(Object bean) {
+        if (path.contains(bean)) {
+            return false;
+        }
+        if (path.size() >= maxDepth) {
+            LOG.warn("maximum depth of {} nested beans reached, not rendering {}", maxDepth, bean.getClass()
+                    .getName());
+            return false;
+        }
+        int count = nodes.incrementAndGet();
+        if (count > maxNodes) {
+            // the budget is shared with forked guards, warn only once
+            if (count - 1 == maxNodes) {
+                LOG.warn("maximum of {} beans per response reached, not rendering {} and further beans", maxNodes,
+                        bean.getClass()
+                                .getName());
+            }
+            return false;
+        }
+        path.add(bean);
+        RenderingProfile.countObject();
+        return true;
+    }
+
+    /**
+     * Leaves a bean which has been entered.
+     *
+     * @param bean
+     *         traversed bean
+     */
+    public void leave(Object bean) {
+        path.remove(bean);
+    }
+
+    /**
+     * Creates guard which starts at the current path and shares the node budget, to traverse parts of the response
+     * on another thread.
+     *
+     * @return forked guard
+     */
+    public TraversalGuard fork() {
+        return new TraversalGuard(this);
+    }
+
+    /**
+     * Gets identifier to refer to a bean which is not traversed.
+     *
+     * @param bean
+     *         to refer to
+     * @return href of the self link of a resource, or null
+     */
+    public static String getId(Object bean) {
+        if (bean instanceof ResourceSupport) {
+            Link self = ((ResourceSupport) bean).getId();
+            return self == null ? null : self.getHref();
+        }
+        return null;
+    }
+
+    /**
+     * Gets text which is rendered instead of a bean that is not traversed and has no self link to refer to.
+     *
+     * @param bean
+     *         not traversed
+     * @return placeholder text
+     * @see #getId(Object)
+     */
+    public static String getPlaceholder(Object bean) {
+        return "[" + bean.getClass()
+                .getSimpleName() + " not rendered]";
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+package de.escalon.hypermedia.affordance;
+
+import java.util.List;
+
+/**
+ * Creates the action descriptors of an affordance on demand. Allows to build affordances whose action descriptors are
+ * only created if a message converter renders them, e.g. as hydra operations, siren actions or xhtml forms.
+ *
+ * @see Affordance#Affordance(PartialUriTemplate, List, ActionDescriptorSource, String...)
+ */
+public interface ActionDescriptorSource {
+
+    /**
+     * Gets action descriptors, creating them on first access.
+     *
+     * @return descriptors, never null
+     */
+    List<ActionDescriptor> getActionDescriptors();
+}
@@ -69,10 +69,17 @@ public class Affordance extends Link {
 
     private boolean selfRel = false;
     private List<ActionDescriptor> actionDescriptors = new ArrayList<ActionDescriptor>();
+    /**
+     * Creates the action descriptors on first access, null once they have been created.
+     */
+    private ActionDescriptorSource actionDescriptorSource;
+    private List<String> requiredArgNames;
     private MultiValueMap<String, String> linkParams = new LinkedMultiValueMap<String, String>();
     private PartialUriTemplate partialUriTemplate;
     private Cardinality cardinality = Cardinality.SINGLE;
     private TypedResource collectionHolder;
+    private boolean safeActions;
+    private boolean unsafeActions;
 
     /**
      * Creates affordance. Action descriptors and link header params may be added later.
@@ -117,9 +124,32 @@ public class Affordance extends Link {
         // has been created with ControllerLinkBuilder. Only serializers that make use of Affordance will see the
         // optional variables, too.
         // They can access the base uri, query etc. via getUriTemplateComponents.
-        super(uriTemplate.stripOptionalVariables(actionDescriptors)
+        this(uriTemplate, PartialUriTemplate.getRequiredArgNames(actionDescriptors), null, rels);
+        addActionDescriptors(actionDescriptors);
+    }
+
+    /**
+     * Creates affordance whose action descriptors are created when they are first accessed, e.g. by a message
+     * converter which renders them. Media types which only render links never create the action descriptors. Link
+     * header params may be added later.
+     *
+     * @param uriTemplate
+     *         pre-expanded uri or uritemplate of the affordance
+     * @param requiredArgNames
+     *         names of the variables required by the action descriptors, other variables are stripped from the
+     *         underlying link. If empty, no variables are stripped
+     * @param actionDescriptorSource
+     *         creates the action descriptors describing the possible http methods on the affordance
+     * @param rels
+     *         describing the link relation type
+     */
+    public Affordance(PartialUriTemplate uriTemplate, List<String> requiredArgNames,
+                      ActionDescriptorSource actionDescriptorSource, String... rels) {
+        super(uriTemplate.stripOptionalVariablesExcept(requiredArgNames)
                 .toString());
         this.partialUriTemplate = uriTemplate;
+        this.requiredArgNames = requiredArgNames;
+        this.actionDescriptorSource = actionDescriptorSource;
 
         Assert.noNullElements(rels, "null rels are not allowed");
 
@@ -129,6 +159,16 @@ public class Affordance extends Link {
                 selfRel = true;
             }
         }
+    }
+
+
+    private Affordance(String uriTemplate, MultiValueMap<String, String> linkParams, Affordance source) {
+        this(new PartialUriTemplate(uriTemplate), source.requiredArgNames, source.getActionDescriptorSource());
+        // no rels to pass
+        this.linkParams = linkParams; // takes care of rels
+    }
+
+    private void addActionDescriptors(List<ActionDescriptor> actionDescriptors) {
         // if any action refers to a collection resource, make the affordance a collection affordance
         for (ActionDescriptor actionDescriptor : actionDescriptors) {
             if (Cardinality.COLLECTION == actionDescriptor.getCardinality()) {
@@ -137,13 +177,35 @@ public class Affordance extends Link {
             }
         }
         this.actionDescriptors.addAll(actionDescriptors);
+        classifyActionDescriptors();
     }
 
+    /**
+     * Creates pending action descriptors, if any.
+     */
+    private synchronized void resolveActionDescriptors() {
+        if (actionDescriptorSource != null) {
+            ActionDescriptorSource source = actionDescriptorSource;
+            actionDescriptorSource = null;
+            addActionDescriptors(source.getActionDescriptors());
+        }
+    }
 
-    private Affordance(String uriTemplate, MultiValueMap<String, String> linkParams,
-                       List<ActionDescriptor> actionDescriptors) {
-        this(new PartialUriTemplate(uriTemplate), actionDescriptors); // no rels to pass
-        this.linkParams = linkParams; // takes care of rels
+    /**
+     * Gets source of the action descriptors for affordances derived from this one, without creating pending action
+     * descriptors.
+     */
+    private synchronized ActionDescriptorSource getActionDescriptorSource() {
+        if (actionDescriptorSource != null) {
+            return actionDescriptorSource;
+        }
+        final List<ActionDescriptor> resolved = new ArrayList<ActionDescriptor>(actionDescriptors);
+        return new ActionDescriptorSource() {
+            @Override
+            public List<ActionDescriptor> getActionDescriptors() {
+                return resolved;
+            }
+        };
     }
 
 
@@ -446,7 +508,7 @@ public class Affordance extends Link {
     @Override
     public Affordance withRel(String rel) {
         linkParams.set(REL.paramName, rel);
-        return new Affordance(this.getHref(), linkParams, actionDescriptors);
+        return new Affordance(this.getHref(), linkParams, this);
     }
 
     @Override
@@ -455,7 +517,7 @@ public class Affordance extends Link {
                 .contains(Link.REL_SELF)) {
             linkParams.add(REL.paramName, Link.REL_SELF);
         }
-        return new Affordance(this.getHref(), linkParams, actionDescriptors);
+        return new Affordance(this.getHref(), linkParams, this);
     }
 
     /**
@@ -472,7 +534,7 @@ public class Affordance extends Link {
                 .toString());
         String expanded = template.expand(arguments)
                 .toASCIIString();
-        return new Affordance(expanded, linkParams, actionDescriptors);
+        return new Affordance(expanded, linkParams, this);
     }
 
     /**
@@ -499,7 +561,7 @@ public class Affordance extends Link {
                 .toString());
         String expanded = template.expand(arguments)
                 .toASCIIString();
-        return new Affordance(expanded, linkParams, actionDescriptors);
+        return new Affordance(expanded, linkParams, this);
     }
 
     /**
@@ -513,7 +575,7 @@ public class Affordance extends Link {
      */
     public Affordance expandPartially(Object... arguments) {
         return new Affordance(partialUriTemplate.expand(arguments)
-                .toString(), linkParams, actionDescriptors);
+                .toString(), linkParams, this);
     }
 
     /**
@@ -527,7 +589,7 @@ public class Affordance extends Link {
      */
     public Affordance expandPartially(Map<String, ? extends Object> arguments) {
         return new Affordance(partialUriTemplate.expand((Map<String, Object>) arguments)
-                .toString(), linkParams, actionDescriptors);
+                .toString(), linkParams, this);
     }
 
 
@@ -581,8 +643,11 @@ public class Affordance extends Link {
      *         to set
      */
     public void setActionDescriptors(List<ActionDescriptor> actionDescriptors) {
+        resolveActionDescriptors();
         if (this.actionDescriptors.isEmpty()) {
             this.actionDescriptors = actionDescriptors;
+            this.requiredArgNames = PartialUriTemplate.getRequiredArgNames(actionDescriptors);
+            classifyActionDescriptors();
         } else {
             throw new IllegalStateException("cannot redefine existing action descriptors");
         }
@@ -595,9 +660,46 @@ public class Affordance extends Link {
      */
     @JsonIgnore
     public List<ActionDescriptor> getActionDescriptors() {
+        resolveActionDescriptors();
         return Collections.unmodifiableList(actionDescriptors);
     }
 
+    private void classifyActionDescriptors() {
+        boolean safe = false;
+        boolean unsafe = false;
+        for (ActionDescriptor actionDescriptor : actionDescriptors) {
+            if ("GET".equals(actionDescriptor.getHttpMethod())) {
+                safe = true;
+            } else {
+                unsafe = true;
+            }
+        }
+        this.safeActions = safe;
+        this.unsafeActions = unsafe;
+    }
+
+    /**
+     * Determines if any action descriptor of the affordance uses GET.
+     *
+     * @return true if there is a GET action
+     */
+    @JsonIgnore
+    public boolean hasSafeActions() {
+        resolveActionDescriptors();
+        return safeActions;
+    }
+
+    /**
+     * Determines if any action descriptor of the affordance uses a method other than GET.
+     *
+     * @return true if there is a non-GET action
+     */
+    @JsonIgnore
+    public boolean hasUnsafeActions() {
+        resolveActionDescriptors();
+        return unsafeActions;
+    }
+
     /**
      * Determines if the affordance points to a single or a collection resource.
      *
@@ -605,6 +707,7 @@ public class Affordance extends Link {
      */
     @JsonIgnore
     public Cardinality getCardinality() {
+        resolveActionDescriptors();
         return cardinality;
     }
 
@@ -628,7 +731,7 @@ public class Affordance extends Link {
      */
     @JsonIgnore
     public boolean hasUnsatisfiedRequiredVariables() {
-
+        resolveActionDescriptors();
         for (ActionDescriptor actionDescriptor : actionDescriptors) {
             Map<String, ActionInputParameter> requiredParameters =
                     actionDescriptor.getRequiredParameters();
@@ -20,6 +20,8 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Currency;
 import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
@@ -27,15 +29,167 @@ import java.util.Date;
  */
 public class DataType {
 
+    private static final ConcurrentMap<Class<?>, ScalarKind> KINDS = new ConcurrentHashMap<Class<?>, ScalarKind>();
+
+    /**
+     * Kind of a class with respect to scalar conversion, determined once per class by {@link #kindOf(Class)}. The
+     * order of the checks in {@link #classify(Class)} follows {@link #asType(Class, String)}.
+     */
+    private enum ScalarKind {
+        BOOLEAN {
+            @Override
+            Object parse(Class<?> type, String string) {
+                return Boolean.parseBoolean(string);
+            }
+        },
+        INTEGER {
+            @Override
+            Object parse(Class<?> type, String string) {
+                return Integer.parseInt(string);
+            }
+        },
+        LONG {
+            @Override
+            Object parse(Class<?> type, String string) {
+                return Long.parseLong(string);
+            }
+        },
+        DOUBLE {
+            @Override
+            Object parse(Class<?> type, String string) {
+                return Double.parseDouble(string);
+            }
+        },
+        FLOAT {
+            @Override
+            Object parse(Class<?> type, String string) {
+                return Float.parseFloat(string);
+            }
+        },
+        BYTE {
+            @Override
+            Object parse(Class<?> type, String string) {
+                return Byte.parseByte(string);
+            }
+        },
+        SHORT {
+            @Override
+            Object parse(Class<?> type, String string) {
+                return Short.parseShort(string);
+            }
+        },
+        BIG_INTEGER {
+            @Override
+            Object parse(Class<?> type, String string) {
+                return new BigInteger(string);
+            }
+        },
+        BIG_DECIMAL {
+            @Override
+            Object parse(Class<?> type, String string) {
+                return new BigDecimal(string);
+            }
+        },
+        CALENDAR {
+            @Override
+            Object parse(Class<?> type, String string) {
+                return DatatypeConverter.parseDateTime(string);
+            }
+        },
+        DATE {
+            @Override
+            Object parse(Class<?> type, String string) {
+                if (isIsoLatin1Number(string)) {
+                    return new Date(Long.parseLong(string));
+                } else {
+                    return DatatypeConverter.parseDateTime(string)
+                            .getTime();
+                }
+            }
+        },
+        CURRENCY {
+            @Override
+            Object parse(Class<?> type, String string) {
+                return Currency.getInstance(string);
+            }
+        },
+        ENUM {
+            @Override
+            @SuppressWarnings("unchecked")
+            Object parse(Class<?> type, String string) {
+                return Enum.valueOf((Class<? extends Enum>) type, string);
+            }
+        },
+        /**
+         * Other single value types, e.g. String, kept as string.
+         */
+        OTHER_SCALAR,
+        /**
+         * Not a single value type, kept as string.
+         */
+        NONE;
+
+        Object parse(Class<?> type, String string) {
+            return string;
+        }
+    }
+
+    private static ScalarKind kindOf(Class<?> clazz) {
+        ScalarKind kind = KINDS.get(clazz);
+        if (kind == null) {
+            kind = classify(clazz);
+            KINDS.putIfAbsent(clazz, kind);
+        }
+        return kind;
+    }
+
+    private static ScalarKind classify(Class<?> type) {
+        if (isBoolean(type)) {
+            return ScalarKind.BOOLEAN;
+        } else if (isInteger(type)) {
+            return ScalarKind.INTEGER;
+        } else if (isLong(type)) {
+            return ScalarKind.LONG;
+        } else if (isDouble(type)) {
+            return ScalarKind.DOUBLE;
+        } else if (isFloat(type)) {
+            return ScalarKind.FLOAT;
+        } else if (isByte(type)) {
+            return ScalarKind.BYTE;
+        } else if (isShort(type)) {
+            return ScalarKind.SHORT;
+        } else if (isBigInteger(type)) {
+            return ScalarKind.BIG_INTEGER;
+        } else if (isBigDecimal(type)) {
+            return ScalarKind.BIG_DECIMAL;
+        } else if (isCalendar(type)) {
+            return ScalarKind.CALENDAR;
+        } else if (isDate(type)) {
+            return ScalarKind.DATE;
+        } else if (isCurrency(type)) {
+            return ScalarKind.CURRENCY;
+        } else if (type.isEnum()) {
+            return ScalarKind.ENUM;
+        } else if (isSingleValueClass(type)) {
+            return ScalarKind.OTHER_SCALAR;
+        } else {
+            return ScalarKind.NONE;
+        }
+    }
+
     /**
      * Determines if the given class holds only one data item. Can be useful to determine if a value should be rendered
-     * as scalar.
+     * as scalar. The result is cached per class.
      *
      * @param clazz
      *         to check
      * @return true if class is scalar
      */
     public static boolean isSingleValueType(Class<?> clazz) {
+        return kindOf(clazz) != ScalarKind.NONE;
+    }
+
+    private static boolean isSingleValueClass(Class<?> clazz) {
         boolean ret;
         if (isNumber(clazz)
                 || isBoolean(clazz)
@@ -141,41 +295,17 @@ public class DataType {
         }
     }
 
+    /**
+     * Converts the given string to the given single value type. Strings for other types are returned unchanged.
+     *
+     * @param type
+     *         target type
+     * @param string
+     *         to convert
+     * @return converted value
+     */
     public static Object asType(Class<?> type, String string) {
-        if (isBoolean(type)) {
-            return Boolean.parseBoolean(string);
-        } else if (isInteger(type)) {
-            return Integer.parseInt(string);
-        } else if (isLong(type)) {
-            return Long.parseLong(string);
-        } else if (isDouble(type)) {
-            return Double.parseDouble(string);
-        } else if (isFloat(type)) {
-            return Float.parseFloat(string);
-        } else if (isByte(type)) {
-            return Byte.parseByte(string);
-        } else if (isShort(type)) {
-            return Short.parseShort(string);
-        } else if (isBigInteger(type)) {
-            return new BigInteger(string);
-        } else if (isBigDecimal(type)) {
-            return new BigDecimal(string);
-        } else if (isCalendar(type)) {
-            return DatatypeConverter.parseDateTime(string);
-        } else if (isDate(type)) {
-            if (isIsoLatin1Number(string)) {
-                return new Date(Long.parseLong(string));
-            } else {
-                return DatatypeConverter.parseDateTime(string)
-                        .getTime();
-            }
-        } else if (isCurrency(type)) {
-            return Currency.getInstance(string);
-        } else if (type.isEnum()) {
-            return Enum.valueOf((Class<? extends Enum>) type, string);
-        } else {
-            return string;
-        }
+        return kindOf(type).parse(type, string);
     }
 
     /**
@@ -190,14 +320,15 @@ public class DataType {
     public static boolean isIsoLatin1Number(String str) {
         if (str == null)
             return false;
-        char[] data = str.toCharArray();
-        if (data.length == 0)
+        int length = str.length();
+        if (length == 0)
             return false;
         int index = 0;
-        if (data.length > 1 && (data[0] == '-' || data[0] == '+'))
+        if (length > 1 && (str.charAt(0) == '-' || str.charAt(0) == '+'))
             index = 1;
-        for (; index < data.length; index++) {
-            if (data[index] < '0' || data[index] > '9')
+        for (; index < length; index++) {
+            char c = str.charAt(index);
+            if (c < '0' || c > '9')
                 return false;
         }
         return true;
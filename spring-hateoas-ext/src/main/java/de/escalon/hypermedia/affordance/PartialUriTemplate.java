@@ -267,10 +267,29 @@ public class PartialUriTemplate {
      * @return partial uri template components without optional variables, if actionDescriptors was not empty
      */
     public PartialUriTemplateComponents stripOptionalVariables(List<ActionDescriptor> actionDescriptors) {
-        return getUriTemplateComponents(Collections.<String, Object>emptyMap(), getRequiredArgNames(actionDescriptors));
+        return stripOptionalVariablesExcept(getRequiredArgNames(actionDescriptors));
     }
 
-    private List<String> getRequiredArgNames(List<ActionDescriptor> actionDescriptors) {
+    /**
+     * Strips all variables which are not among the given required variables. If no required variables are given,
+     * nothing will be stripped. Allows to strip optional variables without creating action descriptors.
+     *
+     * @param requiredArgNames
+     *         names of required variables, may be empty
+     * @return partial uri template components without optional variables, if requiredArgNames was not empty
+     */
+    public PartialUriTemplateComponents stripOptionalVariablesExcept(List<String> requiredArgNames) {
+        return getUriTemplateComponents(Collections.<String, Object>emptyMap(), requiredArgNames);
+    }
+
+    /**
+     * Gets names of the variables which are required by any of the given action descriptors.
+     *
+     * @param actionDescriptors
+     *         to ask for required parameters
+     * @return required variable names
+     */
+    public static List<String> getRequiredArgNames(List<ActionDescriptor> actionDescriptors) {
         List<String> ret = new ArrayList<String>();
         for (ActionDescriptor actionDescriptor : actionDescriptors) {
             Map<String, ActionInputParameter> required = actionDescriptor.getRequiredParameters();
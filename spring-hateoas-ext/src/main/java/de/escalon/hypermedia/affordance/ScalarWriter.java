@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+package de.escalon.hypermedia.affordance;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Writes numbers and booleans of one type through the matching {@link JsonGenerator} method, e.g. {@link
+ * JsonGenerator#writeNumber(int)} for int and Integer values. Writers are resolved once per type, so that writing a
+ * value neither converts it to another boxed type nor dispatches on its runtime type like {@link
+ * JsonGenerator#writeObject(Object)}. There are no writers for enums, dates, strings and other single value types,
+ * their JSON form depends on the ObjectMapper configuration and annotations such as {@code @JsonValue}, so callers
+ * should let Jackson serialize them.
+ *
+ * @see DataType#isSingleValueType(Class)
+ */
+public abstract class ScalarWriter {
+
+    private static final ConcurrentMap<Class<?>, ScalarWriter> WRITERS =
+            new ConcurrentHashMap<Class<?>, ScalarWriter>();
+
+    private static final ScalarWriter BOOLEAN = new ScalarWriter() {
+        @Override
+        public void write(JsonGenerator jgen, Object value) throws IOException {
+            jgen.writeBoolean(((Boolean) value).booleanValue());
+        }
+    };
+
+    private static final ScalarWriter INT = new ScalarWriter() {
+        @Override
+        public void write(JsonGenerator jgen, Object value) throws IOException {
+            jgen.writeNumber(((Integer) value).intValue());
+        }
+    };
+
+    private static final ScalarWriter LONG = new ScalarWriter() {
+        @Override
+        public void write(JsonGenerator jgen, Object value) throws IOException {
+            jgen.writeNumber(((Long) value).longValue());
+        }
+    };
+
+    private static final ScalarWriter DOUBLE = new ScalarWriter() {
+        @Override
+        public void write(JsonGenerator jgen, Object value) throws IOException {
+            jgen.writeNumber(((Double) value).doubleValue());
+        }
+    };
+
+    private static final ScalarWriter FLOAT = new ScalarWriter() {
+        @Override
+        public void write(JsonGenerator jgen, Object value) throws IOException {
+            jgen.writeNumber(((Float) value).floatValue());
+        }
+    };
+
+    private static final ScalarWriter SHORT = new ScalarWriter() {
+        @Override
+        public void write(JsonGenerator jgen, Object value) throws IOException {
+            jgen.writeNumber(((Short) value).shortValue());
+        }
+    };
+
+    private static final ScalarWriter BYTE = new ScalarWriter() {
+        @Override
+        public void write(JsonGenerator jgen, Object value) throws IOException {
+            jgen.writeNumber(((Byte) value).intValue());
+        }
+    };
+
+    private static final ScalarWriter BIG_INTEGER = new ScalarWriter() {
+        @Override
+        public void write(JsonGenerator jgen, Object value) throws IOException {
+            jgen.writeNumber((BigInteger) value);
+        }
+    };
+
+    private static final ScalarWriter BIG_DECIMAL = new ScalarWriter() {
+        @Override
+        public void write(JsonGenerator jgen, Object value) throws IOException {
+            jgen.writeNumber((BigDecimal) value);
+        }
+    };
+
+    private static final ScalarWriter NUMBER = new ScalarWriter() {
+        @Override
+        public void write(JsonGenerator jgen, Object value) throws IOException {
+            jgen.writeNumber(value.toString());
+        }
+    };
+
+    /**
+     * Marks types which are neither numbers nor booleans, the cache cannot hold null.
+     */
+    private static final ScalarWriter NONE = new ScalarWriter() {
+        @Override
+        public void write(JsonGenerator jgen, Object value) throws IOException {
+            throw new IllegalStateException("not a scalar value: " + value);
+        }
+    };
+
+    /**
+     * Writes a value.
+     *
+     * @param jgen
+     *         to write to
+     * @param value
+     *         to write, must be an instance of the type of the writer, or its wrapper type if the type is primitive
+     * @throws IOException
+     *         if writing fails
+     */
+    public abstract void write(JsonGenerator jgen, Object value) throws IOException;
+
+    /**
+     * Gets writer for values of the given type.
+     *
+     * @param type
+     *         of values, may be primitive
+     * @return writer, or null if the type is neither a number nor a boolean type
+     */
+    public static ScalarWriter forType(Class<?> type) {
+        ScalarWriter writer = WRITERS.get(type);
+        if (writer == null) {
+            writer = createWriter(type);
+            ScalarWriter existing = WRITERS.putIfAbsent(type, writer);
+            if (existing != null) {
+                writer = existing;
+            }
+        }
+        return writer == NONE ? null : writer;
+    }
+
+    private static ScalarWriter createWriter(Class<?> type) {
+        final ScalarWriter ret;
+        if (DataType.isBoolean(type)) {
+            ret = BOOLEAN;
+        } else if (DataType.isInteger(type)) {
+            ret = INT;
+        } else if (DataType.isLong(type)) {
+            ret = LONG;
+        } else if (DataType.isDouble(type)) {
+            ret = DOUBLE;
+        } else if (DataType.isFloat(type)) {
+            ret = FLOAT;
+        } else if (DataType.isShort(type)) {
+            ret = SHORT;
+        } else if (DataType.isByte(type)) {
+            ret = BYTE;
+        } else if (DataType.isBigInteger(type)) {
+            ret = BIG_INTEGER;
+        } else if (DataType.isBigDecimal(type)) {
+            ret = BIG_DECIMAL;
+        } else if (DataType.isNumber(type)) {
+            ret = NUMBER;
+        } else {
+            ret = NONE;
+        }
+        return ret;
+    }
+}
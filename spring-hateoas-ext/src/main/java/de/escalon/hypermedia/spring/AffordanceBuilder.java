@@ -29,8 +29,10 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.servlet.http.HttpServletRequest;
+import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Method;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -45,7 +47,8 @@ public class AffordanceBuilder implements LinkBuilder {
     private static final AffordanceBuilderFactory FACTORY = new AffordanceBuilderFactory();
 
     private PartialUriTemplateComponents partialUriTemplateComponents;
-    private List<ActionDescriptor> actionDescriptors = new ArrayList<ActionDescriptor>();
+    private List<ActionDescriptorSource> actionDescriptorSources = new ArrayList<ActionDescriptorSource>();
+    private List<String> requiredArgNames = new ArrayList<String>();
 
     private MultiValueMap<String, String> linkParams = new LinkedMultiValueMap<String, String>();
     private List<String> rels = new ArrayList<String>();
@@ -153,14 +156,30 @@ public class AffordanceBuilder implements LinkBuilder {
     public AffordanceBuilder(PartialUriTemplateComponents partialUriTemplateComponents, List<ActionDescriptor>
             actionDescriptors) {
 
+        this(partialUriTemplateComponents, Collections.<ActionDescriptorSource>singletonList(
+                new ActionDescriptorList(actionDescriptors)), PartialUriTemplate.getRequiredArgNames(actionDescriptors));
+    }
+
+    /**
+     * Creates a new {@link AffordanceBuilder} whose action descriptors are only created if they are rendered.
+     *
+     * @param partialUriTemplateComponents
+     *         must not be {@literal null}
+     * @param actionDescriptorSources
+     *         must not be {@literal null}
+     * @param requiredArgNames
+     *         names of the variables required by the action descriptors, must not be {@literal null}
+     */
+    AffordanceBuilder(PartialUriTemplateComponents partialUriTemplateComponents,
+                      List<ActionDescriptorSource> actionDescriptorSources, List<String> requiredArgNames) {
+
         Assert.notNull(partialUriTemplateComponents);
-        Assert.notNull(actionDescriptors);
+        Assert.notNull(actionDescriptorSources);
+        Assert.notNull(requiredArgNames);
 
         this.partialUriTemplateComponents = partialUriTemplateComponents;
-
-        for (ActionDescriptor actionDescriptor : actionDescriptors) {
-            this.actionDescriptors.add(actionDescriptor);
-        }
+        this.actionDescriptorSources.addAll(actionDescriptorSources);
+        this.requiredArgNames.addAll(requiredArgNames);
     }
 
     public static <T> T methodOn(Class<T> clazz, Object... parameters) {
@@ -186,8 +205,8 @@ public class AffordanceBuilder implements LinkBuilder {
         Assert.state(!(rels.isEmpty() && reverseRels.isEmpty()),
                 "no rels or reverse rels found, call rel() or rev() before building the affordance");
         final Affordance affordance;
-        affordance = new Affordance(new PartialUriTemplate(this.toString()), actionDescriptors,
-                rels.toArray(new String[rels.size()]));
+        affordance = new Affordance(new PartialUriTemplate(this.toString()), new ArrayList<String>(requiredArgNames),
+                new ActionDescriptorSources(actionDescriptorSources), rels.toArray(new String[rels.size()]));
         for (Map.Entry<String, List<String>> linkParamEntry : linkParams.entrySet()) {
             final List<String> values = linkParamEntry.getValue();
             for (String value : values) {
@@ -283,6 +302,47 @@ public class AffordanceBuilder implements LinkBuilder {
     }
 
 
+    /**
+     * Sets the cursor of a link to a collection which is paginated by opaque cursors, e.g. for keyset pagination. If
+     * the link has a template variable of the given name, the variable is expanded, otherwise the cursor request
+     * parameter is added to the query or replaces an existing cursor.
+     *
+     * @param cursorParam
+     *         name of the request parameter which takes the cursor
+     * @param cursor
+     *         opaque cursor, will be url-encoded. If null, e.g. on the last page, the builder is left unchanged.
+     * @return builder
+     */
+    public AffordanceBuilder withCursor(String cursorParam, String cursor) {
+        Assert.hasText(cursorParam, "cursorParam must not be empty");
+        if (cursor == null) {
+            return this;
+        }
+        PartialUriTemplate partialUriTemplate = new PartialUriTemplate(partialUriTemplateComponents.toString());
+        if (partialUriTemplate.getVariableNames()
+                .contains(cursorParam)) {
+            this.partialUriTemplateComponents = partialUriTemplate.expand(Collections.<String, Object>singletonMap(
+                    cursorParam, cursor));
+        } else {
+            final PartialUriTemplateComponents components = partialUriTemplateComponents;
+            UriComponentsBuilder queryBuilder = UriComponentsBuilder.newInstance();
+            if (StringUtils.hasText(components.getQueryHead())) {
+                queryBuilder.query(components.getQueryHead()
+                        .substring(1));
+            }
+            try {
+                queryBuilder.replaceQueryParam(cursorParam, URLEncoder.encode(cursor, "UTF-8"));
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException("failed to urlEncode " + cursor, e);
+            }
+            this.partialUriTemplateComponents = new PartialUriTemplateComponents(components.getBaseUri(),
+                    "?" + queryBuilder.build()
+                            .getQuery(), components.getQueryTail(), components.getFragmentIdentifier(),
+                    components.getVariableNames());
+        }
+        return this;
+    }
+
     public AffordanceBuilder withTitle(String title) {
         this.linkParams.set("title", title);
         return this;
@@ -379,7 +439,7 @@ public class AffordanceBuilder implements LinkBuilder {
         final PartialUriTemplateComponents mergedUriComponents =
                 new PartialUriTemplateComponents(path, queryHead, queryTail, fragmentIdentifier, variableNames);
 
-        return new AffordanceBuilder(mergedUriComponents, actionDescriptors);
+        return new AffordanceBuilder(mergedUriComponents, actionDescriptorSources, requiredArgNames);
     }
 
     @Override
@@ -395,7 +455,7 @@ public class AffordanceBuilder implements LinkBuilder {
     public URI toUri() {
         PartialUriTemplate partialUriTemplate = new PartialUriTemplate(partialUriTemplateComponents.toString());
 
-        final String actionLink = partialUriTemplate.stripOptionalVariables(actionDescriptors)
+        final String actionLink = partialUriTemplate.stripOptionalVariablesExcept(requiredArgNames)
                 .toString();
 
         if (actionLink == null || actionLink.contains("{")) {
@@ -484,16 +544,56 @@ public class AffordanceBuilder implements LinkBuilder {
     }
 
     /**
-     * Adds actionDescriptors of the given AffordanceBuilder to this affordanceBuilder.
+     * Adds actionDescriptors of the given AffordanceBuilder to this affordanceBuilder. The action descriptors are not
+     * created before they are rendered.
      *
      * @param affordanceBuilder
      *         whose action descriptors should be added to this one
      * @return builder
      */
     public AffordanceBuilder and(AffordanceBuilder affordanceBuilder) {
-        for (ActionDescriptor actionDescriptor : affordanceBuilder.actionDescriptors) {
-            this.actionDescriptors.add(actionDescriptor);
-        }
+        this.actionDescriptorSources.addAll(affordanceBuilder.actionDescriptorSources);
+        this.requiredArgNames.addAll(affordanceBuilder.requiredArgNames);
         return this;
     }
+
+    /**
+     * Action descriptors which have already been created.
+     */
+    private static class ActionDescriptorList implements ActionDescriptorSource {
+
+        private final List<ActionDescriptor> actionDescriptors;
+
+        ActionDescriptorList(List<ActionDescriptor> actionDescriptors) {
+            Assert.notNull(actionDescriptors);
+            this.actionDescriptors = new ArrayList<ActionDescriptor>(actionDescriptors);
+        }
+
+        @Override
+        public List<ActionDescriptor> getActionDescriptors() {
+            return actionDescriptors;
+        }
+    }
+
+    /**
+     * Joins the action descriptors of several sources, e.g. of builders combined with {@link
+     * #and(AffordanceBuilder)}.
+     */
+    private static class ActionDescriptorSources implements ActionDescriptorSource {
+
+        private final List<ActionDescriptorSource> sources;
+
+        ActionDescriptorSources(List<ActionDescriptorSource> sources) {
+            this.sources = new ArrayList<ActionDescriptorSource>(sources);
+        }
+
+        @Override
+        public List<ActionDescriptor> getActionDescriptors() {
+            List<ActionDescriptor> ret = new ArrayList<ActionDescriptor>();
+            for (ActionDescriptorSource source : sources) {
+                ret.addAll(source.getActionDescriptors());
+            }
+            return ret;
+        }
+    }
 }
@@ -19,12 +19,18 @@ import de.escalon.hypermedia.action.Cardinality;
 import de.escalon.hypermedia.action.Input;
 import de.escalon.hypermedia.action.ResourceHandler;
 import de.escalon.hypermedia.affordance.ActionDescriptor;
+import de.escalon.hypermedia.affordance.ActionDescriptorSource;
 import de.escalon.hypermedia.affordance.ActionInputParameter;
 import de.escalon.hypermedia.affordance.DataType;
 import de.escalon.hypermedia.affordance.PartialUriTemplate;
+import de.escalon.hypermedia.instrument.Instrumentation;
+import de.escalon.hypermedia.instrument.Instrumentations;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.core.MethodParameter;
 import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.format.support.DefaultFormattingConversionService;
 import org.springframework.hateoas.MethodLinkBuilderFactory;
 import org.springframework.hateoas.Resources;
 import org.springframework.hateoas.core.AnnotationMappingDiscoverer;
@@ -49,6 +55,12 @@ public class AffordanceBuilderFactory implements MethodLinkBuilderFactory<Afford
 
     private static final MappingDiscoverer MAPPING_DISCOVERER = new AnnotationMappingDiscoverer(RequestMapping.class);
 
+    private static final ConversionService CONVERSION_SERVICE = new DefaultFormattingConversionService();
+
+    @SuppressWarnings("unchecked")
+    private static final List<Class<? extends Annotation>> TEMPLATE_VALUE_ANNOTATIONS = Arrays.asList(
+            RequestParam.class, PathVariable.class, RequestHeader.class);
+
     @Override
     public AffordanceBuilder linkTo(Method method, Object... parameters) {
         return linkTo(method.getDeclaringClass(), method, parameters);
@@ -56,6 +68,16 @@ public class AffordanceBuilderFactory implements MethodLinkBuilderFactory<Afford
 
     @Override
     public AffordanceBuilder linkTo(Class<?> controller, Method method, Object... parameters) {
+        Instrumentation instrumentation = Instrumentations.get();
+        long start = instrumentation.startTimer();
+        try {
+            return createAffordanceBuilder(controller, method, parameters);
+        } finally {
+            instrumentation.stopTimer(Instrumentation.LINK_BUILDING, null, start);
+        }
+    }
+
+    private AffordanceBuilder createAffordanceBuilder(Class<?> controller, Method method, Object... parameters) {
 
         String pathMapping = MAPPING_DISCOVERER.getMapping(controller, method);
 
@@ -91,9 +113,10 @@ public class AffordanceBuilderFactory implements MethodLinkBuilderFactory<Afford
             }
         }
 
-        ActionDescriptor actionDescriptor = createActionDescriptor(method, values, parameters);
+        List<String> requiredArgNames = putTemplateValues(method, values, parameters);
 
-        return new AffordanceBuilder(partialUriTemplate.expand(values), Collections.singletonList(actionDescriptor));
+        return new AffordanceBuilder(partialUriTemplate.expand(values), Collections.<ActionDescriptorSource>singletonList(
+                new MethodActionDescriptorSource(method, values, parameters)), requiredArgNames);
     }
 
     private String join(Set<String>... params) {
@@ -145,6 +168,16 @@ public class AffordanceBuilderFactory implements MethodLinkBuilderFactory<Afford
 
     @Override
     public AffordanceBuilder linkTo(Object invocationValue) {
+        Instrumentation instrumentation = Instrumentations.get();
+        long start = instrumentation.startTimer();
+        try {
+            return createAffordanceBuilder(invocationValue);
+        } finally {
+            instrumentation.stopTimer(Instrumentation.LINK_BUILDING, null, start);
+        }
+    }
+
+    private AffordanceBuilder createAffordanceBuilder(Object invocationValue) {
 
         Assert.isInstanceOf(DummyInvocationUtils.LastInvocationAware.class, invocationValue);
         DummyInvocationUtils.LastInvocationAware invocations = (DummyInvocationUtils.LastInvocationAware)
@@ -185,10 +218,10 @@ public class AffordanceBuilderFactory implements MethodLinkBuilderFactory<Afford
                 values.put(variableName, argument);
             }
         }
-        ActionDescriptor actionDescriptor = createActionDescriptor(
-                invocation.getMethod(), values, invocation.getArguments());
+        List<String> requiredArgNames = putTemplateValues(invokedMethod, values, invocation.getArguments());
 
-        return new AffordanceBuilder(partialUriTemplate.expand(values), Collections.singletonList(actionDescriptor));
+        return new AffordanceBuilder(partialUriTemplate.expand(values), Collections.<ActionDescriptorSource>singletonList(
+                new MethodActionDescriptorSource(invokedMethod, values, invocation.getArguments())), requiredArgNames);
     }
 
     private Set<String> getInputBeanParamNames(Method invokedMethod) {
@@ -276,6 +309,65 @@ public class AffordanceBuilderFactory implements MethodLinkBuilderFactory<Afford
         return params;
     }
 
+    /**
+     * Puts the formatted values of request params, path variables and request headers into the values for uri template
+     * expansion, without creating an action descriptor.
+     *
+     * @param invokedMethod
+     *         handler method
+     * @param values
+     *         to put into
+     * @param arguments
+     *         of the sample invocation
+     * @return names of required uri template variables
+     */
+    private static List<String> putTemplateValues(Method invokedMethod, Map<String, Object> values,
+                                                  Object[] arguments) {
+        MethodParameters parameters = new MethodParameters(invokedMethod);
+        Assert.state(parameters.getParametersWith(RequestBody.class)
+                .size() < 2, "found more than one request body on " + invokedMethod.getName());
+        List<String> requiredArgNames = new ArrayList<String>();
+        for (Class<? extends Annotation> annotation : TEMPLATE_VALUE_ANNOTATIONS) {
+            for (MethodParameter parameter : parameters.getParametersWith(annotation)) {
+                final int parameterIndex = parameter.getParameterIndex();
+                final Object argument = parameterIndex < arguments.length ? arguments[parameterIndex] : null;
+                final String key = parameter.getParameterName();
+                values.put(key, argument == null ? null : SpringActionInputParameter.format(CONVERSION_SERVICE,
+                        TypeDescriptor.nested(parameter, 0), argument));
+                if (SpringActionInputParameter.isRequiredTemplateVariable(parameter)) {
+                    requiredArgNames.add(key);
+                }
+            }
+        }
+        return requiredArgNames;
+    }
+
+    /**
+     * Creates the action descriptor of a handler method on first access.
+     */
+    private class MethodActionDescriptorSource implements ActionDescriptorSource {
+
+        private final Method invokedMethod;
+        private final Map<String, Object> values;
+        private final Object[] arguments;
+        private List<ActionDescriptor> actionDescriptors;
+
+        MethodActionDescriptorSource(Method invokedMethod, Map<String, Object> values, Object[] arguments) {
+            this.invokedMethod = invokedMethod;
+            this.values = new HashMap<String, Object>(values);
+            this.arguments = arguments;
+        }
+
+        @Override
+        public synchronized List<ActionDescriptor> getActionDescriptors() {
+            if (actionDescriptors == null) {
+                actionDescriptors = Collections.singletonList(createActionDescriptor(invokedMethod, values,
+                        arguments));
+            }
+            return actionDescriptors;
+        }
+    }
+
     private ActionDescriptor createActionDescriptor(Method invokedMethod,
                                                     Map<String, Object> values, Object[] arguments) {
         RequestMethod httpMethod = getHttpMethod(invokedMethod);
@@ -445,7 +537,8 @@ public class AffordanceBuilderFactory implements MethodLinkBuilderFactory<Afford
             } else {
                 argument = null;
             }
-            result.put(parameter.getParameterName(), new SpringActionInputParameter(parameter, argument));
+            result.put(parameter.getParameterName(), new SpringActionInputParameter(parameter, argument,
+                    CONVERSION_SERVICE));
         }
 
         return result;
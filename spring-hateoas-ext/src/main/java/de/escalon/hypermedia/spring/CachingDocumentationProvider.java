@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.spring;
+
+import de.escalon.hypermedia.affordance.ActionInputParameter;
+import de.escalon.hypermedia.instrument.Instrumentations;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Documentation provider which remembers the documentation urls of another documentation provider. Urls are cached per
+ * documented member and class of the content, hence the decorated provider must derive urls from the class of the
+ * content, not from its current value. This is what {@link StaticDocumentationProvider} implementations promise, and
+ * the message converters cache the urls of such providers, see {@link #of(DocumentationProvider)}. Other providers
+ * are used as they are, wrap them explicitly to cache their urls. Input parameters which are not backed by a method
+ * parameter are not cached. The number of cached urls is limited, since attribute names may come from map keys.
+ * Thread-safe if the decorated provider is thread-safe.
+ */
+public class CachingDocumentationProvider implements DocumentationProvider {
+
+    /**
+     * Default maximum number of cached urls.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static final String NO_URL = new String("no url");
+
+    private final DocumentationProvider delegate;
+    private final int maxEntries;
+    private final ConcurrentMap<CacheKey, String> urls = new ConcurrentHashMap<CacheKey, String>();
+
+    public CachingDocumentationProvider(DocumentationProvider delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates caching documentation provider.
+     *
+     * @param delegate
+     *         to cache urls of
+     * @param maxEntries
+     *         maximum number of cached urls, further urls are computed by the delegate on every call
+     */
+    public CachingDocumentationProvider(DocumentationProvider delegate, int maxEntries) {
+        Assert.notNull(delegate, "delegate must not be null");
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Wraps the given documentation provider into a caching documentation provider if it is a {@link
+     * StaticDocumentationProvider}, whose urls are safe to cache. Other providers, including providers which already
+     * cache, are returned unchanged, since their urls may depend on the content value.
+     *
+     * @param documentationProvider
+     *         to wrap
+     * @return caching documentation provider or the given provider
+     */
+    public static DocumentationProvider of(DocumentationProvider documentationProvider) {
+        if (documentationProvider instanceof StaticDocumentationProvider) {
+            return new CachingDocumentationProvider(documentationProvider);
+        }
+        return documentationProvider;
+    }
+
+    @Override
+    public String getDocumentationUrl(ActionInputParameter actionInputParameter, Object content) {
+        if (!(actionInputParameter instanceof SpringActionInputParameter)) {
+            return delegate.getDocumentationUrl(actionInputParameter, content);
+        }
+        CacheKey key = new CacheKey(((SpringActionInputParameter) actionInputParameter).getMethodParameter(),
+                content);
+        String url = lookup(key);
+        if (url == null) {
+            url = cache(key, delegate.getDocumentationUrl(actionInputParameter, content));
+        }
+        return url == NO_URL ? null : url;
+    }
+
+    @Override
+    public String getDocumentationUrl(Field field, Object content) {
+        CacheKey key = new CacheKey(field, content);
+        String url = lookup(key);
+        if (url == null) {
+            url = cache(key, delegate.getDocumentationUrl(field, content));
+        }
+        return url == NO_URL ? null : url;
+    }
+
+    @Override
+    public String getDocumentationUrl(Method method, Object content) {
+        CacheKey key = new CacheKey(method, content);
+        String url = lookup(key);
+        if (url == null) {
+            url = cache(key, delegate.getDocumentationUrl(method, content));
+        }
+        return url == NO_URL ? null : url;
+    }
+
+    @Override
+    public String getDocumentationUrl(Class clazz, Object content) {
+        CacheKey key = new CacheKey(clazz, content);
+        String url = lookup(key);
+        if (url == null) {
+            url = cache(key, delegate.getDocumentationUrl(clazz, content));
+        }
+        return url == NO_URL ? null : url;
+    }
+
+    @Override
+    public String getDocumentationUrl(String name, Object content) {
+        CacheKey key = new CacheKey(name, content);
+        String url = lookup(key);
+        if (url == null) {
+            url = cache(key, delegate.getDocumentationUrl(name, content));
+        }
+        return url == NO_URL ? null : url;
+    }
+
+    private String lookup(CacheKey key) {
+        String url = urls.get(key);
+        Instrumentations.cacheAccess("documentationUrls", url != null);
+        return url;
+    }
+
+    private String cache(CacheKey key, String url) {
+        String value = url == null ? NO_URL : url;
+        if (urls.size() < maxEntries) {
+            urls.putIfAbsent(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Number of cached urls.
+     *
+     * @return size of cache
+     */
+    public int size() {
+        return urls.size();
+    }
+
+    private static class CacheKey {
+        private final Object member;
+        private final Class<?> contentClass;
+
+        CacheKey(Object member, Object content) {
+            this.member = member;
+            this.contentClass = content == null ? null : content.getClass();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return member.equals(other.member) && contentClass == other.contentClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * member.hashCode() + (contentClass == null ? 0 : contentClass.hashCode());
+        }
+    }
+}
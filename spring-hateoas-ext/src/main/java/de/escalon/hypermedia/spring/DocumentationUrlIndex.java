@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.spring;
+
+import de.escalon.hypermedia.PropertyUtils;
+import de.escalon.hypermedia.affordance.ActionInputParameter;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable index of documentation urls, built once at startup for the model classes of an application. For every
+ * indexed class it holds the url of the class and the urls of its public fields and getters, computed for the
+ * declared type of the field or getter and for null values. Documentation urls of other members, of values having a
+ * subtype of the declared type and of attribute names are computed by the static documentation provider, cached by a
+ * {@link CachingDocumentationProvider}. Use the index as documentation provider of all converters to share it.
+ */
+public class DocumentationUrlIndex implements DocumentationProvider {
+
+    private final DocumentationProvider delegate;
+    private final Map<Object, IndexedUrls> index;
+
+    private DocumentationUrlIndex(StaticDocumentationProvider documentationProvider, Collection<Class<?>> classes) {
+        this.delegate = CachingDocumentationProvider.of(documentationProvider);
+        Map<Object, IndexedUrls> urls = new HashMap<Object, IndexedUrls>();
+        for (Class<?> clazz : classes) {
+            urls.put(clazz, new IndexedUrls(clazz, documentationProvider.getDocumentationUrlForType(clazz, clazz),
+                    documentationProvider.getDocumentationUrlForType(clazz, null)));
+            for (Field field : clazz.getFields()) {
+                Class<?> fieldType = ClassUtils.resolvePrimitiveIfNecessary(field.getType());
+                urls.put(field, new IndexedUrls(fieldType, documentationProvider.getDocumentationUrlForType(field,
+                        fieldType), documentationProvider.getDocumentationUrlForType(field, null)));
+            }
+            for (PropertyDescriptor propertyDescriptor : PropertyUtils.getPropertyDescriptors(clazz)
+                    .values()) {
+                Method readMethod = propertyDescriptor.getReadMethod();
+                if (readMethod != null && readMethod.getDeclaringClass() != Object.class) {
+                    Class<?> returnType = ClassUtils.resolvePrimitiveIfNecessary(readMethod.getReturnType());
+                    urls.put(readMethod, new IndexedUrls(returnType, documentationProvider.getDocumentationUrlForType
+                            (readMethod, returnType), documentationProvider.getDocumentationUrlForType(readMethod,
+                            null)));
+                }
+            }
+        }
+        this.index = Collections.unmodifiableMap(urls);
+    }
+
+    /**
+     * Builds index for the given classes.
+     *
+     * @param documentationProvider
+     *         to compute urls
+     * @param classes
+     *         to index
+     * @return index
+     */
+    public static DocumentationUrlIndex of(StaticDocumentationProvider documentationProvider, Class<?>... classes) {
+        return new DocumentationUrlIndex(documentationProvider, Arrays.asList(classes));
+    }
+
+    /**
+     * Builds index for all classes in the given packages and their subpackages, except for interfaces and inner
+     * classes.
+     *
+     * @param documentationProvider
+     *         to compute urls
+     * @param basePackages
+     *         to scan, e.g. the packages of exposed model classes
+     * @return index
+     */
+    public static DocumentationUrlIndex scan(StaticDocumentationProvider documentationProvider,
+                                             String... basePackages) {
+        Assert.notEmpty(basePackages, "at least one base package is required");
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        MetadataReaderFactory metadataReaderFactory = new CachingMetadataReaderFactory(resolver);
+        Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+        for (String basePackage : basePackages) {
+            String pattern = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + ClassUtils
+                    .convertClassNameToResourcePath(basePackage) + "/**/*.class";
+            try {
+                for (Resource resource : resolver.getResources(pattern)) {
+                    ClassMetadata classMetadata = metadataReaderFactory.getMetadataReader(resource)
+                            .getClassMetadata();
+                    if (!classMetadata.isInterface() && classMetadata.isIndependent()) {
+                        classes.add(ClassUtils.forName(classMetadata.getClassName(), resolver.getClassLoader()));
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to scan package " + basePackage, e);
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException("Failed to scan package " + basePackage, e);
+            }
+        }
+        return new DocumentationUrlIndex(documentationProvider, classes);
+    }
+
+    @Override
+    public String getDocumentationUrl(ActionInputParameter actionInputParameter, Object content) {
+        return delegate.getDocumentationUrl(actionInputParameter, content);
+    }
+
+    @Override
+    public String getDocumentationUrl(Field field, Object content) {
+        IndexedUrls indexedUrls = index.get(field);
+        if (indexedUrls != null && indexedUrls.covers(content)) {
+            return indexedUrls.get(content);
+        }
+        return delegate.getDocumentationUrl(field, content);
+    }
+
+    @Override
+    public String getDocumentationUrl(Method method, Object content) {
+        IndexedUrls indexedUrls = index.get(method);
+        if (indexedUrls != null && indexedUrls.covers(content)) {
+            return indexedUrls.get(content);
+        }
+        return delegate.getDocumentationUrl(method, content);
+    }
+
+    @Override
+    public String getDocumentationUrl(Class clazz, Object content) {
+        IndexedUrls indexedUrls = index.get(clazz);
+        if (indexedUrls != null && indexedUrls.covers(content)) {
+            return indexedUrls.get(content);
+        }
+        return delegate.getDocumentationUrl(clazz, content);
+    }
+
+    @Override
+    public String getDocumentationUrl(String name, Object content) {
+        return delegate.getDocumentationUrl(name, content);
+    }
+
+    /**
+     * Dumps the indexed urls for verification, computed for the declared types of members. Classes are listed by
+     * name, fields as <code>className#fieldName</code> and getters as <code>className#getterName()</code>.
+     *
+     * @return sorted urls by class and member, urls may be null
+     */
+    public SortedMap<String, String> dump() {
+        SortedMap<String, String> ret = new TreeMap<String, String>();
+        for (Map.Entry<Object, IndexedUrls> entry : index.entrySet()) {
+            Object key = entry.getKey();
+            String name;
+            if (key instanceof Class) {
+                name = ((Class<?>) key).getName();
+            } else if (key instanceof Field) {
+                Field field = (Field) key;
+                name = field.getDeclaringClass()
+                        .getName() + "#" + field.getName();
+            } else {
+                Method method = (Method) key;
+                name = method.getDeclaringClass()
+                        .getName() + "#" + method.getName() + "()";
+            }
+            ret.put(name, entry.getValue().url);
+        }
+        return ret;
+    }
+
+    /**
+     * Urls of a class or member, for content of the declared type and for null content.
+     */
+    private static class IndexedUrls {
+        private final Class<?> contentType;
+        private final String url;
+        private final String nullContentUrl;
+
+        IndexedUrls(Class<?> contentType, String url, String nullContentUrl) {
+            this.contentType = contentType;
+            this.url = url;
+            this.nullContentUrl = nullContentUrl;
+        }
+
+        boolean covers(Object content) {
+            return content == null || content.getClass() == contentType;
+        }
+
+        String get(Object content) {
+            return content == null ? nullContentUrl : url;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+package de.escalon.hypermedia.spring;
+
+import de.escalon.hypermedia.instrument.RenderingProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Profiles the rendering of a single response by a message converter. The response body is buffered while the
+ * response is rendered, so that the summary of the {@link RenderingProfile} can be sent in a response header before
+ * the body. The summary is also logged at debug level.
+ */
+public class RenderingProfiler {
+
+    /**
+     * Default name of the response header which holds the profile summary.
+     */
+    public static final String DEFAULT_PROFILE_HEADER = "X-Hypermedia-Profile";
+
+    private static final Logger LOG = LoggerFactory.getLogger(RenderingProfiler.class);
+
+    private RenderingProfiler() {
+
+    }
+
+    /**
+     * Renders a response body.
+     */
+    public interface Rendering {
+
+        /**
+         * Renders the response.
+         *
+         * @param outputMessage
+         *         to render to
+         * @throws IOException
+         *         if writing fails
+         */
+        void render(HttpOutputMessage outputMessage) throws IOException;
+    }
+
+    /**
+     * Renders the response, profiling the rendering if a profile header is given.
+     *
+     * @param outputMessage
+     *         to render to
+     * @param profileHeader
+     *         name of the response header for the profile summary, null to render without profiling
+     * @param rendering
+     *         which renders the response
+     * @throws IOException
+     *         if writing fails
+     */
+    public static void render(HttpOutputMessage outputMessage, String profileHeader, Rendering rendering) throws
+            IOException {
+        if (profileHeader == null) {
+            rendering.render(outputMessage);
+            return;
+        }
+        BufferedOutputMessage bufferedOutputMessage = new BufferedOutputMessage(outputMessage.getHeaders());
+        RenderingProfile profile = RenderingProfile.start();
+        try {
+            rendering.render(bufferedOutputMessage);
+        } finally {
+            profile.finish();
+        }
+        ByteArrayOutputStream body = bufferedOutputMessage.body;
+        profile.addBytesWritten(body.size());
+        String summary = profile.getSummary();
+        LOG.debug("rendered {}: {}", outputMessage.getHeaders()
+                .getContentType(), summary);
+        outputMessage.getHeaders()
+                .set(profileHeader, summary);
+        body.writeTo(outputMessage.getBody());
+    }
+
+    private static class BufferedOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(4096);
+
+        BufferedOutputMessage(HttpHeaders headers) {
+            this.headers = headers;
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.spring;
+
+import de.escalon.hypermedia.PropertyProjection;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Resolves the sparse fieldset of the current request, so that message converters render only the requested
+ * properties. Sparse fieldsets are opt-in, because a request parameter of the same name may already have a different
+ * meaning for an application. To enable them, set the parameter name on the message converter, e.g.
+ * <code>converter.setFieldsParam(RequestProjections.DEFAULT_FIELDS_PARAM)</code>.
+ */
+public class RequestProjections {
+
+    /**
+     * Default name of the request parameter which holds the sparse fieldset.
+     */
+    public static final String DEFAULT_FIELDS_PARAM = "fields";
+
+    private RequestProjections() {
+
+    }
+
+    /**
+     * Gets projection from the given request parameter of the current request.
+     *
+     * @param fieldsParam
+     *         name of the request parameter, null to select all properties
+     * @return projection, {@link PropertyProjection#ALL} if there is no current request or it has no such parameter
+     * @see PropertyProjection#parse(String)
+     */
+    public static PropertyProjection fromCurrentRequest(String fieldsParam) {
+        if (fieldsParam == null) {
+            return PropertyProjection.ALL;
+        }
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes instanceof ServletRequestAttributes) {
+            return PropertyProjection.parse(((ServletRequestAttributes) requestAttributes).getRequest()
+                    .getParameter(fieldsParam));
+        }
+        return PropertyProjection.ALL;
+    }
+}
@@ -50,7 +50,7 @@ public class SpringActionInputParameter implements ActionInputParameter {
     private Boolean arrayOrCollection = null;
     private Map<String, Object> inputConstraints = new HashMap<String, Object>();
 
-    private ConversionService conversionService = new DefaultFormattingConversionService();
+    private final ConversionService conversionService;
 
     /**
      * Creates action input parameter.
@@ -123,11 +123,26 @@ public class SpringActionInputParameter implements ActionInputParameter {
         if (value == null) {
             ret = null;
         } else {
-            ret = (String) conversionService.convert(value, typeDescriptor, TypeDescriptor.valueOf(String.class));
+            ret = format(conversionService, typeDescriptor, value);
         }
         return ret;
     }
 
+    /**
+     * Formats a non-null value of the given type as string.
+     *
+     * @param conversionService
+     *         to apply to value
+     * @param typeDescriptor
+     *         of the value
+     * @param value
+     *         to format, must not be null
+     * @return formatted value
+     */
+    static String format(ConversionService conversionService, TypeDescriptor typeDescriptor, Object value) {
+        return (String) conversionService.convert(value, typeDescriptor, TypeDescriptor.valueOf(String.class));
+    }
+
     /**
      * Gets HTML5 parameter type for input field according to {@link Type} annotation.
      *
@@ -361,7 +376,7 @@ public class SpringActionInputParameter implements ActionInputParameter {
         if (isRequestBody()) {
             ret = requestBody.required();
         } else if (isRequestParam()) {
-            ret = !(isDefined(requestParam.defaultValue()) || !requestParam.required());
+            ret = isRequired(requestParam);
         } else if (isRequestHeader()) {
             ret = !(isDefined(requestHeader.defaultValue()) || !requestHeader.required());
         } else {
@@ -370,7 +385,32 @@ public class SpringActionInputParameter implements ActionInputParameter {
         return ret;
     }
 
-    private boolean isDefined(String defaultValue) {
+    /**
+     * Decides if a method parameter must be given to expand the uri template, which is the case for path variables
+     * and for required request params without default value. Looks at the parameter annotations only, so that no
+     * action input parameter has to be created.
+     *
+     * @param methodParameter
+     *         to inspect
+     * @return true if required
+     * @see SpringActionDescriptor#getRequiredParameters()
+     */
+    static boolean isRequiredTemplateVariable(MethodParameter methodParameter) {
+        boolean ret;
+        if (methodParameter.getParameterAnnotation(PathVariable.class) != null) {
+            ret = true;
+        } else {
+            RequestParam requestParam = methodParameter.getParameterAnnotation(RequestParam.class);
+            ret = requestParam != null && isRequired(requestParam);
+        }
+        return ret;
+    }
+
+    private static boolean isRequired(RequestParam requestParam) {
+        return !(isDefined(requestParam.defaultValue()) || !requestParam.required());
+    }
+
+    private static boolean isDefined(String defaultValue) {
         return !ValueConstants.DEFAULT_NONE.equals(defaultValue);
     }
 
@@ -446,6 +486,15 @@ public class SpringActionInputParameter implements ActionInputParameter {
         return ret;
     }
 
+    /**
+     * Method or constructor parameter described by this action input parameter.
+     *
+     * @return method parameter
+     */
+    public MethodParameter getMethodParameter() {
+        return methodParameter;
+    }
+
     /**
      * Class which declares the method to which this input parameter belongs.
      *
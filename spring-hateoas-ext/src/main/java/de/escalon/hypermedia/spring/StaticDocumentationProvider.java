@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.spring;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Documentation provider which derives documentation urls from the type of the content rather than from the content
+ * itself, so that urls can be computed ahead of rendering.
+ *
+ * @see DocumentationUrlIndex
+ */
+public interface StaticDocumentationProvider extends DocumentationProvider {
+
+    /**
+     * Gets documentationUrl for given field.
+     *
+     * @param field
+     *         to document
+     * @param contentType
+     *         type of the field value, null for a null value
+     * @return url or null
+     */
+    String getDocumentationUrlForType(Field field, Class<?> contentType);
+
+    /**
+     * Gets documentationUrl for given method.
+     *
+     * @param method
+     *         to document
+     * @param contentType
+     *         type of the method result, null for a null result
+     * @return url or null
+     */
+    String getDocumentationUrlForType(Method method, Class<?> contentType);
+
+    /**
+     * Gets documentationUrl for given class.
+     *
+     * @param clazz
+     *         to document
+     * @param contentType
+     *         type of the content, null for null content
+     * @return url or null
+     */
+    String getDocumentationUrlForType(Class<?> clazz, Class<?> contentType);
+}
@@ -10,7 +10,7 @@ import java.lang.reflect.Method;
 /**
  * Provides documentation URLs by applying an URL prefix. Created by Dietrich on 27.04.2016.
  */
-public class UrlPrefixDocumentationProvider implements DocumentationProvider {
+public class UrlPrefixDocumentationProvider implements StaticDocumentationProvider {
 
     private String defaultUrlPrefix;
 
@@ -50,4 +50,19 @@ public class UrlPrefixDocumentationProvider implements DocumentationProvider {
     public String getDocumentationUrl(String name, Object content) {
         return defaultUrlPrefix + name;
     }
+
+    @Override
+    public String getDocumentationUrlForType(Field field, Class<?> contentType) {
+        return getDocumentationUrl(field, null);
+    }
+
+    @Override
+    public String getDocumentationUrlForType(Method method, Class<?> contentType) {
+        return getDocumentationUrl(method, null);
+    }
+
+    @Override
+    public String getDocumentationUrlForType(Class<?> clazz, Class<?> contentType) {
+        return getDocumentationUrl(clazz, null);
+    }
 }
@@ -22,4 +22,8 @@ public class AbstractSirenNode {
     public String getTitle() {
         return title;
     }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
 }
@@ -1,5 +1,7 @@
 package de.escalon.hypermedia.spring.siren;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -61,6 +63,7 @@ public class SirenEmbeddedRepresentation extends SirenSubEntity implements Siren
         this.links = links;
     }
 
+    @JsonSerialize(using = SirenPropertiesSerializer.class)
     public Map<String, Object> getProperties() {
         return properties;
     }
@@ -16,6 +16,8 @@ public interface SirenEntityContainer {
 
     void setSirenClasses(List<String> sirenClasses);
 
+    void setTitle(String title);
+
     void addSubEntity(SirenSubEntity sirenSubEntity);
 
     void setEmbeddedLinks(List<SirenEmbeddedLink> embeddedLinks);
@@ -0,0 +1,130 @@
+package de.escalon.hypermedia.spring.siren;
+
+import de.escalon.hypermedia.PropertyUtils;
+import de.escalon.hypermedia.action.Select;
+import de.escalon.hypermedia.action.StringOptions;
+import de.escalon.hypermedia.action.Type;
+import de.escalon.hypermedia.affordance.ActionDescriptor;
+import de.escalon.hypermedia.affordance.ActionInputParameter;
+import de.escalon.hypermedia.affordance.DataType;
+import de.escalon.hypermedia.spring.SpringActionInputParameter;
+import org.springframework.core.MethodParameter;
+import org.springframework.hateoas.Resource;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Describes a siren field for a bean property of a request body, everything but the current value. Created once per
+ * handler method and reused for every siren action of that method.
+ */
+class SirenFieldTemplate {
+
+    private final String name;
+    private final List<String> propertyPath;
+    private final MethodParameter methodParameter;
+    private final String type;
+    private final boolean arrayOrCollection;
+    private final Object[] possibleValues;
+
+    /**
+     * Creates field template.
+     *
+     * @param name
+     *         dot-separated name of the field
+     * @param propertyPath
+     *         property names leading from the request body bean to the field value
+     * @param methodParameter
+     *         constructor or setter parameter of the field
+     * @param annotatedParameter
+     *         request body which requires the bean
+     * @param actionDescriptor
+     *         which describes the method
+     */
+    SirenFieldTemplate(String name, List<String> propertyPath, MethodParameter methodParameter,
+                       ActionInputParameter annotatedParameter, ActionDescriptor actionDescriptor) {
+        this.name = name;
+        this.propertyPath = propertyPath;
+        this.methodParameter = methodParameter;
+        ActionInputParameter fieldParameter = new SpringActionInputParameter(methodParameter, null);
+        Type htmlInputFieldType = fieldParameter.getHtmlInputFieldType();
+        // TODO: null -> array or bean parameter without possible values
+        this.type = htmlInputFieldType == null ? "text" : htmlInputFieldType.name()
+                .toLowerCase();
+        this.arrayOrCollection = fieldParameter.isArrayOrCollection();
+        if (hasStaticPossibleValues(methodParameter)) {
+            this.possibleValues = annotatedParameter.getPossibleValues(methodParameter, actionDescriptor);
+        } else {
+            this.possibleValues = null;
+        }
+    }
+
+    /**
+     * Possible values computed by {@link de.escalon.hypermedia.action.Options} other than {@link StringOptions} or
+     * from other call values must be computed for every request.
+     */
+    private static boolean hasStaticPossibleValues(MethodParameter methodParameter) {
+        Select select = methodParameter.getParameterAnnotation(Select.class);
+        return select == null || (select.args().length == 0 && select.options() == StringOptions.class);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Creates siren field with the current value of the field in the given request body.
+     *
+     * @param requestBodyValue
+     *         current call value of the request body, may be null
+     * @param annotatedParameter
+     *         request body which requires the bean
+     * @param actionDescriptor
+     *         which describes the method
+     * @return siren field
+     */
+    SirenField createSirenField(Object requestBodyValue, ActionInputParameter annotatedParameter,
+                                ActionDescriptor actionDescriptor) {
+        Object propertyValue = getPropertyValue(requestBodyValue);
+        Object[] possibleValues = this.possibleValues != null ? this.possibleValues :
+                annotatedParameter.getPossibleValues(methodParameter, actionDescriptor);
+        return SirenUtils.createSirenField(name, propertyValue, type, arrayOrCollection, getValues(propertyValue),
+                possibleValues);
+    }
+
+    private Object getPropertyValue(Object requestBodyValue) {
+        Object value = requestBodyValue;
+        for (int i = 0; i < propertyPath.size() && value != null; i++) {
+            if (i > 0 && value instanceof Resource) {
+                value = ((Resource) value).getContent();
+            }
+            value = PropertyUtils.getPropertyOrFieldValue(value, propertyPath.get(i));
+        }
+        return value;
+    }
+
+    private Object[] getValues(Object propertyValue) {
+        Object[] ret;
+        if (!arrayOrCollection || propertyValue == null) {
+            ret = new Object[0];
+        } else if (propertyValue instanceof Collection) {
+            ret = ((Collection<?>) propertyValue).toArray();
+        } else if (propertyValue instanceof Object[]) {
+            ret = (Object[]) propertyValue;
+        } else {
+            ret = new Object[0];
+        }
+        return ret;
+    }
+
+    /**
+     * Tells whether the given type is rendered as a single siren field, as opposed to a nested bean.
+     *
+     * @param parameterType
+     *         to check
+     * @return true if single field
+     */
+    static boolean isFieldType(Class<?> parameterType) {
+        return DataType.isSingleValueType(parameterType) || DataType.isArrayOrCollection(parameterType);
+    }
+}
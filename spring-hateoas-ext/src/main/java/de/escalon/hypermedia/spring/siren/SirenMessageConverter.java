@@ -5,7 +5,12 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import de.escalon.hypermedia.instrument.Instrumentation;
+import de.escalon.hypermedia.instrument.Instrumentations;
 import de.escalon.hypermedia.spring.DocumentationProvider;
+import de.escalon.hypermedia.spring.HypermediaTypes;
+import de.escalon.hypermedia.spring.RenderingProfiler;
+import de.escalon.hypermedia.spring.RequestProjections;
 import org.springframework.hateoas.RelProvider;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
@@ -17,6 +22,7 @@ import org.springframework.http.converter.HttpMessageNotWritableException;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.util.Collection;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Http message converter which converts Spring Hateoas resource beans to siren messages. Treats the following rels as
@@ -26,6 +32,8 @@ public class SirenMessageConverter extends AbstractHttpMessageConverter<Object>
 
     private final SirenUtils sirenUtils;
     ObjectMapper objectMapper = new ObjectMapper();
+    private String fieldsParam;
+    private String profileHeader;
 
     public SirenMessageConverter() {
         sirenUtils = new SirenUtils();
@@ -73,6 +81,108 @@ public class SirenMessageConverter extends AbstractHttpMessageConverter<Object>
     }
 
 
+    /**
+     * Enables parallel conversion of large collections on the given executor.
+     *
+     * @param executorService
+     *         dedicated to conversion, null for sequential conversion
+     * @see SirenUtils#setExecutorService(ExecutorService)
+     */
+    public void setExecutorService(ExecutorService executorService) {
+        sirenUtils.setExecutorService(executorService);
+    }
+
+    /**
+     * Sets minimum collection size for parallel conversion.
+     *
+     * @param parallelThreshold
+     *         minimum number of items
+     * @see SirenUtils#setParallelThreshold(int)
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        sirenUtils.setParallelThreshold(parallelThreshold);
+    }
+
+    /**
+     * Sets the number of chunks for parallel conversion.
+     *
+     * @param parallelism
+     *         number of chunks
+     * @see SirenUtils#setParallelism(int)
+     */
+    public void setParallelism(int parallelism) {
+        sirenUtils.setParallelism(parallelism);
+    }
+
+    /**
+     * Sets maximum number of nested beans on a traversal path.
+     *
+     * @param maxDepth
+     *         maximum depth
+     * @see SirenUtils#setMaxDepth(int)
+     */
+    public void setMaxDepth(int maxDepth) {
+        sirenUtils.setMaxDepth(maxDepth);
+    }
+
+    /**
+     * Sets maximum number of beans converted per response.
+     *
+     * @param maxNodes
+     *         maximum number of beans
+     * @see SirenUtils#setMaxNodes(int)
+     */
+    public void setMaxNodes(int maxNodes) {
+        sirenUtils.setMaxNodes(maxNodes);
+    }
+
+    /**
+     * Sets name of the request parameter which selects the properties to render, e.g.
+     * <code>fields=name,address.street</code>. Not set by default, so all properties are rendered.
+     *
+     * @param fieldsParam
+     *         parameter name, e.g. {@link RequestProjections#DEFAULT_FIELDS_PARAM}, null to always render all
+     *         properties
+     * @see RequestProjections
+     * @see SirenUtils#toSirenEntity(SirenEntityContainer, Object, de.escalon.hypermedia.PropertyProjection)
+     */
+    public void setFieldsParam(String fieldsParam) {
+        this.fieldsParam = fieldsParam;
+    }
+
+    /**
+     * Enables profiling of every response written by this converter. The time spent per rendering phase, the number
+     * of rendered objects and the number of bytes written are sent in a response header and logged at debug level.
+     * Profiled responses are buffered before they are sent.
+     *
+     * @param profileHeader
+     *         name of the response header, e.g. {@link RenderingProfiler#DEFAULT_PROFILE_HEADER}, null to disable
+     *         profiling
+     */
+    public void setProfileHeader(String profileHeader) {
+        this.profileHeader = profileHeader;
+    }
+
+    /**
+     * Number of siren actions rendered from cached field templates.
+     *
+     * @return cache hits
+     * @see SirenUtils#getActionCacheHits()
+     */
+    public long getActionCacheHits() {
+        return sirenUtils.getActionCacheHits();
+    }
+
+    /**
+     * Number of siren actions for which field templates had to be created.
+     *
+     * @return cache misses
+     * @see SirenUtils#getActionCacheMisses()
+     */
+    public long getActionCacheMisses() {
+        return sirenUtils.getActionCacheMisses();
+    }
+
     @Override
     protected boolean supports(Class<?> clazz) {
         return true;
@@ -85,10 +195,26 @@ public class SirenMessageConverter extends AbstractHttpMessageConverter<Object>
     }
 
     @Override
-    protected void writeInternal(Object o, HttpOutputMessage outputMessage) throws IOException,
+    protected void writeInternal(final Object o, HttpOutputMessage outputMessage) throws IOException,
+            HttpMessageNotWritableException {
+        Instrumentation instrumentation = Instrumentations.get();
+        long start = instrumentation.startTimer();
+        try {
+            RenderingProfiler.render(outputMessage, profileHeader, new RenderingProfiler.Rendering() {
+                @Override
+                public void render(HttpOutputMessage profiledMessage) throws IOException {
+                    writeMessage(o, profiledMessage);
+                }
+            });
+        } finally {
+            instrumentation.stopTimer(Instrumentation.CONVERTER_WRITE, HypermediaTypes.SIREN_JSON.toString(), start);
+        }
+    }
+
+    private void writeMessage(Object o, HttpOutputMessage outputMessage) throws IOException,
             HttpMessageNotWritableException {
         SirenEntity entity = new SirenEntity();
-        sirenUtils.toSirenEntity(entity, o);
+        sirenUtils.toSirenEntity(entity, o, RequestProjections.fromCurrentRequest(fieldsParam));
 
         JsonEncoding encoding = getJsonEncoding(outputMessage.getHeaders()
                 .getContentType());
@@ -0,0 +1,53 @@
+package de.escalon.hypermedia.spring.siren;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import de.escalon.hypermedia.affordance.ScalarWriter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes siren properties. Numbers and booleans are written by the {@link ScalarWriter} of their type, nested property
+ * maps are written the same way, other values such as enums and dates by the serializer Jackson finds for them.
+ */
+public class SirenPropertiesSerializer extends StdSerializer<Map<String, Object>> {
+
+    @SuppressWarnings("unchecked")
+    public SirenPropertiesSerializer() {
+        super((Class<Map<String, Object>>) (Class<?>) Map.class);
+    }
+
+    @Override
+    public boolean isEmpty(Map<String, Object> value) {
+        return value == null || value.isEmpty();
+    }
+
+    @Override
+    public void serialize(Map<String, Object> properties, JsonGenerator jgen, SerializerProvider provider) throws
+            IOException {
+        jgen.writeStartObject();
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            jgen.writeFieldName(entry.getKey());
+            writeValue(entry.getValue(), jgen, provider);
+        }
+        jgen.writeEndObject();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeValue(Object value, JsonGenerator jgen, SerializerProvider provider) throws IOException {
+        if (value == null) {
+            jgen.writeNull();
+            return;
+        }
+        ScalarWriter scalarWriter = ScalarWriter.forType(value.getClass());
+        if (scalarWriter != null) {
+            scalarWriter.write(jgen, value);
+        } else if (value instanceof Map) {
+            serialize((Map<String, Object>) value, jgen, provider);
+        } else {
+            provider.defaultSerializeValue(value, jgen);
+        }
+    }
+}
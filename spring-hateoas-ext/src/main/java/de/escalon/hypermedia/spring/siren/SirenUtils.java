@@ -10,16 +10,30 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.escalon.hypermedia.BeanPlan;
+import de.escalon.hypermedia.BeanPlan.BeanProperty;
+import de.escalon.hypermedia.PropertyProjection;
 import de.escalon.hypermedia.PropertyUtils;
+import de.escalon.hypermedia.TraversalGuard;
 import de.escalon.hypermedia.action.Type;
 import de.escalon.hypermedia.affordance.ActionDescriptor;
 import de.escalon.hypermedia.affordance.ActionInputParameter;
 import de.escalon.hypermedia.affordance.Affordance;
 import de.escalon.hypermedia.affordance.DataType;
+import de.escalon.hypermedia.instrument.Instrumentations;
+import de.escalon.hypermedia.instrument.RenderingProfile;
+import de.escalon.hypermedia.spring.CachingDocumentationProvider;
 import de.escalon.hypermedia.spring.DefaultDocumentationProvider;
 import de.escalon.hypermedia.spring.DocumentationProvider;
 import de.escalon.hypermedia.spring.SpringActionInputParameter;
@@ -34,8 +48,6 @@ import org.springframework.util.ObjectUtils;
  */
 public class SirenUtils {
 
-    private static final Set<String> FILTER_RESOURCE_SUPPORT = new HashSet<String>(Arrays.asList("class", "links",
-            "id"));
     private String requestMediaType;
 
     private Set<String> navigationalRels = new HashSet<String>(Arrays.asList("self", "next", "previous", "prev"));
@@ -44,44 +56,96 @@ public class SirenUtils {
 
     private DocumentationProvider documentationProvider = new DefaultDocumentationProvider();
 
+    /**
+     * Default minimum collection size for parallel conversion of collection items.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 256;
+
+    private static final int MIN_CHUNK_SIZE = 32;
+
+    /**
+     * Marks threads which convert a chunk of collection items, nested collections are converted sequentially there.
+     */
+    private static final ThreadLocal<Boolean> CONVERTING_CHUNK = new ThreadLocal<Boolean>();
+
+    private ExecutorService executorService;
+
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    private int parallelism = Runtime.getRuntime()
+            .availableProcessors();
+
+    private int maxDepth = TraversalGuard.DEFAULT_MAX_DEPTH;
+
+    private int maxNodes = TraversalGuard.DEFAULT_MAX_NODES;
+
+    private final ConcurrentMap<ActionKey, List<SirenFieldTemplate>> actionFieldTemplates =
+            new ConcurrentHashMap<ActionKey, List<SirenFieldTemplate>>();
+
+    private final AtomicLong actionCacheHits = new AtomicLong();
+
+    private final AtomicLong actionCacheMisses = new AtomicLong();
+
     public void toSirenEntity(SirenEntityContainer objectNode, Object object) {
+        toSirenEntity(objectNode, object, PropertyProjection.ALL);
+    }
+
+    /**
+     * Converts the properties of the given object which are selected by the projection. Properties which are not
+     * selected are neither read nor rendered, neither are the sub-entities and links they would contribute.
+     *
+     * @param objectNode
+     *         to convert to
+     * @param object
+     *         to convert
+     * @param projection
+     *         selected properties
+     */
+    public void toSirenEntity(SirenEntityContainer objectNode, Object object, PropertyProjection projection) {
+        toSirenEntity(objectNode, object, projection, new TraversalGuard(maxDepth, maxNodes));
+    }
+
+    private void toSirenEntity(SirenEntityContainer objectNode, Object object, PropertyProjection projection,
+                               TraversalGuard guard) {
         if (object == null) {
             return;
         }
+        boolean bean = !(object instanceof Resource || object instanceof Resources || object instanceof Collection);
+        if (bean && !guard.enter(object)) {
+            objectNode.setSirenClasses(getSirenClasses(object));
+            objectNode.setTitle(TraversalGuard.getPlaceholder(object));
+            return;
+        }
         try {
             if (object instanceof Resource) {
                 Resource<?> resource = (Resource<?>) object;
-                objectNode.setLinks(this.toSirenLinks(
-                        getNavigationalLinks(resource.getLinks())));
-                objectNode.setEmbeddedLinks(this.toSirenEmbeddedLinks(
-                        getEmbeddedLinks(resource.getLinks())));
-                objectNode.setActions(this.toSirenActions(getActions(resource.getLinks())));
-                toSirenEntity(objectNode, resource.getContent());
+                ClassifiedLinks classifiedLinks = classifyLinks(resource.getLinks());
+                objectNode.setLinks(this.toSirenLinks(classifiedLinks.navigationalLinks));
+                objectNode.setEmbeddedLinks(this.toSirenEmbeddedLinks(classifiedLinks.embeddedLinks));
+                objectNode.setActions(this.toSirenActions(classifiedLinks.actions));
+                toSirenEntity(objectNode, resource.getContent(), projection, guard);
                 return;
             } else if (object instanceof Resources) {
                 Resources<?> resources = (Resources<?>) object;
+                ClassifiedLinks classifiedLinks = classifyLinks(resources.getLinks());
 
-                objectNode.setLinks(this.toSirenLinks(getNavigationalLinks(resources.getLinks())));
+                objectNode.setLinks(this.toSirenLinks(classifiedLinks.navigationalLinks));
                 Collection<?> content = resources.getContent();
-                toSirenEntity(objectNode, content);
-                objectNode.setActions(this.toSirenActions(getActions(resources.getLinks())));
+                toSirenEntity(objectNode, content, projection, guard);
+                objectNode.setActions(this.toSirenActions(classifiedLinks.actions));
                 return;
             } else if (object instanceof ResourceSupport) {
                 ResourceSupport resource = (ResourceSupport) object;
-                objectNode.setLinks(this.toSirenLinks(
-                        getNavigationalLinks(resource.getLinks())));
-                objectNode.setEmbeddedLinks(this.toSirenEmbeddedLinks(
-                        getEmbeddedLinks(resource.getLinks())));
-                objectNode.setActions(this.toSirenActions(
-                        getActions(resource.getLinks())));
+                ClassifiedLinks classifiedLinks = classifyLinks(resource.getLinks());
+                objectNode.setLinks(this.toSirenLinks(classifiedLinks.navigationalLinks));
+                objectNode.setEmbeddedLinks(this.toSirenEmbeddedLinks(classifiedLinks.embeddedLinks));
+                objectNode.setActions(this.toSirenActions(classifiedLinks.actions));
 
                 // wrap object attributes below to avoid endless loop
 
             } else if (object instanceof Collection) {
                 Collection<?> collection = (Collection<?>) object;
-                for (Object item : collection) {
-                    SirenEmbeddedRepresentation child = new SirenEmbeddedRepresentation();
-                    toSirenEntity(child, item);
+                for (SirenEmbeddedRepresentation child : toSirenSubEntities(collection, projection, guard)) {
                     objectNode.addSubEntity(child);
                 }
                 return;
@@ -93,19 +157,103 @@ public class SirenUtils {
                 for (Map.Entry<?, ?> entry : map.entrySet()) {
                     String key = entry.getKey()
                             .toString();
+                    if (!projection.includes(key)) {
+                        continue;
+                    }
                     Object content = entry.getValue();
 
                     String docUrl = documentationProvider.getDocumentationUrl(key, content);
-                    traverseAttribute(objectNode, propertiesNode, key, docUrl, content);
+                    traverseAttribute(objectNode, propertiesNode, key, docUrl, content, projection.forProperty(key),
+                            guard);
                 }
             } else { // bean or ResourceSupport
                 objectNode.setSirenClasses(getSirenClasses(object));
                 Map<String, Object> propertiesNode = new HashMap<String, Object>();
-                createRecursiveSirenEntitiesFromPropertiesAndFields(objectNode, propertiesNode, object);
+                createRecursiveSirenEntitiesFromPropertiesAndFields(objectNode, propertiesNode, object, projection,
+                        guard);
                 objectNode.setProperties(propertiesNode);
             }
         } catch (Exception ex) {
             throw new RuntimeException("failed to transform object " + object, ex);
+        } finally {
+            if (bean) {
+                guard.leave(object);
+            }
+        }
+    }
+
+    /**
+     * Converts collection items to embedded representations, preserving the order of the collection. Large
+     * collections are converted in parallel chunks if an executor service is set.
+     *
+     * @param collection
+     *         to convert
+     * @param projection
+     *         selected properties of the items
+     * @param guard
+     *         of the current traversal
+     * @return embedded representations
+     * @see #setExecutorService(ExecutorService)
+     * @see #setParallelThreshold(int)
+     * @see #setParallelism(int)
+     */
+    private List<SirenEmbeddedRepresentation> toSirenSubEntities(Collection<?> collection,
+                                                                 final PropertyProjection projection,
+                                                                 TraversalGuard guard) throws InterruptedException,
+            ExecutionException {
+        final Object[] items = collection.toArray();
+        final SirenEmbeddedRepresentation[] children = new SirenEmbeddedRepresentation[items.length];
+        if (executorService == null || items.length < parallelThreshold || CONVERTING_CHUNK.get() != null) {
+            convertItems(items, children, 0, items.length, projection, guard);
+        } else {
+            int chunkSize = Math.max(MIN_CHUNK_SIZE, (items.length + parallelism - 1) / parallelism);
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            try {
+                // the calling thread converts the first chunk itself
+                for (int start = chunkSize; start < items.length; start += chunkSize) {
+                    final int from = start;
+                    final int to = Math.min(start + chunkSize, items.length);
+                    final TraversalGuard chunkGuard = guard.fork();
+                    final RenderingProfile profile = RenderingProfile.current();
+                    futures.add(executorService.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() throws Exception {
+                            CONVERTING_CHUNK.set(Boolean.TRUE);
+                            RenderingProfile previousProfile = RenderingProfile.attach(profile);
+                            try {
+                                convertItems(items, children, from, to, projection, chunkGuard);
+                            } finally {
+                                RenderingProfile.attach(previousProfile);
+                                CONVERTING_CHUNK.remove();
+                            }
+                            return null;
+                        }
+                    }));
+                }
+                convertItems(items, children, 0, Math.min(chunkSize, items.length), projection, guard);
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                // keep the interrupt visible to the caller, toSirenEntity wraps the exception
+                Thread.currentThread()
+                        .interrupt();
+                throw e;
+            } finally {
+                for (Future<?> future : futures) {
+                    future.cancel(true);
+                }
+            }
+        }
+        return Arrays.asList(children);
+    }
+
+    private void convertItems(Object[] items, SirenEmbeddedRepresentation[] children, int from, int to,
+                              PropertyProjection projection, TraversalGuard guard) {
+        for (int i = from; i < to; i++) {
+            SirenEmbeddedRepresentation child = new SirenEmbeddedRepresentation();
+            toSirenEntity(child, items[i], projection, guard);
+            children[i] = child;
         }
     }
 
@@ -120,100 +268,96 @@ public class SirenUtils {
         return sirenClasses;
     }
 
-    private List<Link> getEmbeddedLinks(List<Link> links) {
-        List<Link> ret = new ArrayList<Link>();
-        for (Link link : links) {
-            if (!navigationalRels.contains(link.getRel())) {
-                if (link instanceof Affordance) {
-                    Affordance affordance = (Affordance) link;
-                    List<ActionDescriptor> actionDescriptors = affordance.getActionDescriptors();
-                    for (ActionDescriptor actionDescriptor : actionDescriptors) {
-                        if ("GET".equals(actionDescriptor.getHttpMethod()) && !affordance.isTemplated()) {
-                            ret.add(link);
-                        }
-                    }
-                } else {
-                    // templated links are actions, not embedded links
-                    if(!link.isTemplated()) {
-                        ret.add(link);
-                    }
-                }
-            }
+    /**
+     * Sorts links into navigational links, embedded links and actions in a single pass.
+     *
+     * @param links
+     *         to classify
+     * @return classified links
+     */
+    private ClassifiedLinks classifyLinks(List<Link> links) {
+        RenderingProfile.Phase previousPhase = RenderingProfile.startPhase(RenderingProfile.Phase.LINKS);
+        try {
+            return createClassifiedLinks(links);
+        } finally {
+            RenderingProfile.endPhase(previousPhase);
         }
-        return ret;
     }
 
-    private List<Link> getNavigationalLinks(List<Link> links) {
-        List<Link> ret = new ArrayList<Link>();
+    private ClassifiedLinks createClassifiedLinks(List<Link> links) {
+        ClassifiedLinks ret = new ClassifiedLinks();
         for (Link link : links) {
-            if (navigationalRels.contains(link.getRel())) {
-                ret.add(link);
+            boolean navigational = navigationalRels.contains(link.getRel());
+            if (navigational) {
+                ret.navigationalLinks = add(ret.navigationalLinks, link);
             }
-        }
-        return ret;
-    }
-
-    private List<Link> getActions(List<Link> links) {
-        List<Link> ret = new ArrayList<Link>();
-        for (Link link : links) {
             if (link instanceof Affordance) {
                 Affordance affordance = (Affordance) link;
-
-                List<ActionDescriptor> actionDescriptors = affordance.getActionDescriptors();
-                for (ActionDescriptor actionDescriptor : actionDescriptors) {
-                    // non-self GET non-GET and templated links are actions
-                    if (!("GET".equals(actionDescriptor.getHttpMethod())) || affordance.isTemplated()) {
-                        ret.add(link);
-                        // add just once for eligible link
-                        break;
-                    }
+                // non-GET and templated affordances are actions, plain GET affordances are embedded links
+                if (affordance.hasUnsafeActions() || (affordance.isTemplated() && affordance.hasSafeActions())) {
+                    ret.actions = add(ret.actions, link);
                 }
-            } else {
-                // templated links are actions
-                if (!navigationalRels.contains(link.getRel()) && link.isTemplated()) {
-                    ret.add(link);
+                if (!navigational && affordance.hasSafeActions() && !affordance.isTemplated()) {
+                    ret.embeddedLinks = add(ret.embeddedLinks, link);
+                }
+            } else if (!navigational) {
+                // templated links are actions, not embedded links
+                if (link.isTemplated()) {
+                    ret.actions = add(ret.actions, link);
+                } else {
+                    ret.embeddedLinks = add(ret.embeddedLinks, link);
                 }
             }
         }
         return ret;
     }
 
+    private static List<Link> add(List<Link> links, Link link) {
+        List<Link> ret = links.isEmpty() ? new ArrayList<Link>() : links;
+        ret.add(link);
+        return ret;
+    }
+
+    /**
+     * Links of a resource, sorted by the siren element they are rendered as.
+     */
+    private static class ClassifiedLinks {
+        List<Link> navigationalLinks = Collections.emptyList();
+        List<Link> embeddedLinks = Collections.emptyList();
+        List<Link> actions = Collections.emptyList();
+    }
+
 
     private void createRecursiveSirenEntitiesFromPropertiesAndFields(SirenEntityContainer objectNode, Map<String,
             Object> propertiesNode,
-                                                                     Object object) throws InvocationTargetException,
+                                                                     Object object, PropertyProjection projection,
+                                                                     TraversalGuard guard) throws
+            InvocationTargetException,
             IllegalAccessException {
-        Map<String, PropertyDescriptor> propertyDescriptors = PropertyUtils.getPropertyDescriptors(object);
-        for (PropertyDescriptor propertyDescriptor : propertyDescriptors.values()) {
-            String name = propertyDescriptor.getName();
-            if (FILTER_RESOURCE_SUPPORT.contains(name)) {
-                continue;
-            }
-
-            Method readMethod = propertyDescriptor.getReadMethod();
-            if (readMethod != null) {
-                Object content = readMethod
-                        .invoke(object);
-                String docUrl = documentationProvider.getDocumentationUrl(readMethod, content);
-                traverseAttribute(objectNode, propertiesNode, name, docUrl, content);
+        BeanPlan plan = BeanPlan.forClass(object.getClass());
+        for (BeanProperty property : plan.getProperties()) {
+            String name = property.getName();
+            if (projection.includes(name)) {
+                Object content = property.getValue(object);
+                String docUrl = documentationProvider.getDocumentationUrl(property.getReadMethod(), content);
+                traverseAttribute(objectNode, propertiesNode, name, docUrl, content, projection.forProperty(name),
+                        guard);
             }
         }
-
-        Field[] fields = object.getClass()
-                .getFields();
-        for (Field field : fields) {
+        for (BeanProperty field : plan.getFields()) {
             String name = field.getName();
-            if (!propertyDescriptors.containsKey(name)) {
-                Object content = field.get(object);
-                String docUrl = documentationProvider.getDocumentationUrl(field, content);
-                traverseAttribute(objectNode, propertiesNode, name, docUrl, content);
+            if (projection.includes(name)) {
+                Object content = field.getValue(object);
+                String docUrl = documentationProvider.getDocumentationUrl(field.getField(), content);
+                traverseAttribute(objectNode, propertiesNode, name, docUrl, content, projection.forProperty(name),
+                        guard);
             }
         }
     }
 
     private void traverseAttribute(SirenEntityContainer objectNode, Map<String, Object> propertiesNode,
-                                   String name, String docUrl, Object content) throws
-            InvocationTargetException, IllegalAccessException {
+                                   String name, String docUrl, Object content, PropertyProjection projection,
+                                   TraversalGuard guard) throws InvocationTargetException, IllegalAccessException {
         Object value = getContentAsScalarValue(content);
 
         if (value != NULL_VALUE) {
@@ -222,9 +366,9 @@ public class SirenUtils {
                 propertiesNode.put(name, value);
             } else {
                 if (content instanceof Resources) {
-                    toSirenEntity(objectNode, content);
+                    toSirenEntity(objectNode, content, projection, guard);
                 } else if (content instanceof ResourceSupport) {
-                    traverseSingleSubEntity(objectNode, content, name, docUrl);
+                    traverseSingleSubEntity(objectNode, content, name, docUrl, projection, guard);
                 } else if (content instanceof Collection) {
                     Collection<?> collection = (Collection<?>) content;
                     for (Object item : collection) {
@@ -238,7 +382,7 @@ public class SirenUtils {
                                 ((Collection) listObject).add(item);
                             }
                         } else if (item != null) {
-                            traverseSingleSubEntity(objectNode, item, name, docUrl);
+                            traverseSingleSubEntity(objectNode, item, name, docUrl, projection, guard);
                         }
                     }
                 } else if (content instanceof Map) {
@@ -246,19 +390,31 @@ public class SirenUtils {
                     Map<String, Object> subProperties = new HashMap<String, Object>();
                     propertiesNode.put(name, subProperties);
                     for (Map.Entry<String, Object> entry : entries) {
-                        traverseAttribute(objectNode, subProperties, entry.getKey(), docUrl, entry.getValue());
+                        String key = entry.getKey();
+                        if (projection.includes(key)) {
+                            traverseAttribute(objectNode, subProperties, key, docUrl, entry.getValue(),
+                                    projection.forProperty(key), guard);
+                        }
                     }
+                } else if (!guard.enter(content)) {
+                    propertiesNode.put(name, TraversalGuard.getPlaceholder(content));
                 } else {
-                    Map<String, Object> nestedProperties = new HashMap<String, Object>();
-                    propertiesNode.put(name, nestedProperties);
-                    createRecursiveSirenEntitiesFromPropertiesAndFields(objectNode, nestedProperties, content);
+                    try {
+                        Map<String, Object> nestedProperties = new HashMap<String, Object>();
+                        propertiesNode.put(name, nestedProperties);
+                        createRecursiveSirenEntitiesFromPropertiesAndFields(objectNode, nestedProperties, content,
+                                projection, guard);
+                    } finally {
+                        guard.leave(content);
+                    }
                 }
             }
         }
     }
 
     private void traverseSingleSubEntity(SirenEntityContainer objectNode, Object content,
-                                         String name, String docUrl)
+                                         String name, String docUrl, PropertyProjection projection,
+                                         TraversalGuard guard)
             throws InvocationTargetException, IllegalAccessException {
 
         Object bean;
@@ -274,21 +430,51 @@ public class SirenUtils {
             links = Collections.emptyList();
         }
 
-        Map<String, Object> properties = new HashMap<String, Object>();
         List<String> rels = Collections.singletonList(docUrl != null ? docUrl : name);
+        if (!guard.enter(bean)) {
+            // refer to resources which are already on the current path
+            String id = TraversalGuard.getId(content);
+            if (id != null) {
+                objectNode.addSubEntity(new SirenEmbeddedLink(getSirenClasses(bean), rels, id, null, null));
+            } else {
+                objectNode.addSubEntity(new SirenEmbeddedRepresentation(getSirenClasses(bean), null, null, null,
+                        null, rels, TraversalGuard.getPlaceholder(bean)));
+            }
+            return;
+        }
+        try {
+            traverseSubEntity(objectNode, bean, links, rels, projection, guard);
+        } finally {
+            guard.leave(bean);
+        }
+    }
+
+    private void traverseSubEntity(SirenEntityContainer objectNode, Object bean, List<Link> links, List<String> rels,
+                                   PropertyProjection projection, TraversalGuard guard) throws InvocationTargetException, IllegalAccessException {
+        Map<String, Object> properties = new HashMap<String, Object>();
+        ClassifiedLinks classifiedLinks = classifyLinks(links);
         SirenEmbeddedRepresentation subEntity = new SirenEmbeddedRepresentation(
-                getSirenClasses(bean), properties, null, toSirenActions(getActions(links)),
-                toSirenLinks(getNavigationalLinks(links)), rels, null);
+                getSirenClasses(bean), properties, null, toSirenActions(classifiedLinks.actions),
+                toSirenLinks(classifiedLinks.navigationalLinks), rels, null);
         //subEntity.setProperties(properties);
         objectNode.addSubEntity(subEntity);
-        List<SirenEmbeddedLink> sirenEmbeddedLinks = toSirenEmbeddedLinks(getEmbeddedLinks(links));
+        List<SirenEmbeddedLink> sirenEmbeddedLinks = toSirenEmbeddedLinks(classifiedLinks.embeddedLinks);
         for (SirenEmbeddedLink sirenEmbeddedLink : sirenEmbeddedLinks) {
             subEntity.addSubEntity(sirenEmbeddedLink);
         }
-        createRecursiveSirenEntitiesFromPropertiesAndFields(subEntity, properties, bean);
+        createRecursiveSirenEntitiesFromPropertiesAndFields(subEntity, properties, bean, projection, guard);
     }
 
     private List<SirenAction> toSirenActions(List<Link> links) {
+        RenderingProfile.Phase previousPhase = RenderingProfile.startPhase(RenderingProfile.Phase.FORMS);
+        try {
+            return createSirenActions(links);
+        } finally {
+            RenderingProfile.endPhase(previousPhase);
+        }
+    }
+
+    private List<SirenAction> createSirenActions(List<Link> links) {
         List<SirenAction> ret = new ArrayList<SirenAction>();
         for (Link link : links) {
             if (link instanceof Affordance) {
@@ -296,7 +482,7 @@ public class SirenUtils {
                 List<ActionDescriptor> actionDescriptors = affordance.getActionDescriptors();
                 for (ActionDescriptor actionDescriptor : actionDescriptors) {
                     List<SirenField> fields = toSirenFields(actionDescriptor);
-                    // TODO integrate getActions and this method so we do not need this check:
+                    // affordances are classified as a whole, check each descriptor:
                     // only templated affordances or non-get affordances are actions
                     if (!"GET".equals(actionDescriptor.getHttpMethod()) || affordance.isTemplated()) {
                         String href;
@@ -353,10 +539,11 @@ public class SirenUtils {
     private List<SirenField> toSirenFields(ActionDescriptor actionDescriptor) {
         List<SirenField> ret = new ArrayList<SirenField>();
         if (actionDescriptor.hasRequestBody()) {
-            recurseBeanCreationParams(ret, actionDescriptor.getRequestBody()
-                    .getParameterType(), actionDescriptor, actionDescriptor.getRequestBody(), actionDescriptor
-                    .getRequestBody()
-                    .getValue(), "", Collections.<String>emptySet());
+            ActionInputParameter requestBody = actionDescriptor.getRequestBody();
+            Object requestBodyValue = requestBody.getValue();
+            for (SirenFieldTemplate fieldTemplate : getFieldTemplates(actionDescriptor)) {
+                ret.add(fieldTemplate.createSirenField(requestBodyValue, requestBody, actionDescriptor));
+            }
         } else {
             Collection<String> paramNames = actionDescriptor.getRequestParamNames();
             for (String paramName : paramNames) {
@@ -371,18 +558,57 @@ public class SirenUtils {
     }
 
     /**
-     * Renders input fields for bean properties of bean to add or update or patch.
+     * Gets field templates for the request body of the given action. Templates are cached per handler method and
+     * request media type if the request body describes a handler method parameter.
+     *
+     * @param actionDescriptor
+     *         having a request body
+     * @return field templates
+     */
+    private List<SirenFieldTemplate> getFieldTemplates(ActionDescriptor actionDescriptor) {
+        ActionInputParameter requestBody = actionDescriptor.getRequestBody();
+        if (!(requestBody instanceof SpringActionInputParameter)) {
+            return createFieldTemplates(actionDescriptor);
+        }
+        ActionKey key = new ActionKey(((SpringActionInputParameter) requestBody).getMethodParameter()
+                .getMethod(), requestMediaType);
+        List<SirenFieldTemplate> fieldTemplates = actionFieldTemplates.get(key);
+        Instrumentations.cacheAccess("siren.actionFieldTemplates", fieldTemplates != null);
+        if (fieldTemplates == null) {
+            actionCacheMisses.incrementAndGet();
+            fieldTemplates = createFieldTemplates(actionDescriptor);
+            List<SirenFieldTemplate> existing = actionFieldTemplates.putIfAbsent(key, fieldTemplates);
+            if (existing != null) {
+                fieldTemplates = existing;
+            }
+        } else {
+            actionCacheHits.incrementAndGet();
+        }
+        return fieldTemplates;
+    }
+
+    private List<SirenFieldTemplate> createFieldTemplates(ActionDescriptor actionDescriptor) {
+        List<SirenFieldTemplate> fieldTemplates = new ArrayList<SirenFieldTemplate>();
+        recurseBeanCreationParams(fieldTemplates, actionDescriptor.getRequestBody()
+                        .getParameterType(), actionDescriptor, actionDescriptor.getRequestBody(), "",
+                Collections.<String>emptyList(), Collections.<String>emptySet());
+        return Collections.unmodifiableList(fieldTemplates);
+    }
+
+    /**
+     * Renders input field templates for bean properties of bean to add or update or patch.
      *
-     * @param sirenFields to add to
+     * @param fieldTemplates to add to
      * @param beanType to render
      * @param annotatedParameters which describes the method
      * @param annotatedParameter which requires the bean
-     * @param currentCallValue sample call value
+     * @param parentParamName dot-separated prefix for field names
+     * @param parentPropertyPath property names leading from the request body to the bean
      */
-    private void recurseBeanCreationParams(List<SirenField> sirenFields, Class<?> beanType,
+    private void recurseBeanCreationParams(List<SirenFieldTemplate> fieldTemplates, Class<?> beanType,
                                            ActionDescriptor annotatedParameters,
-                                           ActionInputParameter annotatedParameter, Object currentCallValue,
-                                           String parentParamName, Set<String> knownFields) {
+                                           ActionInputParameter annotatedParameter, String parentParamName,
+                                           List<String> parentPropertyPath, Set<String> knownFields) {
         // TODO collection, map and object node creation are only describable by an annotation, not via type reflection
         if (ObjectNode.class.isAssignableFrom(beanType) || Map.class.isAssignableFrom(beanType)
                 || Collection.class.isAssignableFrom(beanType) || beanType.isArray()) {
@@ -413,13 +639,11 @@ public class SirenUtils {
                             // TODO use required attribute of JsonProperty for required fields
                             String paramName = jsonProperty.value();
                             Class parameterType = parameters[paramIndex];
-                            Object propertyValue = PropertyUtils.getPropertyOrFieldValue(currentCallValue,
-                                    paramName);
                             MethodParameter methodParameter = new MethodParameter(constructor, paramIndex);
 
-                            addSirenFieldsForMethodParameter(sirenFields, methodParameter, annotatedParameter,
+                            addSirenFieldsForMethodParameter(fieldTemplates, methodParameter, annotatedParameter,
                                     annotatedParameters,
-                                    parentParamName, paramName, parameterType, propertyValue,
+                                    parentParamName, parentPropertyPath, paramName, parameterType,
                                     knownFields);
                             paramIndex++; // increase for each @JsonProperty
                         }
@@ -430,9 +654,9 @@ public class SirenUtils {
                                 " are annotated with @JsonProperty");
             }
 
-            Set<String> knownConstructorFields = new HashSet<String>(sirenFields.size());
-            for (SirenField sirenField : sirenFields) {
-                knownConstructorFields.add(sirenField.getName());
+            Set<String> knownConstructorFields = new HashSet<String>(fieldTemplates.size());
+            for (SirenFieldTemplate fieldTemplate : fieldTemplates) {
+                knownConstructorFields.add(fieldTemplate.getName());
             }
 
             // TODO support Option provider by other method args?
@@ -448,95 +672,144 @@ public class SirenUtils {
                 }
                 final Class<?> propertyType = propertyDescriptor.getPropertyType();
 
-                Object propertyValue = PropertyUtils.getPropertyOrFieldValue(currentCallValue, propertyName);
                 MethodParameter methodParameter = new MethodParameter(propertyDescriptor.getWriteMethod(), 0);
 
-                addSirenFieldsForMethodParameter(sirenFields, methodParameter, annotatedParameter,
+                addSirenFieldsForMethodParameter(fieldTemplates, methodParameter, annotatedParameter,
                         annotatedParameters,
-                        parentParamName, propertyName, propertyType, propertyValue, knownConstructorFields);
+                        parentParamName, parentPropertyPath, propertyName, propertyType, knownConstructorFields);
             }
         } catch (Exception e) {
             throw new RuntimeException("Failed to write input fields for constructor", e);
         }
     }
 
-    private void addSirenFieldsForMethodParameter(List<SirenField> sirenFields, MethodParameter
+    private void addSirenFieldsForMethodParameter(List<SirenFieldTemplate> fieldTemplates, MethodParameter
             methodParameter, ActionInputParameter annotatedParameter, ActionDescriptor annotatedParameters, String
-                                                          parentParamName, String paramName, Class
-                                                          parameterType, Object propertyValue, Set<String>
-                                                          knownFields) {
-        if (DataType.isSingleValueType(parameterType)
-                || DataType.isArrayOrCollection(parameterType)) {
+                                                          parentParamName, List<String> parentPropertyPath,
+                                                  String paramName, Class parameterType, Set<String> knownFields) {
+        List<String> propertyPath = new ArrayList<String>(parentPropertyPath);
+        propertyPath.add(paramName);
+        if (SirenFieldTemplate.isFieldType(parameterType)) {
 
             if (annotatedParameter.isIncluded(paramName) && !knownFields.contains(parentParamName + paramName)) {
-
-                ActionInputParameter constructorParamInputParameter =
-                        new SpringActionInputParameter(methodParameter, propertyValue);
-
-                final Object[] possibleValues =
-                        annotatedParameter.getPossibleValues(methodParameter, annotatedParameters);
-
                 // dot-separated property path as field name
-                SirenField sirenField = createSirenField(parentParamName + paramName,
-                        propertyValue, constructorParamInputParameter, possibleValues);
-                sirenFields.add(sirenField);
+                fieldTemplates.add(new SirenFieldTemplate(parentParamName + paramName, propertyPath,
+                        methodParameter, annotatedParameter, annotatedParameters));
             }
         } else {
-            Object callValueBean;
-            if (propertyValue instanceof Resource) {
-                callValueBean = ((Resource) propertyValue).getContent();
-            } else {
-                callValueBean = propertyValue;
-            }
-            recurseBeanCreationParams(sirenFields, parameterType, annotatedParameters,
-                    annotatedParameter,
-                    callValueBean, paramName + ".", knownFields);
+            recurseBeanCreationParams(fieldTemplates, parameterType, annotatedParameters,
+                    annotatedParameter, paramName + ".", propertyPath, knownFields);
         }
     }
 
     private SirenField createSirenField(String paramName, Object propertyValue,
                                         ActionInputParameter inputParameter, Object[] possibleValues) {
+        Type htmlInputFieldType = inputParameter.getHtmlInputFieldType();
+        // TODO: null -> array or bean parameter without possible values
+        String type = htmlInputFieldType == null ? "text" :
+                htmlInputFieldType
+                        .name()
+                        .toLowerCase();
+        boolean arrayOrCollection = inputParameter.isArrayOrCollection();
+        Object[] values = possibleValues.length > 0 && arrayOrCollection ? inputParameter.getValues() : null;
+        return createSirenField(paramName, propertyValue, type, arrayOrCollection, values, possibleValues);
+    }
+
+    static SirenField createSirenField(String paramName, Object propertyValue, String type,
+                                       boolean arrayOrCollection, Object[] values, Object[] possibleValues) {
         SirenField sirenField;
         if (possibleValues.length == 0) {
             String propertyValueAsString = propertyValue == null ? null : propertyValue
                     .toString();
-            Type htmlInputFieldType = inputParameter.getHtmlInputFieldType();
-            // TODO: null -> array or bean parameter without possible values
-            String type = htmlInputFieldType == null ? "text" :
-                    htmlInputFieldType
-                            .name()
-                            .toLowerCase();
             sirenField = new SirenField(paramName,
                     type,
                     propertyValueAsString, null, null);
         } else {
             List<SirenFieldValue> sirenPossibleValues = new ArrayList<SirenFieldValue>();
-            String type;
-            if (inputParameter.isArrayOrCollection()) {
-                type = "checkbox";
+            String fieldType;
+            if (arrayOrCollection) {
+                fieldType = "checkbox";
                 for (Object possibleValue : possibleValues) {
                     boolean selected = ObjectUtils.containsElement(
-                            inputParameter.getValues(),
+                            values,
                             possibleValue);
                     // TODO have more useful value title
                     sirenPossibleValues.add(new SirenFieldValue(possibleValue.toString(), possibleValue, selected));
                 }
             } else {
-                type = "radio";
+                fieldType = "radio";
                 for (Object possibleValue : possibleValues) {
                     boolean selected = possibleValue.equals(propertyValue);
                     sirenPossibleValues.add(new SirenFieldValue(possibleValue.toString(), possibleValue, selected));
                 }
             }
             sirenField = new SirenField(paramName,
-                    type,
+                    fieldType,
                     sirenPossibleValues, null, null);
         }
         return sirenField;
     }
 
+    /**
+     * Number of siren actions whose fields were created from cached field templates.
+     *
+     * @return cache hits
+     */
+    public long getActionCacheHits() {
+        return actionCacheHits.get();
+    }
+
+    /**
+     * Number of siren actions for which field templates had to be created.
+     *
+     * @return cache misses
+     */
+    public long getActionCacheMisses() {
+        return actionCacheMisses.get();
+    }
+
+    /**
+     * Key for cached field templates: handler method and request media type.
+     */
+    private static class ActionKey {
+        private final Method method;
+        private final String requestMediaType;
+
+        ActionKey(Method method, String requestMediaType) {
+            this.method = method;
+            this.requestMediaType = requestMediaType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ActionKey)) {
+                return false;
+            }
+            ActionKey other = (ActionKey) o;
+            return ObjectUtils.nullSafeEquals(method, other.method)
+                    && ObjectUtils.nullSafeEquals(requestMediaType, other.requestMediaType);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * ObjectUtils.nullSafeHashCode(method) + ObjectUtils.nullSafeHashCode(requestMediaType);
+        }
+    }
+
 
     private List<SirenLink> toSirenLinks(List<Link> links) {
+        RenderingProfile.Phase previousPhase = RenderingProfile.startPhase(RenderingProfile.Phase.LINKS);
+        try {
+            return createSirenLinks(links);
+        } finally {
+            RenderingProfile.endPhase(previousPhase);
+        }
+    }
+
+    private List<SirenLink> createSirenLinks(List<Link> links) {
         List<SirenLink> ret = new ArrayList<SirenLink>();
         for (Link link : links) {
             if (link instanceof Affordance) {
@@ -549,6 +822,15 @@ public class SirenUtils {
     }
 
     private List<SirenEmbeddedLink> toSirenEmbeddedLinks(List<Link> links) {
+        RenderingProfile.Phase previousPhase = RenderingProfile.startPhase(RenderingProfile.Phase.LINKS);
+        try {
+            return createSirenEmbeddedLinks(links);
+        } finally {
+            RenderingProfile.endPhase(previousPhase);
+        }
+    }
+
+    private List<SirenEmbeddedLink> createSirenEmbeddedLinks(List<Link> links) {
         List<SirenEmbeddedLink> ret = new ArrayList<SirenEmbeddedLink>();
         for (Link link : links) {
             if (link instanceof Affordance) {
@@ -576,7 +858,8 @@ public class SirenUtils {
         if (content == null) {
             value = NULL_VALUE;
         } else if (DataType.isSingleValueType(content.getClass())) {
-            value = DataType.asScalarValue(content);
+            // written by SirenPropertiesSerializer
+            value = content;
         }
         return value;
     }
@@ -589,11 +872,79 @@ public class SirenUtils {
         this.relProvider = relProvider;
     }
 
+    /**
+     * Sets documentation provider, whose urls are used as rels of sub-entities.
+     *
+     * @param documentationProvider
+     *         to use
+     * @see CachingDocumentationProvider#of(DocumentationProvider)
+     */
     public void setDocumentationProvider(DocumentationProvider documentationProvider) {
-        this.documentationProvider = documentationProvider;
+        this.documentationProvider = CachingDocumentationProvider.of(documentationProvider);
     }
 
     public void setAdditionalNavigationalRels(Collection<String> additionalNavigationalRels) {
         this.navigationalRels.addAll(additionalNavigationalRels);
     }
+
+    /**
+     * Enables parallel conversion of large collections. Collection items are converted in chunks on the given
+     * executor, the request thread converts the first chunk itself. Use a dedicated executor so that conversion does
+     * not compete with request threads. The relProvider and documentationProvider must be thread-safe in that case.
+     *
+     * @param executorService
+     *         to convert collection items, null for sequential conversion (the default)
+     */
+    public void setExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    /**
+     * Sets minimum collection size for parallel conversion, default is {@link #DEFAULT_PARALLEL_THRESHOLD}. Has no
+     * effect unless an executor service is set.
+     *
+     * @param parallelThreshold
+     *         minimum number of items
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        Assert.isTrue(parallelThreshold > 0, "parallelThreshold must be positive");
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Sets the number of chunks a large collection is split into for parallel conversion, default is the number of
+     * available processors. Chunks have at least 32 items, so smaller collections are split into fewer chunks. Has no
+     * effect unless an executor service is set.
+     *
+     * @param parallelism
+     *         number of chunks, usually the number of threads of the executor service
+     */
+    public void setParallelism(int parallelism) {
+        Assert.isTrue(parallelism > 0, "parallelism must be positive");
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets maximum number of nested beans on a traversal path, default is {@link TraversalGuard#DEFAULT_MAX_DEPTH}.
+     * Deeper beans are rendered as embedded link if they have a self link, as placeholder otherwise.
+     *
+     * @param maxDepth
+     *         maximum depth
+     */
+    public void setMaxDepth(int maxDepth) {
+        Assert.isTrue(maxDepth > 0, "maxDepth must be positive");
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Sets maximum number of beans converted per siren entity, default is {@link TraversalGuard#DEFAULT_MAX_NODES}.
+     * Further beans are rendered as embedded link if they have a self link, as placeholder otherwise.
+     *
+     * @param maxNodes
+     *         maximum number of beans
+     */
+    public void setMaxNodes(int maxNodes) {
+        Assert.isTrue(maxNodes > 0, "maxNodes must be positive");
+        this.maxNodes = maxNodes;
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.spring.uber;
+
+import de.escalon.hypermedia.ResourceSupportVisitor;
+import de.escalon.hypermedia.ResourceTraversal;
+import de.escalon.hypermedia.TraversalGuard;
+import de.escalon.hypermedia.instrument.RenderingProfile;
+import org.springframework.hateoas.Link;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds uber data nodes while a resource is traversed. Every collection item and every property becomes a nested
+ * uber node, properties of empty collection or map type are left out. Beans which are not traversed again are
+ * rendered as a node with the url of the bean if it has a self link, otherwise with a placeholder value.
+ */
+class UberDataVisitor implements ResourceSupportVisitor {
+
+    private final Deque<AbstractUberNode> nodes = new ArrayDeque<AbstractUberNode>();
+
+    /**
+     * Creates visitor.
+     *
+     * @param objectNode
+     *         to append to
+     */
+    UberDataVisitor(AbstractUberNode objectNode) {
+        nodes.push(objectNode);
+    }
+
+    @Override
+    public boolean visitLinks(List<Link> links) {
+        RenderingProfile.Phase previousPhase = RenderingProfile.startPhase(RenderingProfile.Phase.LINKS);
+        try {
+            nodes.peek()
+                    .addLinks(links);
+            return true;
+        } finally {
+            RenderingProfile.endPhase(previousPhase);
+        }
+    }
+
+    @Override
+    public boolean visitEnterCollection(Collection<?> collection) {
+        return true;
+    }
+
+    @Override
+    public boolean visitEnterItem(Object item) {
+        // TODO name must be repeated for each collection item
+        enterNode(new UberNode());
+        return true;
+    }
+
+    @Override
+    public boolean visitLeaveItem(Object item) {
+        nodes.pop();
+        return true;
+    }
+
+    @Override
+    public boolean visitLeaveCollection(Collection<?> collection) {
+        return true;
+    }
+
+    @Override
+    public boolean visitEnterProperty(String name, Class<?> propertyType, Object content) {
+        if (propertyType != null && isEmptyCollectionOrMap(content, propertyType)) {
+            return false;
+        }
+        UberNode propertyNode = new UberNode();
+        propertyNode.setName(name);
+        enterNode(propertyNode);
+        return true;
+    }
+
+    @Override
+    public boolean visitProperty(String name, Class<?> propertyType, Object value) {
+        // for each scalar property of a simple bean, add valuepair nodes to data
+        ((UberNode) nodes.peek()).setValue(value == ResourceTraversal.NULL_VALUE ? UberNode.NULL_VALUE : value);
+        return true;
+    }
+
+    @Override
+    public boolean visitLeaveProperty(String name, Class<?> propertyType, Object content) {
+        nodes.pop();
+        return true;
+    }
+
+    @Override
+    public void visitReference(Object bean, String id) {
+        AbstractUberNode node = nodes.peek();
+        if (node instanceof UberNode) {
+            if (id != null) {
+                ((UberNode) node).setUrl(id);
+            } else {
+                ((UberNode) node).setValue(TraversalGuard.getPlaceholder(bean));
+            }
+        }
+    }
+
+    private void enterNode(UberNode node) {
+        nodes.peek()
+                .addData(node);
+        nodes.push(node);
+    }
+
+    private static boolean isEmptyCollectionOrMap(Object content, Class<?> type) {
+        if (Collection.class.isAssignableFrom(type)) {
+            return content == null || ((Collection<?>) content).isEmpty();
+        } else if (Map.class.isAssignableFrom(type)) {
+            return content == null || ((Map<?, ?>) content).isEmpty();
+        }
+        return false;
+    }
+}
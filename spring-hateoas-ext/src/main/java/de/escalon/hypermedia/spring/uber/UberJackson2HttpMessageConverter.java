@@ -18,7 +18,11 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import de.escalon.hypermedia.instrument.Instrumentation;
+import de.escalon.hypermedia.instrument.Instrumentations;
 import de.escalon.hypermedia.spring.HypermediaTypes;
+import de.escalon.hypermedia.spring.RenderingProfiler;
+import de.escalon.hypermedia.spring.RequestProjections;
 import org.springframework.hateoas.ResourceSupport;
 import org.springframework.http.HttpInputMessage;
 import org.springframework.http.HttpOutputMessage;
@@ -37,6 +41,8 @@ public class UberJackson2HttpMessageConverter extends AbstractHttpMessageConvert
 
     private ObjectMapper objectMapper = new ObjectMapper();
     private Boolean prettyPrint;
+    private String fieldsParam;
+    private String profileHeader;
 
     public UberJackson2HttpMessageConverter() {
         super(HypermediaTypes.UBER_JSON);
@@ -63,10 +69,26 @@ public class UberJackson2HttpMessageConverter extends AbstractHttpMessageConvert
     }
 
     @Override
-    protected void writeInternal(Object t, HttpOutputMessage outputMessage) throws IOException,
+    protected void writeInternal(final Object t, HttpOutputMessage outputMessage) throws IOException,
             HttpMessageNotWritableException {
+        Instrumentation instrumentation = Instrumentations.get();
+        long start = instrumentation.startTimer();
+        try {
+            RenderingProfiler.render(outputMessage, profileHeader, new RenderingProfiler.Rendering() {
+                @Override
+                public void render(HttpOutputMessage profiledMessage) throws IOException {
+                    writeMessage(t, profiledMessage);
+                }
+            });
+        } finally {
+            instrumentation.stopTimer(Instrumentation.CONVERTER_WRITE, HypermediaTypes.UBER_JSON.toString(), start);
+        }
+    }
 
-        UberMessageModel uberModel = new UberMessageModel(t);
+    private void writeMessage(Object t, HttpOutputMessage outputMessage) throws IOException,
+            HttpMessageNotWritableException {
+
+        UberMessageModel uberModel = new UberMessageModel(t, RequestProjections.fromCurrentRequest(fieldsParam));
         JsonEncoding encoding = getJsonEncoding(outputMessage.getHeaders()
                 .getContentType());
         JsonGenerator jsonGenerator = this.objectMapper.getFactory()
@@ -125,6 +147,33 @@ public class UberJackson2HttpMessageConverter extends AbstractHttpMessageConvert
         configurePrettyPrint();
     }
 
+    /**
+     * Sets name of the request parameter which selects the properties to render, e.g.
+     * <code>fields=name,address.street</code>. Not set by default, so all properties are rendered.
+     *
+     * @param fieldsParam
+     *         parameter name, e.g. {@link RequestProjections#DEFAULT_FIELDS_PARAM}, null to always render all
+     *         properties
+     * @see RequestProjections
+     * @see de.escalon.hypermedia.PropertyProjection
+     */
+    public void setFieldsParam(String fieldsParam) {
+        this.fieldsParam = fieldsParam;
+    }
+
+    /**
+     * Enables profiling of every response written by this converter. The time spent per rendering phase, the number
+     * of rendered objects and the number of bytes written are sent in a response header and logged at debug level.
+     * Profiled responses are buffered before they are sent.
+     *
+     * @param profileHeader
+     *         name of the response header, e.g. {@link RenderingProfiler#DEFAULT_PROFILE_HEADER}, null to disable
+     *         profiling
+     */
+    public void setProfileHeader(String profileHeader) {
+        this.profileHeader = profileHeader;
+    }
+
     private void configurePrettyPrint() {
         if (this.prettyPrint != null) {
             this.objectMapper.configure(SerializationFeature.INDENT_OUTPUT, this.prettyPrint);
@@ -16,6 +16,7 @@ package de.escalon.hypermedia.spring.uber;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonRootName;
+import de.escalon.hypermedia.PropertyProjection;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,7 +29,19 @@ public class UberMessageModel extends AbstractUberNode {
     private List<UberNode> error = new ArrayList<UberNode>();
 
     public UberMessageModel(Object toWrap) {
-        UberUtils.toUberData(this, toWrap);
+        this(toWrap, PropertyProjection.ALL);
+    }
+
+    /**
+     * Creates uber message from the selected properties of the given object.
+     *
+     * @param toWrap
+     *         to convert
+     * @param projection
+     *         selected properties
+     */
+    public UberMessageModel(Object toWrap, PropertyProjection projection) {
+        UberUtils.toUberData(this, toWrap, projection);
     }
 
     public String getVersion() {
@@ -16,7 +16,9 @@ package de.escalon.hypermedia.spring.uber;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.escalon.hypermedia.PropertyProjection;
 import de.escalon.hypermedia.PropertyUtils;
+import de.escalon.hypermedia.ResourceTraversal;
 import de.escalon.hypermedia.action.Type;
 import de.escalon.hypermedia.affordance.*;
 import de.escalon.hypermedia.spring.SpringActionDescriptor;
@@ -24,18 +26,14 @@ import de.escalon.hypermedia.spring.SpringActionInputParameter;
 import org.springframework.core.MethodParameter;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.Resource;
-import org.springframework.hateoas.ResourceSupport;
-import org.springframework.hateoas.Resources;
 import org.springframework.util.Assert;
 import org.springframework.web.bind.annotation.RequestMethod;
 
 import java.beans.PropertyDescriptor;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.*;
-import java.util.Map.Entry;
 
 public class UberUtils {
 
@@ -43,7 +41,7 @@ public class UberUtils {
 
     }
 
-    static final Set<String> FILTER_RESOURCE_SUPPORT = new HashSet<String>(Arrays.asList("class", "links", "id"));
+    private static final ResourceTraversal RESOURCE_TRAVERSAL = new ResourceTraversal();
     static final String MODEL_FORMAT = "%s={%s}";
 
 
@@ -56,149 +54,21 @@ public class UberUtils {
      *         to convert
      */
     public static void toUberData(AbstractUberNode objectNode, Object object) {
-        Set<String> filtered = FILTER_RESOURCE_SUPPORT;
-        if (object == null) {
-            return;
-        }
-
-        try {
-            // TODO: move all returns to else branch of property descriptor handling
-            if (object instanceof Resource) {
-                Resource<?> resource = (Resource<?>) object;
-                objectNode.addLinks(resource.getLinks());
-                toUberData(objectNode, resource.getContent());
-                return;
-            } else if (object instanceof Resources) {
-                Resources<?> resources = (Resources<?>) object;
-
-                // TODO set name using EVO see HypermediaSupportBeanDefinitionRegistrar
-
-                objectNode.addLinks(resources.getLinks());
-
-                Collection<?> content = resources.getContent();
-                toUberData(objectNode, content);
-                return;
-            } else if (object instanceof ResourceSupport) {
-                ResourceSupport resource = (ResourceSupport) object;
-
-                objectNode.addLinks(resource.getLinks());
-
-                // wrap object attributes below to avoid endless loop
-
-            } else if (object instanceof Collection) {
-                Collection<?> collection = (Collection<?>) object;
-                for (Object item : collection) {
-                    // TODO name must be repeated for each collection item
-                    UberNode itemNode = new UberNode();
-                    objectNode.addData(itemNode);
-                    toUberData(itemNode, item);
-                }
-                return;
-            }
-            if (object instanceof Map) {
-                Map<?, ?> map = (Map<?, ?>) object;
-                for (Entry<?, ?> entry : map.entrySet()) {
-                    String key = entry.getKey()
-                            .toString();
-                    Object content = entry.getValue();
-                    Object value = getContentAsScalarValue(content);
-                    UberNode entryNode = new UberNode();
-                    objectNode.addData(entryNode);
-                    entryNode.setName(key);
-                    if (value != null) {
-                        entryNode.setValue(value);
-                    } else {
-                        toUberData(entryNode, content);
-                    }
-                }
-            } else {
-                Map<String, PropertyDescriptor> propertyDescriptors = PropertyUtils.getPropertyDescriptors(object);
-                for (PropertyDescriptor propertyDescriptor : propertyDescriptors.values()) {
-                    String name = propertyDescriptor.getName();
-                    if (filtered.contains(name)) {
-                        continue;
-                    }
-                    UberNode propertyNode = new UberNode();
-                    Object content = propertyDescriptor.getReadMethod()
-                            .invoke(object);
-
-                    if (isEmptyCollectionOrMap(content, propertyDescriptor.getPropertyType())) {
-                        continue;
-                    }
-
-                    Object value = getContentAsScalarValue(content);
-                    propertyNode.setName(name);
-                    objectNode.addData(propertyNode);
-                    if (value != null) {
-                        // for each scalar property of a simple bean, add valuepair nodes to data
-                        propertyNode.setValue(value);
-                    } else {
-                        toUberData(propertyNode, content);
-                    }
-                }
-
-                Field[] fields = object.getClass()
-                        .getFields();
-                for (Field field : fields) {
-                    String name = field.getName();
-                    if (!propertyDescriptors.containsKey(name)) {
-                        Object content = field.get(object);
-                        Class<?> type = field.getType();
-                        if (isEmptyCollectionOrMap(content, type)) {
-                            continue;
-                        }
-                        UberNode propertyNode = new UberNode();
-
-                        Object value = getContentAsScalarValue(content);
-                        propertyNode.setName(name);
-                        objectNode.addData(propertyNode);
-                        if (value != null) {
-                            // for each scalar property of a simple bean, add valuepair nodes to data
-                            propertyNode.setValue(value);
-                        } else {
-                            toUberData(propertyNode, content);
-                        }
-
-                    }
-                }
-            }
-        } catch (Exception ex) {
-            throw new RuntimeException("failed to transform object " + object, ex);
-        }
-    }
-
-    private static boolean isEmptyCollectionOrMap(Object content, Class<?> type) {
-        if (Collection.class.isAssignableFrom(type)) {
-            if (content == null) {
-                return true;
-            } else {
-                if (((List) content).isEmpty()) {
-                    return true;
-                }
-            }
-        } else if (Map.class.isAssignableFrom(type)) {
-            if (content == null) {
-                return true;
-            } else {
-                if (((List) content).isEmpty()) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        toUberData(objectNode, object, PropertyProjection.ALL);
     }
 
-
-    private static Object getContentAsScalarValue(Object content) {
-        final Object value;
-        if (content == null) {
-            value = UberNode.NULL_VALUE;
-        } else if (DataType.isSingleValueType(content.getClass())) {
-            value = content.toString();
-        } else {
-            value = null;
-        }
-        return value;
+    /**
+     * Recursively converts the selected properties of object to nodes of uber data.
+     *
+     * @param objectNode
+     *         to append to
+     * @param object
+     *         to convert
+     * @param projection
+     *         selected properties
+     */
+    public static void toUberData(AbstractUberNode objectNode, Object object, PropertyProjection projection) {
+        RESOURCE_TRAVERSAL.traverseResource(new UberDataVisitor(objectNode), object, projection);
     }
 
     /**
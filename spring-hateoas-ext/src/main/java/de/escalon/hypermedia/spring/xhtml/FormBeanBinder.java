@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+package de.escalon.hypermedia.spring.xhtml;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import de.escalon.hypermedia.PropertyUtils;
+import de.escalon.hypermedia.affordance.DataType;
+import de.escalon.hypermedia.instrument.Instrumentations;
+import org.springframework.util.Assert;
+import org.springframework.util.MultiValueMap;
+
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Binds x-www-form-urlencoded values to a bean. The constructor, the {@link JsonProperty} constructor arguments and
+ * the setters of a bean class are introspected once, the resulting binder is cached per class. Nested beans are bound
+ * by the binder of their class, using dot-separated parameter names. Properties of array or collection type are bound
+ * from repeated form values.
+ */
+class FormBeanBinder {
+
+    private static final ConcurrentMap<Class<?>, FormBeanBinder> BINDERS =
+            new ConcurrentHashMap<Class<?>, FormBeanBinder>();
+
+    private final Class<?> beanType;
+    private final Constructor<?> constructor;
+    private final PropertyBinder[] constructorParams;
+    private final PropertyBinder[] setters;
+
+    /**
+     * Gets binder for the given bean class, introspecting the class on first use.
+     *
+     * @param beanType
+     *         to bind
+     * @return binder, never null
+     */
+    static FormBeanBinder forClass(Class<?> beanType) {
+        FormBeanBinder binder = BINDERS.get(beanType);
+        Instrumentations.cacheAccess("xhtml.formBeanBinders", binder != null);
+        if (binder == null) {
+            binder = new FormBeanBinder(beanType);
+            FormBeanBinder existing = BINDERS.putIfAbsent(beanType, binder);
+            if (existing != null) {
+                binder = existing;
+            }
+        }
+        return binder;
+    }
+
+    private FormBeanBinder(Class<?> beanType) {
+        if (Map.class.isAssignableFrom(beanType)) {
+            throw new IllegalArgumentException("Map not supported");
+        } else if (Collection.class.isAssignableFrom(beanType)) {
+            throw new IllegalArgumentException("Collection not supported");
+        }
+        this.beanType = beanType;
+        Constructor[] constructors = beanType.getConstructors();
+        Constructor<?> ctor = PropertyUtils.findDefaultCtor(constructors);
+        if (ctor == null) {
+            ctor = PropertyUtils.findJsonCreator(constructors, JsonCreator.class);
+        }
+        Assert.notNull(ctor, "no default constructor or JsonCreator found for " + beanType.getName());
+        this.constructor = ctor;
+
+        Annotation[][] annotationsOnParameters = ctor.getParameterAnnotations();
+        Class<?>[] parameterTypes = ctor.getParameterTypes();
+        Type[] genericParameterTypes = ctor.getGenericParameterTypes();
+        List<PropertyBinder> ctorParams = new ArrayList<PropertyBinder>(parameterTypes.length);
+        Set<String> ctorParamNames = new HashSet<String>();
+        for (int paramIndex = 0; paramIndex < annotationsOnParameters.length; paramIndex++) {
+            for (Annotation annotation : annotationsOnParameters[paramIndex]) {
+                if (JsonProperty.class == annotation.annotationType()) {
+                    String paramName = ((JsonProperty) annotation).value();
+                    ctorParams.add(new PropertyBinder(paramName, parameterTypes[paramIndex],
+                            genericParameterTypes[paramIndex], null));
+                    ctorParamNames.add(paramName);
+                }
+            }
+        }
+        Assert.isTrue(parameterTypes.length == ctorParams.size(), "not all constructor arguments of @JsonCreator " +
+                "are annotated with @JsonProperty");
+        this.constructorParams = ctorParams.toArray(new PropertyBinder[ctorParams.size()]);
+
+        List<PropertyBinder> setterBinders = new ArrayList<PropertyBinder>();
+        for (PropertyDescriptor propertyDescriptor : PropertyUtils.getPropertyDescriptors(beanType)
+                .values()) {
+            Method writeMethod = propertyDescriptor.getWriteMethod();
+            String name = propertyDescriptor.getName();
+            // values consumed by the constructor are not applied again
+            if (writeMethod != null && !ctorParamNames.contains(name)) {
+                setterBinders.add(new PropertyBinder(name, propertyDescriptor.getPropertyType(),
+                        writeMethod.getGenericParameterTypes()[0], writeMethod));
+            }
+        }
+        this.setters = setterBinders.toArray(new PropertyBinder[setterBinders.size()]);
+    }
+
+    /**
+     * Creates a bean from the given form values.
+     *
+     * @param formValues
+     *         submitted form values
+     * @param parentParamName
+     *         dot-terminated path of the bean within the form, empty string for the top-level bean
+     * @return bound bean
+     */
+    Object bind(MultiValueMap<String, String> formValues, String parentParamName) {
+        try {
+            Object[] args = new Object[constructorParams.length];
+            for (int i = 0; i < constructorParams.length; i++) {
+                args[i] = constructorParams[i].getValue(formValues, parentParamName);
+            }
+            Object ret = constructor.newInstance(args);
+            for (PropertyBinder setter : setters) {
+                setter.applyTo(ret, formValues, parentParamName);
+            }
+            return ret;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to instantiate bean " + beanType.getName(), e);
+        }
+    }
+
+    /**
+     * Binds a single constructor argument or setter.
+     */
+    private static class PropertyBinder {
+
+        private final String name;
+        private final Class<?> type;
+        private final Class<?> elementType;
+        private final Method writeMethod;
+
+        PropertyBinder(String name, Class<?> type, Type genericType, Method writeMethod) {
+            this.name = name;
+            this.type = type;
+            this.writeMethod = writeMethod;
+            if (type.isArray()) {
+                this.elementType = type.getComponentType();
+            } else if (Collection.class.isAssignableFrom(type)) {
+                this.elementType = getCollectionElementType(genericType);
+            } else {
+                this.elementType = null;
+            }
+        }
+
+        private static Class<?> getCollectionElementType(Type genericType) {
+            Class<?> ret = String.class;
+            if (genericType instanceof ParameterizedType) {
+                Type[] typeArguments = ((ParameterizedType) genericType).getActualTypeArguments();
+                if (typeArguments.length == 1 && typeArguments[0] instanceof Class) {
+                    ret = (Class<?>) typeArguments[0];
+                }
+            }
+            return ret;
+        }
+
+        Object getValue(MultiValueMap<String, String> formValues, String parentParamName) {
+            final Object ret;
+            if (elementType != null) {
+                List<String> values = formValues.get(paramName(parentParamName));
+                ret = values == null ? null : asCollection(values);
+            } else if (DataType.isSingleValueType(type)) {
+                List<String> values = formValues.get(paramName(parentParamName));
+                if (values == null) {
+                    ret = null;
+                } else if (values.size() == 1) {
+                    ret = DataType.asType(type, values.get(0));
+                } else {
+                    throw new IllegalArgumentException("multiple values for single-valued property " +
+                            paramName(parentParamName));
+                }
+            } else {
+                ret = forClass(type).bind(formValues, paramName(parentParamName) + ".");
+            }
+            return ret;
+        }
+
+        void applyTo(Object bean, MultiValueMap<String, String> formValues, String parentParamName) throws
+                IllegalAccessException, InvocationTargetException {
+            // nested beans without constructor binding are left alone
+            if (elementType != null || DataType.isSingleValueType(type)) {
+                List<String> values = formValues.get(paramName(parentParamName));
+                // repeated values of a single-valued setter property are ignored
+                if (values != null && (elementType != null || values.size() == 1)) {
+                    writeMethod.invoke(bean, getValue(formValues, parentParamName));
+                }
+            }
+        }
+
+        private Object asCollection(List<String> values) {
+            if (!DataType.isSingleValueType(elementType)) {
+                throw new IllegalArgumentException("collection of " + elementType.getName() + " not supported for " +
+                        "property " + name);
+            }
+            final Object ret;
+            if (type.isArray()) {
+                ret = Array.newInstance(elementType, values.size());
+                for (int i = 0; i < values.size(); i++) {
+                    Array.set(ret, i, DataType.asType(elementType, values.get(i)));
+                }
+            } else {
+                Collection<Object> collection;
+                if (SortedSet.class.isAssignableFrom(type)) {
+                    collection = new TreeSet<Object>();
+                } else if (Set.class.isAssignableFrom(type)) {
+                    collection = new LinkedHashSet<Object>(values.size());
+                } else {
+                    collection = new ArrayList<Object>(values.size());
+                }
+                for (String value : values) {
+                    collection.add(DataType.asType(elementType, value));
+                }
+                ret = collection;
+            }
+            return ret;
+        }
+
+        private String paramName(String parentParamName) {
+            return parentParamName.isEmpty() ? name : parentParamName + name;
+        }
+    }
+}
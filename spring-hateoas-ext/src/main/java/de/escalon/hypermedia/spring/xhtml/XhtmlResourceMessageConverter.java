@@ -13,12 +13,18 @@
 
 package de.escalon.hypermedia.spring.xhtml;
 
-import com.fasterxml.jackson.annotation.JsonCreator;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import de.escalon.hypermedia.PropertyUtils;
+import de.escalon.hypermedia.BeanPlan;
+import de.escalon.hypermedia.BeanPlan.BeanProperty;
+import de.escalon.hypermedia.PropertyProjection;
+import de.escalon.hypermedia.TraversalGuard;
 import de.escalon.hypermedia.affordance.DataType;
+import de.escalon.hypermedia.instrument.Instrumentation;
+import de.escalon.hypermedia.instrument.Instrumentations;
+import de.escalon.hypermedia.spring.CachingDocumentationProvider;
 import de.escalon.hypermedia.spring.DefaultDocumentationProvider;
 import de.escalon.hypermedia.spring.DocumentationProvider;
+import de.escalon.hypermedia.spring.RenderingProfiler;
+import de.escalon.hypermedia.spring.RequestProjections;
 import org.springframework.hateoas.Resource;
 import org.springframework.hateoas.ResourceSupport;
 import org.springframework.hateoas.Resources;
@@ -32,14 +38,9 @@ import org.springframework.http.server.ServletServerHttpRequest;
 import org.springframework.util.*;
 
 import javax.servlet.http.HttpServletRequest;
-import java.beans.BeanInfo;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
 import java.io.*;
-import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.net.URLDecoder;
-import java.net.URLEncoder;
 import java.nio.charset.Charset;
 import java.util.*;
 import java.util.Map.Entry;
@@ -61,6 +62,13 @@ public class XhtmlResourceMessageConverter extends AbstractHttpMessageConverter<
 
     private DocumentationProvider documentationProvider = new DefaultDocumentationProvider();
 
+    private int maxDepth = TraversalGuard.DEFAULT_MAX_DEPTH;
+
+    private int maxNodes = TraversalGuard.DEFAULT_MAX_NODES;
+
+    private String fieldsParam;
+    private String profileHeader;
+
 
     public XhtmlResourceMessageConverter() {
         this.setSupportedMediaTypes(Arrays.asList(MediaType.TEXT_HTML, MediaType.APPLICATION_FORM_URLENCODED));
@@ -95,8 +103,24 @@ public class XhtmlResourceMessageConverter extends AbstractHttpMessageConverter<
     @Override
     protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException,
             HttpMessageNotReadableException {
+        Instrumentation instrumentation = Instrumentations.get();
+        long start = instrumentation.startTimer();
+        try {
+            return readMessage(clazz, inputMessage);
+        } finally {
+            instrumentation.stopTimer(Instrumentation.CONVERTER_READ, MediaType.APPLICATION_FORM_URLENCODED_VALUE,
+                    start);
+        }
+    }
 
-        InputStream is;
+    private Object readMessage(Class<?> clazz, HttpInputMessage inputMessage) throws IOException,
+            HttpMessageNotReadableException {
+
+        MediaType contentType = inputMessage.getHeaders()
+                .getContentType();
+        Charset charset = contentType != null && contentType.getCharSet() != null ?
+                contentType.getCharSet() : this.charset;
+        MultiValueMap<String, String> formValues;
         if (inputMessage instanceof ServletServerHttpRequest) {
             // this is necessary to support HiddenHttpMethodFilter
             // thanks to https://www.w3.org/html/wg/tracker/issues/195
@@ -104,151 +128,100 @@ public class XhtmlResourceMessageConverter extends AbstractHttpMessageConverter<
             // and http://cameronjones.github.io/form-http-extensions/index.html
             // and http://www.w3.org/TR/form-http-extensions/
             // TODO recognize this more safely or make the filter mandatory
-            MediaType contentType = inputMessage.getHeaders()
-                    .getContentType();
-            Charset charset = contentType.getCharSet() != null ? contentType.getCharSet() : this.charset;
             ServletServerHttpRequest servletServerHttpRequest = (ServletServerHttpRequest) inputMessage;
             HttpServletRequest servletRequest = servletServerHttpRequest.getServletRequest();
-            is = getBodyFromServletRequestParameters(servletRequest, charset.displayName(Locale.US));
+            formValues = getFormValuesFromServletRequestParameters(servletRequest);
         } else {
-            is = inputMessage.getBody();
+            formValues = readFormValues(inputMessage.getBody(), charset);
         }
-        return readRequestBody(clazz, is, charset);
+        return recursivelyCreateObject(clazz, formValues, "");
     }
 
     /**
-     * From {@link ServletServerHttpRequest}: Use {@link javax.servlet.ServletRequest#getParameterMap()} to reconstruct
-     * the body of a form 'POST' providing a predictable outcome as opposed to reading from the body, which can fail if
+     * From {@link ServletServerHttpRequest}: Use {@link javax.servlet.ServletRequest#getParameterMap()} to get the
+     * values of a form 'POST' providing a predictable outcome as opposed to reading from the body, which can fail if
      * any other code has used ServletRequest to access a parameter thus causing the input stream to be "consumed".
+     * The parameters are already decoded by the servlet container, so they are used as-is.
      */
-    private InputStream getBodyFromServletRequestParameters(HttpServletRequest request, String charset) throws
-            IOException {
-
-        ByteArrayOutputStream bos = new ByteArrayOutputStream(1024);
-        Writer writer = new OutputStreamWriter(bos, charset);
+    private MultiValueMap<String, String> getFormValuesFromServletRequestParameters(HttpServletRequest request) {
         @SuppressWarnings("unchecked")
         Map<String, String[]> form = request.getParameterMap();
-        for (Iterator<String> nameIterator = form.keySet()
-                .iterator(); nameIterator.hasNext(); ) {
-            String name = nameIterator.next();
-            List<String> values = Arrays.asList(form.get(name));
-            for (Iterator<String> valueIterator = values.iterator(); valueIterator.hasNext(); ) {
-                String value = valueIterator.next();
-                writer.write(URLEncoder.encode(name, charset));
-                if (value != null) {
-                    writer.write('=');
-                    writer.write(URLEncoder.encode(value, charset));
-                    if (valueIterator.hasNext()) {
-                        writer.write('&');
-                    }
+        MultiValueMap<String, String> formValues = new LinkedMultiValueMap<String, String>(form.size());
+        for (Entry<String, String[]> entry : form.entrySet()) {
+            String[] values = entry.getValue();
+            if (values == null || values.length == 0) {
+                formValues.add(entry.getKey(), null);
+            } else {
+                for (String value : values) {
+                    formValues.add(entry.getKey(), value);
                 }
             }
-            if (nameIterator.hasNext()) {
-                writer.append('&');
-            }
         }
-        writer.flush();
-
-        return new ByteArrayInputStream(bos.toByteArray());
+        return formValues;
     }
 
-    private Object readRequestBody(Class<?> clazz, InputStream inputStream, Charset charset) throws
-            IOException {
-
-        String body = StreamUtils.copyToString(inputStream, charset);
-
-        String[] pairs = StringUtils.tokenizeToStringArray(body, "&");
-
-        MultiValueMap<String, String> formValues = new LinkedMultiValueMap<String, String>(pairs.length);
-
-        for (String pair : pairs) {
-            int idx = pair.indexOf('=');
-            if (idx == -1) {
-                formValues.add(URLDecoder.decode(pair, charset.name()), null);
-            } else {
-                String name = URLDecoder.decode(pair.substring(0, idx), charset.name());
-                String value = URLDecoder.decode(pair.substring(idx + 1), charset.name());
-                formValues.add(name, value);
+    /**
+     * Reads x-www-form-urlencoded pairs from the given stream. The body is decoded pair by pair while reading, without
+     * copying the entire body into a string first.
+     *
+     * @param inputStream
+     *         body of the request
+     * @param charset
+     *         of the body
+     * @return decoded form values
+     * @throws IOException
+     *         if reading the body fails
+     */
+    MultiValueMap<String, String> readFormValues(InputStream inputStream, Charset charset) throws IOException {
+        MultiValueMap<String, String> formValues = new LinkedMultiValueMap<String, String>();
+        Reader reader = new BufferedReader(new InputStreamReader(inputStream, charset));
+        String charsetName = charset.name();
+        StringBuilder token = new StringBuilder(64);
+        String name = null;
+        int c;
+        do {
+            c = reader.read();
+            if (c == '=' && name == null) {
+                name = URLDecoder.decode(token.toString(), charsetName);
+                token.setLength(0);
+            } else if (c == '&' || c == -1) {
+                if (name != null) {
+                    formValues.add(name, URLDecoder.decode(token.toString(), charsetName));
+                } else if (token.length() > 0) {
+                    formValues.add(URLDecoder.decode(token.toString(), charsetName), null);
+                }
+                name = null;
+                token.setLength(0);
+            } else if (c != '\r' && c != '\n') {
+                token.append((char) c);
             }
-        }
-
-        return recursivelyCreateObject(clazz, formValues, "");
+        } while (c != -1);
+        return formValues;
     }
 
     Object recursivelyCreateObject(Class<?> clazz, MultiValueMap<String, String> formValues, String parentParamName) {
+        return FormBeanBinder.forClass(clazz)
+                .bind(formValues, parentParamName);
+    }
 
-        if (Map.class.isAssignableFrom(clazz)) {
-            throw new IllegalArgumentException("Map not supported");
-        } else if (Collection.class.isAssignableFrom(clazz)) {
-            throw new IllegalArgumentException("Collection not supported");
-        } else {
-            try {
-                Constructor[] constructors = clazz.getConstructors();
-                Constructor constructor = PropertyUtils.findDefaultCtor(constructors);
-                if (constructor == null) {
-                    constructor = PropertyUtils.findJsonCreator(constructors, JsonCreator.class);
-                }
-                Assert.notNull(constructor, "no default constructor or JsonCreator found");
-                int parameterCount = constructor.getParameterTypes().length;
-                Object[] args = new Object[parameterCount];
-                if (parameterCount > 0) {
-                    Annotation[][] annotationsOnParameters = constructor.getParameterAnnotations();
-                    Class[] parameters = constructor.getParameterTypes();
-                    int paramIndex = 0;
-                    for (Annotation[] annotationsOnParameter : annotationsOnParameters) {
-                        for (Annotation annotation : annotationsOnParameter) {
-                            if (JsonProperty.class == annotation.annotationType()) {
-                                JsonProperty jsonProperty = (JsonProperty) annotation;
-                                String paramName = jsonProperty.value();
-                                List<String> formValue = formValues.get(parentParamName + paramName);
-                                Class<?> parameterType = parameters[paramIndex];
-                                if (DataType.isSingleValueType(parameterType)) {
-                                    if (formValue != null) {
-                                        if (formValue.size() == 1) {
-                                            args[paramIndex++] = DataType.asType(parameterType, formValue.get(0));
-                                        } else {
-//                                        // TODO create proper collection type
-                                            throw new IllegalArgumentException("variable list not supported");
-//                                        List<Object> listValue = new ArrayList<Object>();
-//                                        for (String item : formValue) {
-//                                            listValue.add(DataType.asType(parameterType, formValue.get(0)));
-//                                        }
-//                                        args[paramIndex++] = listValue;
-                                        }
-                                    } else {
-                                        args[paramIndex++] = null;
-                                    }
-                                } else {
-                                    args[paramIndex++] = recursivelyCreateObject(parameterType, formValues,
-                                            parentParamName + paramName + ".");
-                                }
-                            }
-                        }
-                    }
-                    Assert.isTrue(args.length == paramIndex, "not all constructor arguments of @JsonCreator are " +
-                            "annotated with @JsonProperty");
-                }
-                Object ret = constructor.newInstance(args);
-                BeanInfo beanInfo = Introspector.getBeanInfo(clazz);
-                PropertyDescriptor[] propertyDescriptors = beanInfo.getPropertyDescriptors();
-                for (PropertyDescriptor propertyDescriptor : propertyDescriptors) {
-                    Method writeMethod = propertyDescriptor.getWriteMethod();
-                    String name = propertyDescriptor.getName();
-                    List<String> strings = formValues.get(name);
-                    if (writeMethod != null && strings != null && strings.size() == 1) {
-                        writeMethod.invoke(ret, DataType.asType(propertyDescriptor.getPropertyType(), strings.get(0))
-                        ); // TODO lists, consume values from ctor
-                    }
+    @Override
+    protected void writeInternal(final Object t, HttpOutputMessage outputMessage) throws IOException,
+            HttpMessageNotWritableException {
+        Instrumentation instrumentation = Instrumentations.get();
+        long start = instrumentation.startTimer();
+        try {
+            RenderingProfiler.render(outputMessage, profileHeader, new RenderingProfiler.Rendering() {
+                @Override
+                public void render(HttpOutputMessage profiledMessage) throws IOException {
+                    writeMessage(t, profiledMessage);
                 }
-                return ret;
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to instantiate bean " + clazz.getName(), e);
-            }
+            });
+        } finally {
+            instrumentation.stopTimer(Instrumentation.CONVERTER_WRITE, MediaType.TEXT_HTML_VALUE, start);
         }
     }
 
-    @Override
-    protected void writeInternal(Object t, HttpOutputMessage outputMessage) throws IOException,
+    private void writeMessage(Object t, HttpOutputMessage outputMessage) throws IOException,
             HttpMessageNotWritableException {
 
         XhtmlWriter xhtmlWriter = new XhtmlWriter(new OutputStreamWriter(outputMessage.getBody(), "UTF-8"));
@@ -257,17 +230,16 @@ public class XhtmlResourceMessageConverter extends AbstractHttpMessageConverter<
         xhtmlWriter.setDocumentationProvider(documentationProvider);
 
         xhtmlWriter.beginHtml("Form");
-        writeNewResource(xhtmlWriter, t);
+        writeNewResource(xhtmlWriter, t, RequestProjections.fromCurrentRequest(fieldsParam),
+                new TraversalGuard(maxDepth, maxNodes));
         xhtmlWriter.endHtml();
         xhtmlWriter.flush();
     }
 
-    static final Set<String> FILTER_RESOURCE_SUPPORT = new HashSet<String>(Arrays.asList("class", "links", "id"));
-
-
-    private void writeNewResource(XhtmlWriter writer, Object object) throws IOException {
+    private void writeNewResource(XhtmlWriter writer, Object object, PropertyProjection projection,
+                                  TraversalGuard guard) throws IOException {
         writer.beginUnorderedList();
-        writeResource(writer, object);
+        writeResource(writer, object, projection, guard);
         writer.endUnorderedList();
     }
 
@@ -278,8 +250,13 @@ public class XhtmlResourceMessageConverter extends AbstractHttpMessageConverter<
      *         to convert
      * @param writer
      *         to write to
+     * @param projection
+     *         selected properties
+     * @param guard
+     *         of the current traversal
      */
-    private void writeResource(XhtmlWriter writer, Object object) {
+    private void writeResource(XhtmlWriter writer, Object object, PropertyProjection projection,
+                               TraversalGuard guard) {
         if (object == null) {
             return;
         }
@@ -288,7 +265,7 @@ public class XhtmlResourceMessageConverter extends AbstractHttpMessageConverter<
                 Resource<?> resource = (Resource<?>) object;
                 writer.beginListItem();
 
-                writeResource(writer, resource.getContent());
+                writeResource(writer, resource.getContent(), projection, guard);
                 writer.writeLinks(resource.getLinks());
 
                 writer.endListItem();
@@ -300,7 +277,7 @@ public class XhtmlResourceMessageConverter extends AbstractHttpMessageConverter<
 
                 writer.beginUnorderedList();
                 Collection<?> content = resources.getContent();
-                writeResource(writer, content);
+                writeResource(writer, content, projection, guard);
                 writer.endUnorderedList();
 
                 writer.writeLinks(resources.getLinks());
@@ -310,17 +287,17 @@ public class XhtmlResourceMessageConverter extends AbstractHttpMessageConverter<
                 ResourceSupport resource = (ResourceSupport) object;
                 writer.beginListItem();
 
-                writeObject(writer, resource);
+                writeObject(writer, resource, projection, guard);
                 writer.writeLinks(resource.getLinks());
 
                 writer.endListItem();
             } else if (object instanceof Collection) {
                 Collection<?> collection = (Collection<?>) object;
                 for (Object item : collection) {
-                    writeResource(writer, item);
+                    writeResource(writer, item, projection, guard);
                 }
             } else { // TODO: write li for simple objects in Resources Collection
-                writeObject(writer, object);
+                writeObject(writer, object, projection, guard);
             }
         } catch (Exception ex) {
             throw new RuntimeException("failed to transform object " + object, ex);
@@ -337,64 +314,90 @@ public class XhtmlResourceMessageConverter extends AbstractHttpMessageConverter<
         writer.endUnorderedList();
     }
 
-    private void writeObject(XhtmlWriter writer, Object object) throws IOException, IllegalAccessException,
-            InvocationTargetException {
-        if (!DataType.isSingleValueType(object.getClass())) {
-            writer.beginDl();
+    private void writeObject(XhtmlWriter writer, Object object, PropertyProjection projection, TraversalGuard guard)
+            throws IOException, IllegalAccessException, InvocationTargetException {
+        boolean bean = !DataType.isSingleValueType(object.getClass());
+        if (bean && !guard.enter(object)) {
+            writeReference(writer, object);
+            return;
         }
-        if (object instanceof Map) {
-            Map<?, ?> map = (Map<?, ?>) object;
-            for (Entry<?, ?> entry : map.entrySet()) {
-                String name = entry.getKey()
-                        .toString();
-                Object content = entry.getValue();
-                String docUrl = documentationProvider.getDocumentationUrl(name, content);
-                writeObjectAttributeRecursively(writer, name, content, docUrl);
+        try {
+            if (bean) {
+                writer.beginDl();
             }
-        } else if (object instanceof Enum) {
-            String name = ((Enum) object).name();
-            String docUrl = documentationProvider.getDocumentationUrl(name, object);
-            writeDdForScalarValue(writer, object);
-        } else if (object instanceof Currency) {
-            // TODO configurable classes which should be rendered with toString
-            // or use JsonSerializer or DataType?
-            String name = object.toString();
-            String docUrl = documentationProvider.getDocumentationUrl(name, object);
-            writeDdForScalarValue(writer, object);
-        } else {
-            Class<?> aClass = object.getClass();
-            Map<String, PropertyDescriptor> propertyDescriptors = PropertyUtils.getPropertyDescriptors(object);
-            // getFields retrieves public only
-            Field[] fields = aClass.getFields();
-            for (Field field : fields) {
-                String name = field.getName();
-                if (!propertyDescriptors.containsKey(name)) {
-                    Object content = field.get(object);
-                    String docUrl = documentationProvider.getDocumentationUrl(field, content);
-                    //<a href="http://schema.org/review">http://schema.org/performer</a>
-                    writeObjectAttributeRecursively(writer, name, content, docUrl);
+            if (object instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) object;
+                for (Entry<?, ?> entry : map.entrySet()) {
+                    String name = entry.getKey()
+                            .toString();
+                    if (!projection.includes(name)) {
+                        continue;
+                    }
+                    Object content = entry.getValue();
+                    String docUrl = documentationProvider.getDocumentationUrl(name, content);
+                    writeObjectAttributeRecursively(writer, name, content, docUrl, projection.forProperty(name),
+                            guard);
                 }
-            }
-            for (PropertyDescriptor propertyDescriptor : propertyDescriptors.values()) {
-                String name = propertyDescriptor.getName();
-                if (FILTER_RESOURCE_SUPPORT.contains(name)) {
-                    continue;
+            } else if (object instanceof Enum) {
+                String name = ((Enum) object).name();
+                String docUrl = documentationProvider.getDocumentationUrl(name, object);
+                writeDdForScalarValue(writer, object);
+            } else if (object instanceof Currency) {
+                // TODO configurable classes which should be rendered with toString
+                // or use JsonSerializer or DataType?
+                String name = object.toString();
+                String docUrl = documentationProvider.getDocumentationUrl(name, object);
+                writeDdForScalarValue(writer, object);
+            } else {
+                BeanPlan plan = BeanPlan.forClass(object.getClass());
+                for (BeanProperty field : plan.getFields()) {
+                    String name = field.getName();
+                    if (projection.includes(name)) {
+                        Object content = field.getValue(object);
+                        String docUrl = documentationProvider.getDocumentationUrl(field.getField(), content);
+                        //<a href="http://schema.org/review">http://schema.org/performer</a>
+                        writeObjectAttributeRecursively(writer, name, content, docUrl, projection.forProperty(name),
+                                guard);
+                    }
                 }
-                Method readMethod = propertyDescriptor.getReadMethod();
-                if (readMethod != null) {
-                    Object content = readMethod.invoke(object);
-                    String docUrl = documentationProvider.getDocumentationUrl(readMethod, content);
-                    writeObjectAttributeRecursively(writer, name, content, docUrl);
+                for (BeanProperty property : plan.getProperties()) {
+                    String name = property.getName();
+                    if (projection.includes(name)) {
+                        Object content = property.getValue(object);
+                        String docUrl = documentationProvider.getDocumentationUrl(property.getReadMethod(), content);
+                        writeObjectAttributeRecursively(writer, name, content, docUrl, projection.forProperty(name),
+                                guard);
+                    }
                 }
             }
+            if (bean) {
+                writer.endDl();
+            }
+        } finally {
+            if (bean) {
+                guard.leave(object);
+            }
         }
-        if (!DataType.isSingleValueType(object.getClass())) {
-            writer.endDl();
+    }
+
+    /**
+     * Writes link to a bean which is already written on the current path or exceeds the traversal budget, or a
+     * placeholder if the bean has no self link.
+     */
+    private void writeReference(XhtmlWriter writer, Object object) throws IOException {
+        String id = TraversalGuard.getId(object);
+        if (id != null) {
+            writer.beginAnchor(XhtmlWriter.OptionalAttributes.attr("href", id));
+            writer.write(id);
+            writer.endAnchor();
+        } else {
+            writer.writeSpan(TraversalGuard.getPlaceholder(object));
         }
     }
 
-    private void writeObjectAttributeRecursively(XhtmlWriter writer, String name, Object content, String documentationUrl)
-            throws IOException {
+    private void writeObjectAttributeRecursively(XhtmlWriter writer, String name, Object content, String documentationUrl,
+                                                 PropertyProjection projection, TraversalGuard guard) throws
+            IOException {
         Object value = getContentAsScalarValue(content);
         if (!contentIsEmpty(content)) {
             writeDtWithDoc(writer, name, documentationUrl);
@@ -407,7 +410,7 @@ public class XhtmlResourceMessageConverter extends AbstractHttpMessageConverter<
             writeDdForScalarValue(writer, content.toString());
         } else {
             writer.beginDd();
-            writeNewResource(writer, content);
+            writeNewResource(writer, content, projection, guard);
             writer.endDd();
         }
     }
@@ -474,8 +477,66 @@ public class XhtmlResourceMessageConverter extends AbstractHttpMessageConverter<
         this.stylesheets = stylesheets;
     }
 
+    /**
+     * Sets documentation provider, whose urls are linked from attribute names.
+     *
+     * @param documentationProvider
+     *         to use
+     * @see CachingDocumentationProvider#of(DocumentationProvider)
+     */
     public void setDocumentationProvider(DocumentationProvider documentationProvider) {
-        this.documentationProvider = documentationProvider;
+        this.documentationProvider = CachingDocumentationProvider.of(documentationProvider);
+    }
+
+    /**
+     * Sets maximum number of nested beans on a traversal path, default is {@link TraversalGuard#DEFAULT_MAX_DEPTH}.
+     * Deeper beans are rendered as link if they have a self link, as placeholder otherwise.
+     *
+     * @param maxDepth
+     *         maximum depth
+     */
+    public void setMaxDepth(int maxDepth) {
+        Assert.isTrue(maxDepth > 0, "maxDepth must be positive");
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Sets maximum number of beans written per response, default is {@link TraversalGuard#DEFAULT_MAX_NODES}.
+     * Further beans are rendered as link if they have a self link, as placeholder otherwise.
+     *
+     * @param maxNodes
+     *         maximum number of beans
+     */
+    public void setMaxNodes(int maxNodes) {
+        Assert.isTrue(maxNodes > 0, "maxNodes must be positive");
+        this.maxNodes = maxNodes;
+    }
+
+    /**
+     * Sets name of the request parameter which selects the properties to render, e.g.
+     * <code>fields=name,address.street</code>. Not set by default, so all properties are rendered.
+     *
+     * @param fieldsParam
+     *         parameter name, e.g. {@link RequestProjections#DEFAULT_FIELDS_PARAM}, null to always render all
+     *         properties
+     * @see RequestProjections
+     * @see PropertyProjection
+     */
+    public void setFieldsParam(String fieldsParam) {
+        this.fieldsParam = fieldsParam;
+    }
+
+    /**
+     * Enables profiling of every response written by this converter. The time spent per rendering phase, the number
+     * of rendered objects and the number of bytes written are sent in a response header and logged at debug level.
+     * Profiled responses are buffered before they are sent.
+     *
+     * @param profileHeader
+     *         name of the response header, e.g. {@link RenderingProfiler#DEFAULT_PROFILE_HEADER}, null to disable
+     *         profiling
+     */
+    public void setProfileHeader(String profileHeader) {
+        this.profileHeader = profileHeader;
     }
 
     static class NullValue {
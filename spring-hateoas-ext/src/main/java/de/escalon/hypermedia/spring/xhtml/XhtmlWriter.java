@@ -9,6 +9,8 @@ import de.escalon.hypermedia.affordance.ActionDescriptor;
 import de.escalon.hypermedia.affordance.ActionInputParameter;
 import de.escalon.hypermedia.affordance.Affordance;
 import de.escalon.hypermedia.affordance.DataType;
+import de.escalon.hypermedia.instrument.RenderingProfile;
+import de.escalon.hypermedia.spring.CachingDocumentationProvider;
 import de.escalon.hypermedia.spring.DefaultDocumentationProvider;
 import de.escalon.hypermedia.spring.DocumentationProvider;
 import de.escalon.hypermedia.spring.SpringActionInputParameter;
@@ -190,8 +192,15 @@ public class XhtmlWriter extends Writer {
         this.stylesheets = stylesheets;
     }
 
+    /**
+     * Sets documentation provider, whose urls are linked from the labels of form fields.
+     *
+     * @param documentationProvider
+     *         to use
+     * @see CachingDocumentationProvider#of(DocumentationProvider)
+     */
     public void setDocumentationProvider(DocumentationProvider documentationProvider) {
-        this.documentationProvider = documentationProvider;
+        this.documentationProvider = CachingDocumentationProvider.of(documentationProvider);
     }
 
     public static class OptionalAttributes {
@@ -247,6 +256,15 @@ public class XhtmlWriter extends Writer {
 
 
     public void writeLinks(List<Link> links) throws IOException {
+        RenderingProfile.Phase previousPhase = RenderingProfile.startPhase(RenderingProfile.Phase.LINKS);
+        try {
+            appendLinks(links);
+        } finally {
+            RenderingProfile.endPhase(previousPhase);
+        }
+    }
+
+    private void appendLinks(List<Link> links) throws IOException {
         for (Link link : links) {
 
             if (link instanceof Affordance) {
@@ -309,6 +327,15 @@ public class XhtmlWriter extends Writer {
      * MVC HiddenHttpMethodFilter</a>
      */
     private void appendForm(Affordance affordance, ActionDescriptor actionDescriptor) throws IOException {
+        RenderingProfile.Phase previousPhase = RenderingProfile.startPhase(RenderingProfile.Phase.FORMS);
+        try {
+            writeForm(affordance, actionDescriptor);
+        } finally {
+            RenderingProfile.endPhase(previousPhase);
+        }
+    }
+
+    private void writeForm(Affordance affordance, ActionDescriptor actionDescriptor) throws IOException {
         String formName = actionDescriptor.getActionName();
         RequestMethod httpMethod = RequestMethod.valueOf(actionDescriptor.getHttpMethod());
 
@@ -13,14 +13,20 @@
 
 package de.escalon.hypermedia.affordance;
 
+import de.escalon.hypermedia.spring.SpringActionDescriptor;
 import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class AffordanceTest {
 
@@ -120,4 +126,47 @@ public class AffordanceTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void classifiesActionDescriptorsByHttpMethod() {
+        final Affordance affordance = new Affordance(new PartialUriTemplate("http://localhost/things"),
+                Arrays.<ActionDescriptor>asList(new SpringActionDescriptor("get", "GET"),
+                        new SpringActionDescriptor("post", "POST")), "thing");
+        assertTrue(affordance.hasSafeActions());
+        assertTrue(affordance.hasUnsafeActions());
+
+        final Affordance plain = new Affordance("http://localhost/things", "thing");
+        assertFalse(plain.hasSafeActions());
+        assertFalse(plain.hasUnsafeActions());
+        plain.setActionDescriptors(Arrays.<ActionDescriptor>asList(new SpringActionDescriptor("get", "GET")));
+        assertTrue(plain.hasSafeActions());
+        assertFalse(plain.hasUnsafeActions());
+    }
+
+    @Test
+    public void createsActionDescriptorsWhenAccessed() {
+        final int[] created = new int[1];
+        ActionDescriptorSource source = new ActionDescriptorSource() {
+            @Override
+            public List<ActionDescriptor> getActionDescriptors() {
+                created[0]++;
+                return Arrays.<ActionDescriptor>asList(new SpringActionDescriptor("post", "POST"));
+            }
+        };
+        final Affordance affordance = new Affordance(new PartialUriTemplate("http://localhost/things{?offset,size}"),
+                Arrays.asList("offset"), source, "thing");
+        assertEquals("http://localhost/things{?offset}", affordance.getHref());
+        assertEquals("<http://localhost/things{?offset,size}>; rel=\"thing\"", affordance.asHeader());
+        final Affordance expanded = affordance.expandPartially(Collections.<String, Object>singletonMap("offset", 10));
+        assertEquals("http://localhost/things?offset=10", expanded.getHref());
+        assertEquals(0, created[0]);
+
+        assertTrue(affordance.hasUnsafeActions());
+        assertEquals(1, affordance.getActionDescriptors()
+                .size());
+        assertEquals(1, created[0]);
+        assertEquals("post", expanded.getActionDescriptors()
+                .get(0)
+                .getActionName());
+    }
+
+}
@@ -178,6 +178,21 @@ public class DataTypeTest {
         assertFalse(DataType.isIsoLatin1Number("2.99792458e8"));
         assertFalse(DataType.isIsoLatin1Number("foo"));
         assertFalse(DataType.isIsoLatin1Number(""));
+        assertFalse(DataType.isIsoLatin1Number("-"));
         assertFalse(DataType.isIsoLatin1Number(null));
     }
+
+    @Test
+    public void testAsTypeUsesKindOfClass() throws Exception {
+        assertEquals(42, DataType.asType(int.class, "42"));
+        assertEquals(42, DataType.asType(Integer.class, "42"));
+        assertEquals(42L, DataType.asType(long.class, "42"));
+        assertEquals(Boolean.TRUE, DataType.asType(boolean.class, "true"));
+        assertEquals(new BigDecimal("0.10"), DataType.asType(BigDecimal.class, "0.10"));
+        // abstract number types and non-scalar types keep the string
+        assertEquals("42", DataType.asType(Number.class, "42"));
+        assertEquals("42", DataType.asType(Object.class, "42"));
+        assertTrue(DataType.isSingleValueType(Number.class));
+        assertFalse(DataType.isSingleValueType(Object.class));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+package de.escalon.hypermedia.affordance;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import de.escalon.hypermedia.spring.sample.test.EventStatusType;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+public class ScalarWriterTest {
+
+    @Test
+    public void testWritesNumbersAsJsonNumbers() throws Exception {
+        assertEquals("42", write(int.class, 42));
+        assertEquals("42", write(Integer.class, 42));
+        assertEquals("9007199254740993", write(long.class, 9007199254740993L));
+        assertEquals("1.5", write(double.class, 1.5d));
+        assertEquals("123456789012345678901234567890", write(BigInteger.class,
+                new BigInteger("123456789012345678901234567890")));
+        assertEquals("0.10", write(BigDecimal.class, new BigDecimal("0.10")));
+    }
+
+    @Test
+    public void testWritesBooleans() throws Exception {
+        assertEquals("true", write(boolean.class, true));
+        assertEquals("false", write(Boolean.class, false));
+    }
+
+    @Test
+    public void testNoWriterForOtherTypes() throws Exception {
+        assertNull(ScalarWriter.forType(Object.class));
+        assertNull(ScalarWriter.forType(Date.class));
+        assertNull(ScalarWriter.forType(EventStatusType.class));
+        assertNull(ScalarWriter.forType(String.class));
+        assertSame(ScalarWriter.forType(Integer.class), ScalarWriter.forType(Integer.class));
+    }
+
+    private static String write(Class<?> type, Object value) throws IOException {
+        StringWriter stringWriter = new StringWriter();
+        JsonGenerator jgen = new JsonFactory().createGenerator(stringWriter);
+        ScalarWriter.forType(type)
+                .write(jgen, value);
+        jgen.close();
+        return stringWriter.toString();
+    }
+}
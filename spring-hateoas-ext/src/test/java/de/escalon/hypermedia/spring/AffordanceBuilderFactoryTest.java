@@ -15,6 +15,8 @@ package de.escalon.hypermedia.spring;
 
 import de.escalon.hypermedia.action.Input;
 import de.escalon.hypermedia.affordance.Affordance;
+import de.escalon.hypermedia.instrument.Instrumentation;
+import de.escalon.hypermedia.instrument.Instrumentations;
 import org.junit.Before;
 import org.junit.Test;
 import org.springframework.hateoas.Resource;
@@ -34,6 +36,7 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -177,6 +180,36 @@ public class AffordanceBuilderFactoryTest {
         assertEquals("http://example.com/events", affordance.getHref());
     }
 
+    @Test
+    public void timesLinkBuilding() throws Exception {
+        final List<String> timers = new ArrayList<String>();
+        Instrumentations.set(new Instrumentation() {
+            @Override
+            public long startTimer() {
+                return System.nanoTime();
+            }
+
+            @Override
+            public void stopTimer(String name, String tag, long start) {
+                timers.add(name);
+            }
+
+            @Override
+            public void increment(String name, String tag) {
+
+            }
+        });
+        try {
+            factory.linkTo(AffordanceBuilder.methodOn(EventControllerSample.class)
+                    .getEvent((String) null));
+            factory.linkTo(ReflectionUtils.findMethod(EventControllerSample.class, "getEvent", String.class),
+                    new Object[0]);
+        } finally {
+            Instrumentations.set(null);
+        }
+        assertEquals(Arrays.asList(Instrumentation.LINK_BUILDING, Instrumentation.LINK_BUILDING), timers);
+    }
+
     @Test
     public void testLinkToMethodNoArgsBuild() throws Exception {
         final Method getEventMethod = ReflectionUtils.findMethod(EventControllerSample.class, "getEvent", String.class);
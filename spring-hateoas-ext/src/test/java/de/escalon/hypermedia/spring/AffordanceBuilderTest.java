@@ -65,6 +65,11 @@ public class AffordanceBuilderTest {
         public ResponseEntity updateThing(@PathVariable int id, @RequestBody Thing thing) {
             return new ResponseEntity(HttpStatus.OK);
         }
+
+        @RequestMapping(value = "/things", method = RequestMethod.GET)
+        public ResponseEntity listThings(@RequestParam(required = false) String cursor, @RequestParam int size) {
+            return new ResponseEntity(HttpStatus.OK);
+        }
     }
 
     @Test
@@ -76,6 +81,36 @@ public class AffordanceBuilderTest {
         Assert.assertEquals("Link: <http://example.com/things>; rel=\"next\"", affordance.toString());
     }
 
+    @Test
+    public void testWithCursorExpandsCursorVariable() {
+        final Affordance affordance = AffordanceBuilder.linkTo(AffordanceBuilder.methodOn(DummyController.class)
+                .listThings(null, 20))
+                .withCursor("cursor", "a+b/c=")
+                .rel("next")
+                .build();
+        Assert.assertEquals("http://example.com/things?size=20&cursor=a%2Bb%2Fc%3D", affordance.getHref());
+    }
+
+    @Test
+    public void testWithCursorReplacesCursorParam() {
+        final Affordance affordance = AffordanceBuilder.linkTo(AffordanceBuilder.methodOn(DummyController.class)
+                .listThings("abc", 20))
+                .withCursor("cursor", "def")
+                .rel("next")
+                .build();
+        Assert.assertEquals("http://example.com/things?size=20&cursor=def", affordance.getHref());
+    }
+
+    @Test
+    public void testWithoutCursorKeepsLink() {
+        final Affordance affordance = AffordanceBuilder.linkTo(AffordanceBuilder.methodOn(DummyController.class)
+                .createThing(new Thing()))
+                .withCursor("cursor", null)
+                .rel("next")
+                .build();
+        Assert.assertEquals("http://example.com/things", affordance.getHref());
+    }
+
     @Test
     public void testWithTitle() {
         final Affordance affordance = AffordanceBuilder.linkTo(AffordanceBuilder.methodOn(DummyController.class)
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.spring;
+
+import de.escalon.hypermedia.instrument.Instrumentation;
+import de.escalon.hypermedia.instrument.Instrumentations;
+import de.escalon.hypermedia.spring.DocumentationProviderFixtures.CountingDocumentationProvider;
+import de.escalon.hypermedia.spring.DocumentationProviderFixtures.Person;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CachingDocumentationProviderTest {
+
+    private CountingDocumentationProvider delegate;
+    private CachingDocumentationProvider documentationProvider;
+
+    @Before
+    public void setUp() {
+        delegate = new CountingDocumentationProvider();
+        documentationProvider = new CachingDocumentationProvider(delegate, 3);
+    }
+
+    @Test
+    public void computesUrlOncePerMemberAndContentClass() throws Exception {
+        Field field = Person.class.getField("name");
+        Method getter = Person.class.getMethod("getName");
+
+        assertEquals("http://example.com/name", documentationProvider.getDocumentationUrl(field, new Person()));
+        assertEquals("http://example.com/name", documentationProvider.getDocumentationUrl(field, new Person()));
+        assertEquals("http://example.com/name", documentationProvider.getDocumentationUrl(getter, new Person()));
+        assertEquals("http://example.com/name", documentationProvider.getDocumentationUrl(getter, new Person()));
+        assertEquals(2, delegate.calls);
+    }
+
+    @Test
+    public void cachesMissingUrls() {
+        assertNull(documentationProvider.getDocumentationUrl("_links", new Person()));
+        assertNull(documentationProvider.getDocumentationUrl("_links", new Person()));
+        assertEquals(1, delegate.calls);
+    }
+
+    @Test
+    public void limitsNumberOfCachedUrls() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals("http://example.com/key" + i, documentationProvider.getDocumentationUrl("key" + i, null));
+        }
+        assertEquals(3, documentationProvider.size());
+        assertEquals("http://example.com/key4", documentationProvider.getDocumentationUrl("key4", null));
+        assertEquals(6, delegate.calls);
+    }
+
+    @Test
+    public void countsCacheHitsAndMisses() {
+        final List<String> counters = new ArrayList<String>();
+        Instrumentations.set(new Instrumentation() {
+            @Override
+            public long startTimer() {
+                return 0L;
+            }
+
+            @Override
+            public void stopTimer(String name, String tag, long start) {
+
+            }
+
+            @Override
+            public void increment(String name, String tag) {
+                counters.add(name + ":" + tag);
+            }
+        });
+        try {
+            documentationProvider.getDocumentationUrl("name", new Person());
+            documentationProvider.getDocumentationUrl("name", new Person());
+        } finally {
+            Instrumentations.set(null);
+        }
+        assertEquals(Arrays.asList(Instrumentation.CACHE_MISSES + ":documentationUrls",
+                Instrumentation.CACHE_HITS + ":documentationUrls"), counters);
+    }
+
+    @Test
+    public void doesNotWrapTwice() {
+        DocumentationProvider caching = CachingDocumentationProvider.of(delegate);
+        assertTrue(caching instanceof CachingDocumentationProvider);
+        assertSame(caching, CachingDocumentationProvider.of(caching));
+    }
+
+    @Test
+    public void doesNotWrapProvidersWithoutStaticUrls() {
+        DocumentationProvider custom = new DefaultDocumentationProvider();
+        assertSame(custom, CachingDocumentationProvider.of(custom));
+    }
+}
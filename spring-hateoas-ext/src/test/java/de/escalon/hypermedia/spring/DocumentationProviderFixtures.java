@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+package de.escalon.hypermedia.spring;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Model and documentation provider shared by the documentation provider tests.
+ */
+final class DocumentationProviderFixtures {
+
+    private DocumentationProviderFixtures() {
+
+    }
+
+    public static class Person {
+        public String name;
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    static class CountingDocumentationProvider extends UrlPrefixDocumentationProvider {
+        int calls;
+
+        CountingDocumentationProvider() {
+            super("http://example.com/");
+        }
+
+        @Override
+        public String getDocumentationUrl(Field field, Object content) {
+            calls++;
+            return super.getDocumentationUrl(field, content);
+        }
+
+        @Override
+        public String getDocumentationUrl(Method getter, Object content) {
+            calls++;
+            return super.getDocumentationUrl(getter, content);
+        }
+
+        @Override
+        public String getDocumentationUrl(String name, Object content) {
+            calls++;
+            return name.startsWith("_") ? null : super.getDocumentationUrl(name, content);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2014. Escalon System-Entwicklung, Dietrich Schulten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for
+ * the specific language governing permissions and limitations under the License.
+ */
+
+
+package de.escalon.hypermedia.spring;
+
+import de.escalon.hypermedia.spring.DocumentationProviderFixtures.CountingDocumentationProvider;
+import de.escalon.hypermedia.spring.DocumentationProviderFixtures.Person;
+import de.escalon.hypermedia.spring.sample.test.Event;
+import de.escalon.hypermedia.spring.sample.test.Review;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DocumentationUrlIndexTest {
+
+    private CountingDocumentationProvider delegate;
+
+    @Before
+    public void setUp() {
+        delegate = new CountingDocumentationProvider();
+    }
+
+    @Test
+    public void answersIndexedMembersWithoutProvider() throws Exception {
+        DocumentationUrlIndex index = DocumentationUrlIndex.of(delegate, Person.class);
+        delegate.calls = 0;
+        Field field = Person.class.getField("name");
+        Method getter = Person.class.getMethod("getName");
+
+        assertEquals("http://example.com/name", index.getDocumentationUrl(field, "Alice"));
+        assertEquals("http://example.com/name", index.getDocumentationUrl(field, null));
+        assertEquals("http://example.com/name", index.getDocumentationUrl(getter, "Bob"));
+        assertEquals("http://example.com/Person", index.getDocumentationUrl(Person.class, new Person()));
+        assertEquals(0, delegate.calls);
+    }
+
+    @Test
+    public void delegatesNamesAndUnindexedMembers() throws Exception {
+        DocumentationUrlIndex index = DocumentationUrlIndex.of(delegate, Person.class);
+        delegate.calls = 0;
+
+        assertEquals("http://example.com/foo", index.getDocumentationUrl("foo", null));
+        assertEquals("http://example.com/foo", index.getDocumentationUrl("foo", null));
+        assertEquals(1, delegate.calls);
+    }
+
+    @Test
+    public void dumpsUrlsByClassAndMember() {
+        Map<String, String> dump = DocumentationUrlIndex.of(delegate, Person.class)
+                .dump();
+
+        String className = Person.class.getName();
+        assertEquals("http://example.com/Person", dump.get(className));
+        assertEquals("http://example.com/name", dump.get(className + "#name"));
+        assertEquals("http://example.com/name", dump.get(className + "#getName()"));
+        assertEquals(3, dump.size());
+    }
+
+    @Test
+    public void scansPackages() {
+        Map<String, String> dump = DocumentationUrlIndex.scan(delegate, Event.class.getPackage()
+                .getName())
+                .dump();
+
+        assertTrue(dump.containsKey(Event.class.getName()));
+        assertEquals("http://example.com/reviewBody", dump.get(Review.class.getName() + "#getReviewBody()"));
+    }
+
+    @Test
+    public void isNotWrappedByCachingProvider() {
+        DocumentationUrlIndex index = DocumentationUrlIndex.of(delegate, Person.class);
+        assertSame(index, CachingDocumentationProvider.of(index));
+    }
+}
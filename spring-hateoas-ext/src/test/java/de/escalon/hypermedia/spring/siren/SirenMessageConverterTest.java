@@ -5,6 +5,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import de.escalon.hypermedia.instrument.RenderingProfile;
+import de.escalon.hypermedia.spring.HypermediaTypes;
+import de.escalon.hypermedia.spring.RenderingProfiler;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -20,6 +23,7 @@ import org.springframework.hateoas.Resources;
 import org.springframework.hateoas.core.Relation;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.AnnotationConfigWebContextLoader;
@@ -32,13 +36,19 @@ import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
 
+import java.io.IOException;
 import java.util.List;
 
 import static com.jayway.jsonassert.JsonAssert.with;
 import static de.escalon.hypermedia.spring.AffordanceBuilder.linkTo;
 import static de.escalon.hypermedia.spring.AffordanceBuilder.methodOn;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
 import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
 
 /**
@@ -256,4 +266,57 @@ public class SirenMessageConverterTest {
                 "missing action for foo-query uri template");
         with(json).assertThat("$.actions[2].fields[0].type", equalTo("text"));
     }
+
+    @Test
+    public void testActionFieldsAreCachedPerHandlerMethod() throws JsonProcessingException {
+        SirenUtils cachingSirenUtils = new SirenUtils();
+
+        Order first = new Order();
+        first.add(linkTo(methodOn(DummyOrderController.class)
+                .addOrderItems(42, new OrderItem(42, null, null)))
+                .withRel("order-items"));
+        SirenEntity firstEntity = new SirenEntity();
+        cachingSirenUtils.toSirenEntity(firstEntity, first);
+
+        Order second = new Order();
+        second.add(linkTo(methodOn(DummyOrderController.class)
+                .addOrderItems(43, new OrderItem(43, null, null)))
+                .withRel("order-items"));
+        SirenEntity secondEntity = new SirenEntity();
+        cachingSirenUtils.toSirenEntity(secondEntity, second);
+
+        assertEquals(1, cachingSirenUtils.getActionCacheMisses());
+        assertEquals(1, cachingSirenUtils.getActionCacheHits());
+
+        String firstJson = objectMapper.valueToTree(firstEntity)
+                .toString();
+        String secondJson = objectMapper.valueToTree(secondEntity)
+                .toString();
+        with(firstJson).assertThat("$.actions[0].fields", hasSize(3));
+        with(secondJson).assertThat("$.actions[0].fields", hasSize(3));
+        with(firstJson).assertThat("$.actions[0].fields[0].value", equalTo("42"));
+        with(secondJson).assertThat("$.actions[0].fields[0].value", equalTo("43"));
+    }
+
+    @Test
+    public void testProfilesResponse() throws IOException {
+        Order order = new Order();
+        order.add(linkTo(methodOn(DummyOrderController.class)
+                .addOrderItems(42, new OrderItem(42, null, null)))
+                .withRel("order-items"));
+
+        SirenMessageConverter converter = new SirenMessageConverter();
+        converter.setProfileHeader(RenderingProfiler.DEFAULT_PROFILE_HEADER);
+        MockHttpOutputMessage outputMessage = new MockHttpOutputMessage();
+        converter.write(order, HypermediaTypes.SIREN_JSON, outputMessage);
+
+        String profile = outputMessage.getHeaders()
+                .getFirst(RenderingProfiler.DEFAULT_PROFILE_HEADER);
+        LOG.debug(profile);
+        assertThat(profile, containsString(" links="));
+        assertThat(profile, containsString(" forms="));
+        assertThat(profile, containsString(" objects=2 "));
+        assertThat(profile, endsWith(" bytes=" + outputMessage.getBodyAsBytes().length));
+        assertNull(RenderingProfile.current());
+    }
 }
@@ -1,7 +1,10 @@
 package de.escalon.hypermedia.spring.siren;
 
 import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.escalon.hypermedia.PropertyProjection;
 import org.hamcrest.Matchers;
 import org.junit.Before;
 import org.junit.Test;
@@ -9,14 +12,26 @@ import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedResources;
 import org.springframework.hateoas.PagedResources.PageMetadata;
 import org.springframework.hateoas.Resource;
+import org.springframework.hateoas.ResourceSupport;
 import org.springframework.hateoas.Resources;
 import org.springframework.hateoas.core.EmbeddedWrapper;
 import org.springframework.hateoas.core.Relation;
 
 import java.util.*;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import static com.jayway.jsonassert.JsonAssert.with;
 import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class SirenUtilsTest {
 
@@ -248,6 +263,129 @@ public class SirenUtilsTest {
         with(json).assertThat("$.links", hasSize(1));
     }
 
+    @Test
+    public void testResourcesInParallel() throws Exception {
+        List<Resource<Address>> addresses = new ArrayList<Resource<Address>>();
+        for (int i = 0; i < 200; i++) {
+            addresses.add(new Resource<Address>(new Address(), new Link("http://example.com/addresses/" + i)));
+        }
+        Resources<Resource<Address>> addressResources = new Resources<Resource<Address>>(addresses);
+        addressResources.add(new Link("http://example.com/addresses", "self"));
+
+        SirenEntity sequentialEntity = new SirenEntity();
+        sirenUtils.toSirenEntity(sequentialEntity, addressResources);
+
+        ThreadPoolExecutor executorService = (ThreadPoolExecutor) Executors.newFixedThreadPool(4);
+        try {
+            SirenUtils parallelSirenUtils = new SirenUtils();
+            parallelSirenUtils.setExecutorService(executorService);
+            parallelSirenUtils.setParallelThreshold(2);
+            parallelSirenUtils.setParallelism(4);
+            SirenEntity parallelEntity = new SirenEntity();
+            parallelSirenUtils.toSirenEntity(parallelEntity, addressResources);
+
+            String json = objectMapper.valueToTree(parallelEntity)
+                    .toString();
+            with(json).assertThat("$.entities", hasSize(200));
+            with(json).assertThat("$.entities[199].links[0].href", equalTo("http://example.com/addresses/199"));
+            assertEquals(objectMapper.valueToTree(sequentialEntity)
+                    .toString(), json);
+            // the calling thread converts the first of four chunks
+            assertEquals(3, executorService.getTaskCount());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Accepts the given number of tasks without running them, rejects further tasks.
+     */
+    static class HoldingExecutorService extends AbstractExecutorService {
+
+        final List<Runnable> held = new ArrayList<Runnable>();
+        private final int capacity;
+
+        HoldingExecutorService(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (held.size() == capacity) {
+                throw new RejectedExecutionException("capacity " + capacity + " reached");
+            }
+            held.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return held;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return false;
+        }
+    }
+
+    private Resources<Address> manyAddresses() {
+        List<Address> addresses = new ArrayList<Address>();
+        for (int i = 0; i < 200; i++) {
+            addresses.add(new Address());
+        }
+        return new Resources<Address>(addresses);
+    }
+
+    @Test
+    public void testCancelsSubmittedChunksOnRejection() {
+        HoldingExecutorService executorService = new HoldingExecutorService(1);
+        SirenUtils parallelSirenUtils = new SirenUtils();
+        parallelSirenUtils.setExecutorService(executorService);
+        parallelSirenUtils.setParallelThreshold(2);
+        parallelSirenUtils.setParallelism(4);
+        try {
+            parallelSirenUtils.toSirenEntity(new SirenEntity(), manyAddresses());
+            fail("rejection not reported");
+        } catch (RuntimeException e) {
+            assertEquals(1, executorService.held.size());
+            assertTrue(((Future<?>) executorService.held.get(0)).isCancelled());
+        }
+    }
+
+    @Test
+    public void testKeepsInterruptWhileWaitingForChunks() {
+        HoldingExecutorService executorService = new HoldingExecutorService(Integer.MAX_VALUE);
+        SirenUtils parallelSirenUtils = new SirenUtils();
+        parallelSirenUtils.setExecutorService(executorService);
+        parallelSirenUtils.setParallelThreshold(2);
+        parallelSirenUtils.setParallelism(4);
+        Thread.currentThread()
+                .interrupt();
+        try {
+            parallelSirenUtils.toSirenEntity(new SirenEntity(), manyAddresses());
+            fail("interrupt not reported");
+        } catch (RuntimeException e) {
+            assertTrue(Thread.interrupted());
+            assertTrue(((Future<?>) executorService.held.get(0)).isCancelled());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
     @Test
     public void testPagedResources() {
         List<Address> addresses = new ArrayList<Address>();
@@ -286,6 +424,33 @@ public class SirenUtilsTest {
         with(json).assertThat("$.properties.address.city.name", equalTo("Donnbronn"));
     }
 
+    enum Status {
+        ACTIVE;
+
+        @JsonValue
+        public String toJson() {
+            return "active";
+        }
+    }
+
+    @Test
+    public void testMapWithEnumAndNumbers() {
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("status", Status.ACTIVE);
+        map.put("count", 3);
+        map.put("flag", true);
+
+        SirenEntity entity = new SirenEntity();
+        sirenUtils.toSirenEntity(entity, map);
+
+        String json = objectMapper.valueToTree(entity)
+                .toString();
+
+        with(json).assertThat("$.properties.status", equalTo("active"));
+        with(json).assertThat("$.properties.count", equalTo(3));
+        with(json).assertThat("$.properties.flag", equalTo(true));
+    }
+
     @Test
     public void testAttributeWithListOfBeans() {
         class Customer {
@@ -562,5 +727,109 @@ public class SirenUtilsTest {
                 equalTo("74199"));
     }
 
+    class OrderResource extends ResourceSupport {
+        private final List<ItemResource> items = new ArrayList<ItemResource>();
+
+        public List<ItemResource> getItems() {
+            return items;
+        }
+    }
+
+    class ItemResource extends ResourceSupport {
+        private final OrderResource order;
+
+        ItemResource(OrderResource order) {
+            this.order = order;
+        }
+
+        public String getName() {
+            return "Latte";
+        }
+
+        public OrderResource getOrder() {
+            return order;
+        }
+    }
+
+    @Test
+    public void testBackReferenceToEmbeddedLink() {
+        OrderResource order = new OrderResource();
+        order.add(new Link("http://example.com/orders/1"));
+        order.getItems()
+                .add(new ItemResource(order));
+
+        SirenEntity entity = new SirenEntity();
+        sirenUtils.toSirenEntity(entity, order);
+
+        String json = objectMapper.valueToTree(entity)
+                .toString();
+        with(json).assertThat("$.entities[0].properties.name", equalTo("Latte"));
+        with(json).assertThat("$.entities[0].entities[0].rel", contains("order"));
+        with(json).assertThat("$.entities[0].entities[0].href", equalTo("http://example.com/orders/1"));
+    }
+
+    @Test
+    public void testMaxDepth() {
+        sirenUtils.setMaxDepth(2);
+
+        SirenEntity entity = new SirenEntity();
+        sirenUtils.toSirenEntity(entity, new Address());
+
+        String json = objectMapper.valueToTree(entity)
+                .toString();
+        with(json).assertThat("$.properties.city.postalCode", equalTo("74199"));
+
+        sirenUtils.setMaxDepth(1);
+
+        entity = new SirenEntity();
+        sirenUtils.toSirenEntity(entity, new Address());
+
+        JsonNode properties = objectMapper.valueToTree(entity)
+                .get("properties");
+        assertEquals("Grant Street", properties.get("street")
+                .asText());
+        assertEquals("[City not rendered]", properties.get("city")
+                .asText());
+    }
+
+    @Test
+    public void testBackReferenceWithoutSelfLinkToPlaceholder() {
+        OrderResource order = new OrderResource();
+        order.getItems()
+                .add(new ItemResource(order));
+
+        SirenEntity entity = new SirenEntity();
+        sirenUtils.toSirenEntity(entity, order);
+
+        String json = objectMapper.valueToTree(entity)
+                .toString();
+        with(json).assertThat("$.entities[0].properties.name", equalTo("Latte"));
+        with(json).assertThat("$.entities[0].entities[0].rel", contains("order"));
+        with(json).assertThat("$.entities[0].entities[0].title", equalTo("[OrderResource not rendered]"));
+    }
+
+    @Test
+    public void testPropertyProjection() {
+        Resources<Address> addresses = new Resources<Address>(Arrays.asList(new Address(), new Address()),
+                new Link("http://example.com/addresses"));
+
+        SirenEntity entity = new SirenEntity();
+        sirenUtils.toSirenEntity(entity, addresses, PropertyProjection.parse("street,city.postalCode"));
+
+        String json = objectMapper.valueToTree(entity)
+                .toString();
+        with(json).assertThat("$.links[0].href", equalTo("http://example.com/addresses"));
+        with(json).assertThat("$.entities", hasSize(2));
+        with(json).assertThat("$.entities[1].properties.street", equalTo("Grant Street"));
+        with(json).assertThat("$.entities[1].properties.city.postalCode", equalTo("74199"));
+
+        JsonNode city = objectMapper.valueToTree(entity)
+                .get("entities")
+                .get(1)
+                .get("properties")
+                .get("city");
+        assertFalse(city.has("name"));
+    }
+
     // TODO beans with setters, non-specific input parameter types
 }
\ No newline at end of file
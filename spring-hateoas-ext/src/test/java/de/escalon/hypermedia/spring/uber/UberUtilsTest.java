@@ -14,6 +14,7 @@
 package de.escalon.hypermedia.spring.uber;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.escalon.hypermedia.PropertyProjection;
 import de.escalon.hypermedia.spring.SpringActionDescriptor;
 import de.escalon.hypermedia.spring.SpringActionInputParameter;
 import org.hamcrest.Matchers;
@@ -312,4 +313,87 @@ public class UberUtilsTest {
                 .getFirstByName("foo")
                 .getValue());
     }
+
+    public static class BeanWithEmptyMap {
+        public String foo = FOO_VALUE;
+
+        public Map<String, String> getAttributes() {
+            return Collections.emptyMap();
+        }
+
+        public List<String> getTags() {
+            return null;
+        }
+    }
+
+    @Test
+    public void beanWithEmptyCollectionAndMapToUberNode() throws Exception {
+        UberNode node = new UberNode();
+        UberUtils.toUberData(node, new BeanWithEmptyMap());
+        assertEquals(1, node.getData()
+                .size());
+        assertEquals(FOO_VALUE, node.getFirstByName("foo")
+                .getValue());
+    }
+
+    public static class OrderResource extends ResourceSupport {
+        private final List<ItemResource> items = new ArrayList<ItemResource>();
+
+        public List<ItemResource> getItems() {
+            return items;
+        }
+    }
+
+    public static class ItemResource extends ResourceSupport {
+        private final OrderResource order;
+
+        ItemResource(OrderResource order) {
+            this.order = order;
+        }
+
+        public String getName() {
+            return FOO_VALUE;
+        }
+
+        public OrderResource getOrder() {
+            return order;
+        }
+    }
+
+    @Test
+    public void backReferenceToUberNodeWithUrl() throws Exception {
+        OrderResource order = new OrderResource();
+        order.add(new Link(URL_HOME + "/orders/1"));
+        order.getItems()
+                .add(new ItemResource(order));
+        UberNode node = new UberNode();
+        UberUtils.toUberData(node, order);
+        UberNode item = node.getFirstByName("items")
+                .getData()
+                .get(0);
+        assertEquals(FOO_VALUE, item.getFirstByName("name")
+                .getValue());
+        UberNode orderReference = item.getFirstByName("order");
+        assertEquals(URL_HOME + "/orders/1", orderReference.getUrl());
+        assertTrue(orderReference.getData()
+                .isEmpty());
+    }
+
+    @Test
+    public void projectedPropertiesToUberNode() throws Exception {
+        OrderResource order = new OrderResource();
+        order.add(new Link(URL_HOME + "/orders/1"));
+        order.getItems()
+                .add(new ItemResource(order));
+        UberNode node = new UberNode();
+        UberUtils.toUberData(node, order, PropertyProjection.parse("items.name"));
+        assertEquals(URL_HOME + "/orders/1", node.getFirstByRel(Link.REL_SELF)
+                .getUrl());
+        UberNode item = node.getFirstByName("items")
+                .getData()
+                .get(0);
+        assertEquals(FOO_VALUE, item.getFirstByName("name")
+                .getValue());
+        assertNull(item.getFirstByName("order"));
+    }
 }
@@ -1,10 +1,22 @@
 package de.escalon.hypermedia.spring.xhtml;
 
 import de.escalon.hypermedia.spring.sample.test.Event;
+import de.escalon.hypermedia.spring.sample.test.EventStatusType;
 import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 
-import static org.junit.Assert.assertEquals;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
 
 public class XhtmlResourceMessageConverterReadTest {
 
@@ -20,4 +32,122 @@ public class XhtmlResourceMessageConverterReadTest {
                 .getContent().name);
         assertEquals("Harmonie Heilbronn", event.location);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testReadFormValuesDecodesPairs() throws Exception {
+        String body = "location=Harmonie+Heilbronn&performer=Walk%20off%20the%20Earth&empty=&flag&a=1&a=2";
+        MultiValueMap<String, String> formValues = converter.readFormValues(new ByteArrayInputStream(body
+                .getBytes("UTF-8")), Charset.forName("UTF-8"));
+
+        assertEquals("Harmonie Heilbronn", formValues.getFirst("location"));
+        assertEquals("Walk off the Earth", formValues.getFirst("performer"));
+        assertEquals("", formValues.getFirst("empty"));
+        assertNull(formValues.getFirst("flag"));
+        assertEquals(Arrays.asList("1", "2"), formValues.get("a"));
+    }
+
+    @Test
+    public void testReadsFormBody() throws Exception {
+        MockHttpInputMessage inputMessage = new MockHttpInputMessage(
+                "workPerformed.name=foo&location=Harmonie+Heilbronn&eventStatus=EVENT_SCHEDULED".getBytes("UTF-8"));
+        inputMessage.getHeaders()
+                .setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+
+        Event event = (Event) converter.read(Event.class, null, inputMessage);
+
+        assertEquals("foo", event.getWorkPerformed()
+                .getContent().name);
+        assertEquals("Harmonie Heilbronn", event.location);
+        assertEquals(EventStatusType.EVENT_SCHEDULED, event.getEventStatus());
+    }
+
+    @Test
+    public void testReadsServletRequestParameters() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/events");
+        request.setContentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+        request.addParameter("workPerformed.name", "foo & bar");
+        request.addParameter("location", "Harmonie Heilbronn");
+
+        Event event = (Event) converter.read(Event.class, null, new ServletServerHttpRequest(request));
+
+        assertEquals("foo & bar", event.getWorkPerformed()
+                .getContent().name);
+        assertEquals("Harmonie Heilbronn", event.location);
+    }
+
+    public static class Tags {
+        private List<String> names;
+        private Set<EventStatusType> statuses;
+        private int[] ratings;
+
+        public List<String> getNames() {
+            return names;
+        }
+
+        public void setNames(List<String> names) {
+            this.names = names;
+        }
+
+        public Set<EventStatusType> getStatuses() {
+            return statuses;
+        }
+
+        public void setStatuses(Set<EventStatusType> statuses) {
+            this.statuses = statuses;
+        }
+
+        public int[] getRatings() {
+            return ratings;
+        }
+
+        public void setRatings(int[] ratings) {
+            this.ratings = ratings;
+        }
+    }
+
+    @Test
+    public void testRecursivelyCreateObjectCollectionValued() throws Exception {
+        LinkedMultiValueMap<String, String> formValues = new LinkedMultiValueMap<String, String>();
+        formValues.add("names", "foo");
+        formValues.add("names", "bar");
+        formValues.add("statuses", "EVENT_SCHEDULED");
+        formValues.add("statuses", "EVENT_CANCELLED");
+        formValues.add("ratings", "4");
+        formValues.add("ratings", "5");
+        Tags tags = (Tags) converter.recursivelyCreateObject(Tags.class, formValues, "");
+
+        assertEquals(Arrays.asList("foo", "bar"), tags.getNames());
+        assertEquals(2, tags.getStatuses()
+                .size());
+        assertTrue(tags.getStatuses()
+                .contains(EventStatusType.EVENT_CANCELLED));
+        assertArrayEquals(new int[]{4, 5}, tags.getRatings());
+    }
+
+    public static class Label {
+        private String text = "default";
+
+        public String getText() {
+            return text;
+        }
+
+        public void setText(String text) {
+            this.text = text;
+        }
+    }
+
+    @Test
+    public void testIgnoresRepeatedValuesOfSingleValuedSetter() throws Exception {
+        LinkedMultiValueMap<String, String> formValues = new LinkedMultiValueMap<String, String>();
+        formValues.add("text", "foo");
+        formValues.add("text", "bar");
+        Label label = (Label) converter.recursivelyCreateObject(Label.class, formValues, "");
+
+        assertEquals("default", label.getText());
+    }
+
+    @Test
+    public void testBinderIsCachedPerClass() throws Exception {
+        assertSame(FormBeanBinder.forClass(Event.class), FormBeanBinder.forClass(Event.class));
+    }
+}